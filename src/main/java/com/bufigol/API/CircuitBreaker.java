@@ -0,0 +1,331 @@
+package com.bufigol.API;
+
+import com.bufigol.expeciones.ShellyAPIException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Circuit breaker para las llamadas a un endpoint de Shelly Cloud.
+ *
+ * En estado CLOSED registra el resultado de las últimas windowSize llamadas en una
+ * ventana deslizante. Cuando hay al menos minimumCalls y la tasa de fallos o la de
+ * llamadas lentas supera su umbral, pasa a OPEN y rechaza las peticiones sin enviarlas.
+ * Tras waitDurationInOpen pasa a HALF_OPEN y deja pasar permittedCallsInHalfOpen
+ * llamadas de prueba: si superan los umbrales vuelve a CLOSED, si no a OPEN.
+ *
+ * Lo habitual es obtenerlo con {@link #forEndpoint(String)} para que todos los
+ * servicios que usan la misma URL base compartan el estado.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Listener de cambios de estado.
+     */
+    @FunctionalInterface
+    public interface StateListener {
+        void onStateChange(String endpoint, State from, State to);
+    }
+
+    /**
+     * Valor que devuelve {@link #acquirePermission()} cuando rechaza la llamada.
+     */
+    public static final long NO_PERMISSION = -1;
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private static final int DEFAULT_WINDOW_SIZE = 50;
+    private static final int DEFAULT_MINIMUM_CALLS = 10;
+    private static final double DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    private static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(5);
+    private static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 80;
+    private static final Duration DEFAULT_WAIT_IN_OPEN = Duration.ofSeconds(30);
+    private static final int DEFAULT_PERMITTED_IN_HALF_OPEN = 3;
+
+    private final String endpoint;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long waitInOpenNanos;
+    private final int permittedCallsInHalfOpen;
+    private final List<StateListener> listeners;
+    private final Map<State, Long> transitions;
+
+    // Ventana deslizante por número de llamadas: un byte por llamada con los bits FAILED y SLOW
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+    private final byte[] window;
+    private int windowPosition;
+    private int windowCount;
+    private int windowFailures;
+    private int windowSlow;
+
+    private State state;
+    private long openedAtNanos;
+    // Se incrementa al entrar en HALF_OPEN; identifica a qué fase pertenece cada permiso
+    private long generation;
+    private int halfOpenPermitsIssued;
+    private int halfOpenCalls;
+    private int halfOpenFailures;
+    private int halfOpenSlow;
+    private long rejectedCalls;
+
+    public CircuitBreaker(String endpoint) {
+        this(endpoint, DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_CALLS, DEFAULT_FAILURE_RATE_THRESHOLD,
+                DEFAULT_SLOW_CALL_DURATION, DEFAULT_SLOW_CALL_RATE_THRESHOLD, DEFAULT_WAIT_IN_OPEN,
+                DEFAULT_PERMITTED_IN_HALF_OPEN);
+    }
+
+    /**
+     * @param endpoint URL base protegida
+     * @param windowSize número de llamadas de la ventana deslizante
+     * @param minimumCalls llamadas mínimas en la ventana antes de evaluar los umbrales
+     * @param failureRateThreshold porcentaje de fallos que abre el circuito
+     * @param slowCallDuration duración a partir de la cual una llamada se considera lenta
+     * @param slowCallRateThreshold porcentaje de llamadas lentas que abre el circuito
+     * @param waitInOpen tiempo en OPEN antes de pasar a HALF_OPEN
+     * @param permittedCallsInHalfOpen llamadas de prueba permitidas en HALF_OPEN
+     */
+    public CircuitBreaker(String endpoint, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration slowCallDuration, double slowCallRateThreshold, Duration waitInOpen,
+                          int permittedCallsInHalfOpen) {
+        if (windowSize <= 0 || minimumCalls <= 0 || permittedCallsInHalfOpen <= 0) {
+            throw new IllegalArgumentException("El tamaño de ventana y los mínimos deben ser mayores que 0.");
+        }
+        this.endpoint = endpoint;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.waitInOpenNanos = waitInOpen.toNanos();
+        this.permittedCallsInHalfOpen = permittedCallsInHalfOpen;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.transitions = new EnumMap<>(State.class);
+        this.window = new byte[windowSize];
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * Obtiene el circuit breaker compartido para una URL base, con la configuración por defecto.
+     * @param baseUrl URL base
+     * @return circuit breaker compartido
+     */
+    public static CircuitBreaker forEndpoint(String baseUrl) {
+        return BREAKERS.computeIfAbsent(baseUrl, CircuitBreaker::new);
+    }
+
+    /**
+     * Pide permiso para enviar una llamada. Si se concede, el llamante debe informar
+     * del resultado con {@link #onResult} o devolver el permiso con {@link #releasePermission(long)},
+     * pasando en ambos casos el permiso devuelto.
+     *
+     * @return permiso concedido, o {@link #NO_PERMISSION} si la llamada no puede enviarse
+     */
+    public long acquirePermission() {
+        boolean permitted;
+        long permit;
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= waitInOpenNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            permitted = switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> halfOpenPermitsIssued < permittedCallsInHalfOpen;
+            };
+            if (permitted && state == State.HALF_OPEN) {
+                halfOpenPermitsIssued++;
+            } else if (!permitted) {
+                rejectedCalls++;
+            }
+            permit = generation;
+            to = state;
+        }
+        if (from != to) {
+            notifyListeners(from, to);
+        }
+        return permitted ? permit : NO_PERMISSION;
+    }
+
+    /**
+     * Devuelve un permiso concedido que finalmente no se usó (p. ej. la petición se canceló).
+     * @param permit permiso devuelto por {@link #acquirePermission()}
+     */
+    public synchronized void releasePermission(long permit) {
+        if (isHalfOpenPermit(permit) && halfOpenPermitsIssued > 0) {
+            halfOpenPermitsIssued--;
+        }
+    }
+
+    /**
+     * Registra el resultado de una llamada permitida. Los resultados de llamadas concedidas
+     * antes de entrar en la fase HALF_OPEN actual no cuentan como llamadas de prueba.
+     * @param permit permiso devuelto por {@link #acquirePermission()}
+     * @param durationNanos duración de la llamada
+     * @param error error producido, o null si la llamada fue correcta
+     */
+    public void onResult(long permit, long durationNanos, Throwable error) {
+        boolean failed = error != null && isFailure(error);
+        boolean slow = durationNanos >= slowCallNanos;
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            if (state == State.CLOSED) {
+                recordInWindow(failed, slow);
+                if (windowCount >= minimumCalls && exceedsThresholds(windowFailures, windowSlow, windowCount)) {
+                    transitionTo(State.OPEN);
+                }
+            } else if (isHalfOpenPermit(permit)) {
+                halfOpenCalls++;
+                if (failed) {
+                    halfOpenFailures++;
+                }
+                if (slow) {
+                    halfOpenSlow++;
+                }
+                if (halfOpenCalls >= permittedCallsInHalfOpen) {
+                    transitionTo(exceedsThresholds(halfOpenFailures, halfOpenSlow, halfOpenCalls)
+                            ? State.OPEN : State.CLOSED);
+                }
+            }
+            to = state;
+        }
+        if (from != to) {
+            notifyListeners(from, to);
+        }
+    }
+
+    /**
+     * Indica si un error refleja un problema del endpoint. Los errores del cliente
+     * (4xx) no cuentan: el servidor respondió correctamente.
+     * @param error error producido
+     * @return true si cuenta como fallo
+     */
+    public boolean isFailure(Throwable error) {
+        if (error instanceof ShellyAPIException apiError) {
+            return apiError.getStatusCode() >= 500
+                    || (apiError.getStatusCode() < 0 && apiError.getCause() instanceof IOException);
+        }
+        return error instanceof IOException;
+    }
+
+    public void addStateListener(StateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeStateListener(StateListener listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return porcentaje de fallos en la ventana actual, o -1 si no hay llamadas suficientes
+     */
+    public synchronized double getFailureRate() {
+        return windowCount < minimumCalls ? -1 : 100.0 * windowFailures / windowCount;
+    }
+
+    /**
+     * @return porcentaje de llamadas lentas en la ventana actual, o -1 si no hay llamadas suficientes
+     */
+    public synchronized double getSlowCallRate() {
+        return windowCount < minimumCalls ? -1 : 100.0 * windowSlow / windowCount;
+    }
+
+    /**
+     * @param to estado destino
+     * @return número de veces que el circuito ha entrado en ese estado
+     */
+    public synchronized long getTransitionCount(State to) {
+        return transitions.getOrDefault(to, 0L);
+    }
+
+    /**
+     * @return número de llamadas rechazadas sin enviarse
+     */
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    private boolean isHalfOpenPermit(long permit) {
+        return state == State.HALF_OPEN && permit == generation;
+    }
+
+    private boolean exceedsThresholds(int failures, int slow, int calls) {
+        return 100.0 * failures / calls >= failureRateThreshold || 100.0 * slow / calls >= slowCallRateThreshold;
+    }
+
+    private void recordInWindow(boolean failed, boolean slow) {
+        if (windowCount == windowSize) {
+            byte evicted = window[windowPosition];
+            if ((evicted & FAILED) != 0) {
+                windowFailures--;
+            }
+            if ((evicted & SLOW) != 0) {
+                windowSlow--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowPosition] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        windowPosition = (windowPosition + 1) % windowSize;
+        if (failed) {
+            windowFailures++;
+        }
+        if (slow) {
+            windowSlow++;
+        }
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        transitions.merge(newState, 1L, Long::sum);
+        switch (newState) {
+            case OPEN -> openedAtNanos = System.nanoTime();
+            case HALF_OPEN -> {
+                generation++;
+                halfOpenPermitsIssued = 0;
+                halfOpenCalls = 0;
+                halfOpenFailures = 0;
+                halfOpenSlow = 0;
+            }
+            case CLOSED -> {
+                windowPosition = 0;
+                windowCount = 0;
+                windowFailures = 0;
+                windowSlow = 0;
+            }
+        }
+    }
+
+    private void notifyListeners(State from, State to) {
+        for (StateListener listener : listeners) {
+            listener.onStateChange(endpoint, from, to);
+        }
+    }
+}
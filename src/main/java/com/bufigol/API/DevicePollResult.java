@@ -0,0 +1,70 @@
+package com.bufigol.API;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+
+import java.time.Duration;
+
+/**
+ * Resultado de consultar el estado de un único dispositivo dentro de una
+ * pasada de {@link FleetPoller}.
+ */
+public final class DevicePollResult {
+    private final String deviceName;
+    private final String deviceId;
+    private final JSONResponse response;
+    private final Throwable error;
+    private final long durationNanos;
+
+    public DevicePollResult(String deviceName, String deviceId, JSONResponse response,
+                            Throwable error, long durationNanos) {
+        this.deviceName = deviceName;
+        this.deviceId = deviceId;
+        this.response = response;
+        this.error = error;
+        this.durationNanos = durationNanos;
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * @return respuesta obtenida, o null si la consulta falló con una excepción
+     */
+    public JSONResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * @return excepción producida, o null si se obtuvo respuesta
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public Duration getDuration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
+    /**
+     * Una consulta se considera correcta si no hubo excepción y la nube devolvió isok=true.
+     * @return true si la consulta fue correcta
+     */
+    public boolean isSuccess() {
+        return error == null && response != null && response.isIsok();
+    }
+
+    @Override
+    public String toString() {
+        return "DevicePollResult{" + "deviceName='" + deviceName + '\'' +
+                ", deviceId='" + deviceId + '\'' +
+                ", success=" + isSuccess() +
+                ", duration=" + getDuration() +
+                (error != null ? ", error=" + error : "") +
+                '}';
+    }
+}
@@ -0,0 +1,220 @@
+package com.bufigol.API;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché de estados de dispositivo delante de ShellyAPIService, indexada por ID.
+ *
+ * Una entrada es fresca durante el TTL y se sirve sin consultar la nube. Pasado el TTL
+ * y hasta el límite de obsolescencia se sirve igualmente al instante mientras se
+ * refresca en segundo plano (stale-while-revalidate). Más allá de ese límite se trata
+ * como un fallo de caché y el llamante espera a la consulta.
+ *
+ * El tamaño está acotado: al superarlo se descarta la entrada usada hace más tiempo.
+ * Solo se guardan respuestas con isok=true. Los JSONResponse devueltos se comparten
+ * entre llamantes y no deben modificarse.
+ */
+public class DeviceStatusCache {
+    private final ShellyAPIService apiService;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final int maxSize;
+    private final LongSupplier ticker;
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param apiService servicio usado para cargar los estados
+     * @param ttl tiempo durante el que una entrada es fresca
+     * @param maxStale tiempo adicional durante el que una entrada caducada puede servirse mientras se refresca
+     * @param maxSize número máximo de dispositivos en caché
+     */
+    public DeviceStatusCache(ShellyAPIService apiService, Duration ttl, Duration maxStale, int maxSize) {
+        this(apiService, ttl, maxStale, maxSize, System::nanoTime);
+    }
+
+    DeviceStatusCache(ShellyAPIService apiService, Duration ttl, Duration maxStale, int maxSize,
+                      LongSupplier ticker) {
+        if (ttl.isNegative() || maxStale.isNegative()) {
+            throw new IllegalArgumentException("ttl y maxStale no pueden ser negativos");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize debe ser positivo: " + maxSize);
+        }
+        this.apiService = apiService;
+        this.ttlNanos = ttl.toNanos();
+        this.maxStaleNanos = maxStale.toNanos();
+        this.maxSize = maxSize;
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > DeviceStatusCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Obtiene el estado del dispositivo, desde la caché si es posible.
+     *
+     * @param deviceId ID del dispositivo
+     * @return respuesta, posiblemente obsoleta dentro del límite configurado
+     * @throws Exception si hay que consultar la nube y la petición falla
+     */
+    public JSONResponse get(String deviceId) throws Exception {
+        try {
+            return getAsync(deviceId).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Versión no bloqueante de {@link #get(String)}. Los aciertos devuelven un futuro ya completado.
+     *
+     * @param deviceId ID del dispositivo
+     * @return futuro con la respuesta
+     */
+    public CompletableFuture<JSONResponse> getAsync(String deviceId) {
+        long now = ticker.getAsLong();
+        Entry entry;
+        boolean refresh = false;
+        synchronized (entries) {
+            entry = entries.get(deviceId);
+            if (entry != null) {
+                long age = now - entry.loadedAt;
+                if (age < ttlNanos) {
+                    hits.incrementAndGet();
+                    return CompletableFuture.completedFuture(entry.response);
+                }
+                if (age - ttlNanos < maxStaleNanos) {
+                    staleHits.incrementAndGet();
+                    if (!entry.refreshing) {
+                        entry.refreshing = true;
+                        refresh = true;
+                    }
+                } else {
+                    entry = null;
+                }
+            }
+        }
+        if (entry != null) {
+            if (refresh) {
+                refresh(deviceId, entry);
+            }
+            return CompletableFuture.completedFuture(entry.response);
+        }
+        misses.incrementAndGet();
+        return apiService.getDeviceStatusAsync(deviceId)
+                .thenApply(response -> {
+                    store(deviceId, response);
+                    return response;
+                });
+    }
+
+    /**
+     * Descarta la entrada de un dispositivo.
+     * @param deviceId ID del dispositivo
+     */
+    public void invalidate(String deviceId) {
+        synchronized (entries) {
+            entries.remove(deviceId);
+        }
+    }
+
+    /**
+     * Descarta todas las entradas.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return número de consultas servidas con una entrada fresca
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return número de consultas servidas con una entrada caducada mientras se refrescaba
+     */
+    public long getStaleHitCount() {
+        return staleHits.get();
+    }
+
+    /**
+     * @return número de consultas que tuvieron que esperar a la nube
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return número de entradas descartadas por superar el tamaño máximo
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private void refresh(String deviceId, Entry stale) {
+        apiService.getDeviceStatusAsync(deviceId, RequestPriority.BATCH)
+                .whenComplete((response, error) -> {
+                    if (error == null) {
+                        store(deviceId, response);
+                    }
+                    // Si falla se sigue sirviendo la entrada obsoleta y el siguiente acceso reintenta
+                    synchronized (entries) {
+                        stale.refreshing = false;
+                    }
+                });
+    }
+
+    private void store(String deviceId, JSONResponse response) {
+        if (response == null || !response.isIsok()) {
+            return;
+        }
+        Entry entry = new Entry(response, ticker.getAsLong());
+        synchronized (entries) {
+            entries.put(deviceId, entry);
+        }
+    }
+
+    private static final class Entry {
+        private final JSONResponse response;
+        private final long loadedAt;
+        private boolean refreshing;
+
+        private Entry(JSONResponse response, long loadedAt) {
+            this.response = response;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bufigol.API;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resultado agregado de una pasada de {@link FleetPoller} sobre toda la flota.
+ */
+public final class FleetPollResult {
+    private final List<DevicePollResult> results;
+    private final long totalDurationNanos;
+
+    public FleetPollResult(List<DevicePollResult> results, long totalDurationNanos) {
+        this.results = Collections.unmodifiableList(results);
+        this.totalDurationNanos = totalDurationNanos;
+    }
+
+    public List<DevicePollResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return resultados indexados por nombre de dispositivo
+     */
+    public Map<String, DevicePollResult> getResultsByName() {
+        return results.stream().collect(Collectors.toMap(DevicePollResult::getDeviceName, Function.identity()));
+    }
+
+    public List<DevicePollResult> getSuccesses() {
+        return results.stream().filter(DevicePollResult::isSuccess).toList();
+    }
+
+    public List<DevicePollResult> getFailures() {
+        return results.stream().filter(r -> !r.isSuccess()).toList();
+    }
+
+    public int getSuccessCount() {
+        return (int) results.stream().filter(DevicePollResult::isSuccess).count();
+    }
+
+    public int getFailureCount() {
+        return results.size() - getSuccessCount();
+    }
+
+    /**
+     * @return tiempo real transcurrido para toda la pasada
+     */
+    public Duration getTotalDuration() {
+        return Duration.ofNanos(totalDurationNanos);
+    }
+
+    /**
+     * @return la consulta individual más lenta, o Duration.ZERO si no hubo dispositivos
+     */
+    public Duration getMaxDeviceDuration() {
+        return results.stream().map(DevicePollResult::getDuration).max(Duration::compareTo).orElse(Duration.ZERO);
+    }
+
+    @Override
+    public String toString() {
+        return "FleetPollResult{" + "devices=" + results.size() +
+                ", successes=" + getSuccessCount() +
+                ", failures=" + getFailureCount() +
+                ", totalDuration=" + getTotalDuration() +
+                '}';
+    }
+}
@@ -0,0 +1,132 @@
+package com.bufigol.API;
+
+import com.bufigol.config.ShellyConfig;
+import com.bufigol.expeciones.ConfigurationException;
+import com.bufigol.modelo.auxiliares.JSONResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Consulta en paralelo el estado de todos los dispositivos de la flota.
+ * Cada dispositivo se consulta en su propio hilo virtual, por lo que las esperas
+ * de red no ocupan hilos de plataforma. Un semáforo limita el número de peticiones
+ * simultáneas contra la nube. Las peticiones se marcan como de lote, de modo que
+ * las consultas interactivas las adelantan en el limitador de tasa.
+ */
+public class FleetPoller {
+    private static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+    private final ShellyAPIService apiService;
+    private final int maxConcurrency;
+
+    public FleetPoller(ShellyAPIService apiService) {
+        this(apiService, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * @param apiService servicio usado para cada consulta
+     * @param maxConcurrency número máximo de peticiones simultáneas
+     */
+    public FleetPoller(ShellyAPIService apiService, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("La concurrencia máxima debe ser mayor que 0.");
+        }
+        this.apiService = apiService;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Consulta todos los dispositivos definidos en shelly.json.
+     *
+     * @param shellyConfig configuración cargada
+     * @return resultado agregado de la pasada
+     * @throws ConfigurationException si la configuración no está cargada
+     */
+    public FleetPollResult pollAll(ShellyConfig shellyConfig) throws ConfigurationException {
+        return pollAll(shellyConfig.getDevices());
+    }
+
+    /**
+     * Consulta todos los dispositivos indicados. Los fallos individuales no
+     * interrumpen la pasada: quedan registrados en su DevicePollResult.
+     *
+     * @param devices Map de nombre de dispositivo a ID
+     * @return resultado agregado, en el mismo orden de iteración que devices
+     */
+    public FleetPollResult pollAll(Map<String, String> devices) {
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(maxConcurrency, true);
+        List<Future<DevicePollResult>> futures = new ArrayList<>(devices.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<String, String> device : devices.entrySet()) {
+                futures.add(executor.submit(() -> pollDevice(device.getKey(), device.getValue(), permits)));
+            }
+        }
+
+        List<DevicePollResult> results = new ArrayList<>(futures.size());
+        for (Future<DevicePollResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Consulta de la flota interrumpida", e);
+            } catch (ExecutionException e) {
+                // pollDevice captura sus propias excepciones, así que esto no debería ocurrir
+                throw new IllegalStateException("Error inesperado consultando la flota", e.getCause());
+            }
+        }
+        return new FleetPollResult(results, System.nanoTime() - start);
+    }
+
+    /**
+     * Consulta todos los dispositivos usando el endpoint masivo de Shelly Cloud
+     * ({@link ShellyAPIService#getDevicesStatus}). Reduce la pasada a una única petición
+     * en el caso habitual; los dispositivos ausentes de la respuesta masiva se consultan
+     * individualmente. La duración de cada dispositivo es la de la pasada completa.
+     *
+     * @param devices Map de nombre de dispositivo a ID
+     * @return resultado agregado, en el mismo orden de iteración que devices
+     */
+    public FleetPollResult pollAllBatched(Map<String, String> devices) {
+        long start = System.nanoTime();
+        Map<String, JSONResponse> responses = apiService.getDevicesStatus(devices.values());
+        long duration = System.nanoTime() - start;
+
+        List<DevicePollResult> results = new ArrayList<>(devices.size());
+        for (Map.Entry<String, String> device : devices.entrySet()) {
+            results.add(new DevicePollResult(device.getKey(), device.getValue(),
+                    responses.get(device.getValue()), null, duration));
+        }
+        return new FleetPollResult(results, duration);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    private DevicePollResult pollDevice(String name, String deviceId, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new DevicePollResult(name, deviceId, null, e, 0);
+        }
+        long start = System.nanoTime();
+        try {
+            JSONResponse response = apiService.getDeviceStatus(deviceId, RequestPriority.BATCH);
+            return new DevicePollResult(name, deviceId, response, null, System.nanoTime() - start);
+        } catch (Exception e) {
+            return new DevicePollResult(name, deviceId, null, e, System.nanoTime() - start);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.bufigol.API;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.utils.JSONUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * BodyHandler que entrega el cuerpo de la respuesta al parser JSON como flujo, a medida
+ * que llegan los bytes, en lugar de copiarlo antes a un String.
+ *
+ * El resultado es un Supplier: HttpClient completa la respuesta al recibir las cabeceras
+ * y el parseo se hace al invocar get(), fuera del hilo de red de HttpClient, leyendo del
+ * flujo mientras el cuerpo sigue llegando. Si el código de respuesta no es 200 el cuerpo
+ * se descarta sin parsear y get() devuelve null.
+ *
+ * @param <T> tipo del resultado parseado
+ */
+public final class JsonBodyHandler<T> implements HttpResponse.BodyHandler<Supplier<T>> {
+    private static final int OK = 200;
+
+    private final Function<InputStream, T> parser;
+
+    /**
+     * @param parser función que lee y cierra el flujo
+     */
+    public JsonBodyHandler(Function<InputStream, T> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * @return BodyHandler que parsea respuestas de Shelly Cloud con JSONUtils
+     */
+    public static JsonBodyHandler<JSONResponse> ofJSONResponse() {
+        return new JsonBodyHandler<>(stream -> JSONUtils.getInstance().parseResponse(stream));
+    }
+
+    /**
+     * @return BodyHandler que parsea respuestas de Shelly Cloud a mapas compactos de solo lectura
+     * @see JSONUtils#parseCompactResponse(InputStream)
+     */
+    public static JsonBodyHandler<JSONResponse> ofCompactJSONResponse() {
+        return new JsonBodyHandler<>(stream -> JSONUtils.getInstance().parseCompactResponse(stream));
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<Supplier<T>> apply(HttpResponse.ResponseInfo responseInfo) {
+        if (responseInfo.statusCode() != OK) {
+            return HttpResponse.BodySubscribers.replacing(() -> null);
+        }
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+                stream -> () -> parse(stream));
+    }
+
+    private T parse(InputStream stream) {
+        try (stream) {
+            return parser.apply(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
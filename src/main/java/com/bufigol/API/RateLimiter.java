@@ -0,0 +1,226 @@
+package com.bufigol.API;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limitador de tasa de tipo token bucket, seguro para uso concurrente.
+ * Los tokens se reponen a razón de permitsPerSecond hasta un máximo de burst.
+ * Las peticiones que no encuentran token esperan en una cola FIFO por prioridad,
+ * sin ocupar un hilo: un único planificador compartido las despierta cuando hay tokens.
+ * La cola interactiva se vacía siempre antes que la de lote.
+ *
+ * Shelly Cloud limita por auth_key, así que lo normal es obtener el limitador con
+ * {@link #forEndpoint(String, String, double, int)} para que todos los servicios que
+ * usan la misma clave y URL base lo compartan.
+ */
+public class RateLimiter {
+    private static final Map<String, RateLimiter> LIMITERS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shelly-rate-limiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final ReentrantLock lock;
+    private final Deque<CompletableFuture<Void>> interactiveQueue;
+    private final Deque<CompletableFuture<Void>> batchQueue;
+    private double tokens;
+    private long lastRefillNanos;
+    private boolean drainScheduled;
+
+    /**
+     * @param permitsPerSecond tasa sostenida de peticiones por segundo
+     * @param burst número máximo de peticiones que pueden salir seguidas tras un periodo de inactividad
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("La tasa y la ráfaga deben ser mayores que 0.");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.lock = new ReentrantLock();
+        this.interactiveQueue = new ArrayDeque<>();
+        this.batchQueue = new ArrayDeque<>();
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Obtiene el limitador compartido para una combinación de auth_key y URL base,
+     * creándolo con la tasa y ráfaga indicadas si todavía no existe.
+     *
+     * @param authKey clave de autenticación
+     * @param baseUrl URL base del servidor
+     * @param permitsPerSecond tasa sostenida (solo se usa al crear el limitador)
+     * @param burst ráfaga máxima (solo se usa al crear el limitador)
+     * @return limitador compartido
+     */
+    public static RateLimiter forEndpoint(String authKey, String baseUrl, double permitsPerSecond, int burst) {
+        return LIMITERS.computeIfAbsent(baseUrl + '|' + authKey, key -> new RateLimiter(permitsPerSecond, burst));
+    }
+
+    /**
+     * Solicita un token sin bloquear.
+     * El futuro se completa cuando el token está concedido. Si se cancela mientras
+     * espera, la petición sale de la cola sin consumir token.
+     *
+     * @param priority prioridad de la petición
+     * @return futuro que se completa al conceder el token
+     */
+    public CompletableFuture<Void> acquireAsync(RequestPriority priority) {
+        lock.lock();
+        try {
+            refill();
+            if (interactiveQueue.isEmpty() && batchQueue.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            (priority == RequestPriority.INTERACTIVE ? interactiveQueue : batchQueue).addLast(waiter);
+            scheduleDrain();
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Solicita un token bloqueando el hilo actual hasta obtenerlo.
+     *
+     * @param priority prioridad de la petición
+     * @throws InterruptedException si el hilo se interrumpe mientras espera
+     */
+    public void acquire(RequestPriority priority) throws InterruptedException {
+        CompletableFuture<Void> waiter = acquireAsync(priority);
+        try {
+            waiter.get();
+        } catch (InterruptedException e) {
+            waiter.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error inesperado esperando al limitador", e.getCause());
+        }
+    }
+
+    /**
+     * Intenta obtener un token sin esperar. Nunca adelanta a peticiones ya encoladas.
+     * @return true si se concedió el token
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill();
+            if (interactiveQueue.isEmpty() && batchQueue.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return número de peticiones esperando token
+     */
+    public int getQueueLength() {
+        lock.lock();
+        try {
+            return interactiveQueue.size() + batchQueue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    private void drain() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            drainScheduled = false;
+            refill();
+            while (tokens >= 1) {
+                CompletableFuture<Void> next = pollWaiter();
+                if (next == null) {
+                    break;
+                }
+                tokens -= 1;
+                granted.add(next);
+            }
+            if (!interactiveQueue.isEmpty() || !batchQueue.isEmpty()) {
+                scheduleDrain();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Completamos fuera del lock para no ejecutar las etapas dependientes con él tomado
+        for (CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                refund();
+            }
+        }
+    }
+
+    private CompletableFuture<Void> pollWaiter() {
+        CompletableFuture<Void> next;
+        while ((next = interactiveQueue.pollFirst()) != null) {
+            if (!next.isDone()) {
+                return next;
+            }
+        }
+        while ((next = batchQueue.pollFirst()) != null) {
+            if (!next.isDone()) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private void refund() {
+        lock.lock();
+        try {
+            tokens = Math.min(burst, tokens + 1);
+            if (!interactiveQueue.isEmpty() || !batchQueue.isEmpty()) {
+                scheduleDrain();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        long delayNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerSecond * 1_000_000_000L);
+        SCHEDULER.schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / 1_000_000_000L);
+        lastRefillNanos = now;
+    }
+}
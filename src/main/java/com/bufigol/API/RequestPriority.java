@@ -0,0 +1,11 @@
+package com.bufigol.API;
+
+/**
+ * Prioridad de una petición frente al limitador de tasa.
+ * Las peticiones interactivas (paneles, consultas de usuario) se atienden siempre
+ * antes que las de lote (pasadas de FleetPoller, persistencia).
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BATCH
+}
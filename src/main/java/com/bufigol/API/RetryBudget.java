@@ -0,0 +1,92 @@
+package com.bufigol.API;
+
+/**
+ * Presupuesto global de reintentos.
+ * Cada petición original deposita retryRatio reintentos en el saldo y cada reintento
+ * retira uno, de modo que los reintentos nunca superan esa fracción del tráfico real.
+ * Además se reponen minRetriesPerSecond reintentos por segundo para que las peticiones
+ * aisladas puedan reintentarse aunque el tráfico sea bajo. Así, una caída regional
+ * no multiplica la carga contra la nube por el número de reintentos configurado.
+ */
+public class RetryBudget {
+    private static final double DEFAULT_RETRY_RATIO = 0.2;
+    private static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+    private static final double DEFAULT_MAX_BALANCE = 100;
+    // Tolerancia para que la suma de depósitos fraccionarios (0.2 * 5) alcance un reintento entero
+    private static final double EPSILON = 1e-9;
+
+    private static RetryBudget instance;
+
+    private final double retryRatio;
+    private final int minRetriesPerSecond;
+    private final double maxBalance;
+    private double balance;
+    private double floorTokens;
+    private long lastRefillNanos;
+    private long retriesGranted;
+    private long retriesRejected;
+
+    /**
+     * @param retryRatio reintentos permitidos por cada petición original (p. ej. 0.2 = 20 %)
+     * @param minRetriesPerSecond reintentos por segundo permitidos con independencia del tráfico
+     * @param maxBalance saldo máximo acumulable por depósitos
+     */
+    public RetryBudget(double retryRatio, int minRetriesPerSecond, double maxBalance) {
+        if (retryRatio < 0 || minRetriesPerSecond < 0 || maxBalance < 0) {
+            throw new IllegalArgumentException("Los parámetros del presupuesto de reintentos no pueden ser negativos.");
+        }
+        this.retryRatio = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = maxBalance;
+        this.floorTokens = minRetriesPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Obtiene el presupuesto global compartido por todos los servicios.
+     * @return instancia única de RetryBudget
+     */
+    public static synchronized RetryBudget getInstance() {
+        if (instance == null) {
+            instance = new RetryBudget(DEFAULT_RETRY_RATIO, DEFAULT_MIN_RETRIES_PER_SECOND, DEFAULT_MAX_BALANCE);
+        }
+        return instance;
+    }
+
+    /**
+     * Registra una petición original, que deposita retryRatio en el saldo.
+     */
+    public synchronized void recordRequest() {
+        balance = Math.min(maxBalance, balance + retryRatio);
+    }
+
+    /**
+     * Intenta retirar un reintento del presupuesto.
+     * @return true si el reintento está permitido
+     */
+    public synchronized boolean tryAcquireRetry() {
+        long now = System.nanoTime();
+        floorTokens = Math.min(minRetriesPerSecond,
+                floorTokens + (now - lastRefillNanos) * minRetriesPerSecond / 1_000_000_000.0);
+        lastRefillNanos = now;
+
+        if (floorTokens >= 1 - EPSILON) {
+            floorTokens -= 1;
+        } else if (balance >= 1 - EPSILON) {
+            balance -= 1;
+        } else {
+            retriesRejected++;
+            return false;
+        }
+        retriesGranted++;
+        return true;
+    }
+
+    public synchronized long getRetriesGranted() {
+        return retriesGranted;
+    }
+
+    public synchronized long getRetriesRejected() {
+        return retriesRejected;
+    }
+}
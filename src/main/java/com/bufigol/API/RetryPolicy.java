@@ -0,0 +1,125 @@
+package com.bufigol.API;
+
+import com.bufigol.config.OtherConfig;
+import com.bufigol.expeciones.ConfigurationException;
+import com.bufigol.expeciones.ShellyAPIException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de reintentos con backoff exponencial y jitter completo.
+ * La espera antes del reintento n es un valor aleatorio entre 0 y
+ * min(maxDelay, baseDelay * 2^n); si el servidor envió Retry-After, nunca se espera menos.
+ * Si Retry-After pide esperar más que maxDelay no se reintenta: la petición falla con el
+ * error del servidor en lugar de quedar pendiente, quizá durante horas.
+ * Solo se reintentan los errores transitorios: fallos de red y timeouts, y los códigos
+ * HTTP 408, 429, 500, 502, 503 y 504. Cada reintento debe además caber en el RetryBudget.
+ */
+public class RetryPolicy {
+    private static final Duration DEFAULT_BASE_DELAY = Duration.ofSeconds(1);
+    private static final Set<Integer> RETRYABLE_STATUS = Set.of(408, 429, 500, 502, 503, 504);
+
+    private final int maxRetries;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final RetryBudget budget;
+
+    /**
+     * @param maxRetries número máximo de reintentos por petición
+     * @param baseDelay espera base del primer reintento
+     * @param maxDelay espera máxima entre reintentos
+     * @param budget presupuesto de reintentos a respetar
+     */
+    public RetryPolicy(int maxRetries, Duration baseDelay, Duration maxDelay, RetryBudget budget) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("El número de reintentos no puede ser negativo.");
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = Math.max(maxDelay.toNanos(), baseDelayNanos);
+        this.budget = budget;
+    }
+
+    /**
+     * Construye la política a partir de la sección update de other.json:
+     * retry_count es el número máximo de reintentos y retry_delay (segundos)
+     * la espera máxima entre reintentos. Usa el presupuesto global.
+     *
+     * @param otherConfig configuración cargada
+     * @return política de reintentos
+     * @throws ConfigurationException si faltan los campos de reintento
+     */
+    public static RetryPolicy fromConfig(OtherConfig otherConfig) throws ConfigurationException {
+        return new RetryPolicy(otherConfig.getUpdateRetryCount(), DEFAULT_BASE_DELAY,
+                Duration.ofSeconds(otherConfig.getUpdateRetryDelay()), RetryBudget.getInstance());
+    }
+
+    /**
+     * Indica si el error es transitorio y merece reintentarse.
+     * @param error error producido en el intento
+     * @return true si es reintentable
+     */
+    public boolean isRetryable(Throwable error) {
+        if (error instanceof ShellyAPIException apiError) {
+            return RETRYABLE_STATUS.contains(apiError.getStatusCode())
+                    || (apiError.getStatusCode() < 0 && apiError.getCause() instanceof IOException);
+        }
+        return error instanceof IOException;
+    }
+
+    /**
+     * Decide si se debe reintentar tras el intento fallido indicado. Si la respuesta es
+     * afirmativa, el reintento ya se ha descontado del presupuesto.
+     *
+     * @param retriesDone reintentos realizados hasta ahora
+     * @param error error del último intento
+     * @return true si se debe reintentar
+     */
+    public boolean shouldRetry(int retriesDone, Throwable error) {
+        return retriesDone < maxRetries && isRetryable(error) && !exceedsMaxDelay(error)
+                && (budget == null || budget.tryAcquireRetry());
+    }
+
+    private boolean exceedsMaxDelay(Throwable error) {
+        return error instanceof ShellyAPIException apiError && apiError.getRetryAfter() != null
+                && apiError.getRetryAfter().compareTo(Duration.ofNanos(maxDelayNanos)) > 0;
+    }
+
+    /**
+     * Calcula la espera antes del siguiente reintento.
+     * @param retriesDone reintentos realizados hasta ahora
+     * @param error error del último intento
+     * @return espera en nanosegundos
+     */
+    public long computeDelayNanos(int retriesDone, Throwable error) {
+        long ceiling = baseDelayNanos << Math.min(retriesDone, 30);
+        if (ceiling <= 0 || ceiling > maxDelayNanos) {
+            ceiling = maxDelayNanos;
+        }
+        long delay = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        if (error instanceof ShellyAPIException apiError && apiError.getRetryAfter() != null) {
+            delay = Math.max(delay, apiError.getRetryAfter().toNanos());
+        }
+        return delay;
+    }
+
+    /**
+     * Registra una petición original en el presupuesto de reintentos.
+     */
+    public void recordRequest() {
+        if (budget != null) {
+            budget.recordRequest();
+        }
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+}
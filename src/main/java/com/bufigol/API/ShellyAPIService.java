@@ -1,7 +1,15 @@
 package com.bufigol.API;
 
+import com.bufigol.expeciones.CircuitOpenException;
+import com.bufigol.expeciones.ShellyAPIException;
 import com.bufigol.modelo.auxiliares.JSONResponse;
-import com.bufigol.utils.JSONUtils;
+import com.bufigol.modelo.principales.ShellyResponse;
+import com.bufigol.utils.DeviceStatusBinder;
+import com.bufigol.utils.DeviceStatusMapper;
+import com.bufigol.utils.DeviceStatusSlots;
+import jakarta.json.JsonException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -9,39 +17,566 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class ShellyAPIService {
+    private static final String DEFAULT_BASE_URL = "https://shelly-141-eu.shelly.cloud";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String DEVICES_STATUS = "devices_status";
+    private static final String DEVICE_INFO = "_dev_info";
+    private static final JsonBodyHandler<JSONResponse> BODY_HANDLER = JsonBodyHandler.ofJSONResponse();
+    private static final JsonBodyHandler<JSONResponse> COMPACT_BODY_HANDLER = JsonBodyHandler.ofCompactJSONResponse();
+    private static final JsonBodyHandler<ShellyResponse> TYPED_BODY_HANDLER =
+            new JsonBodyHandler<>(DeviceStatusBinder::readResponse);
+
     private final HttpClient httpClient;
     private final String baseUrl;
     private final String authKey;
+    private final SingleFlight<String, JSONResponse> statusFlights;
+    private final SingleFlight<String, ShellyResponse> typedStatusFlights;
+    private volatile RateLimiter rateLimiter;
+    private volatile RetryPolicy retryPolicy;
+    private volatile CircuitBreaker circuitBreaker;
+    private volatile DeviceStatusSlots statusSlots;
+    private volatile JsonBodyHandler<JSONResponse> bodyHandler = BODY_HANDLER;
 
     public ShellyAPIService(String authKey) {
-        this.baseUrl = "https://shelly-141-eu.shelly.cloud";
+        this(authKey, DEFAULT_BASE_URL, null);
+    }
+
+    /**
+     * Constructor que permite indicar la URL base y el executor del cliente HTTP.
+     * El executor se usa para las tareas asíncronas del cliente y para completar
+     * los futuros devueltos por {@link #getDeviceStatusAsync(String)}.
+     *
+     * @param authKey clave de autenticación de Shelly Cloud
+     * @param baseUrl URL base del servidor (p. ej. la de ShellyConfig.getBaseUrl())
+     * @param executor executor a usar, o null para el executor por defecto de HttpClient
+     */
+    public ShellyAPIService(String authKey, String baseUrl, Executor executor) {
+        this.baseUrl = baseUrl;
         this.authKey = authKey;
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(30))
-                .build();
+        this.statusFlights = new SingleFlight<>();
+        this.typedStatusFlights = new SingleFlight<>();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.httpClient = builder.build();
     }
 
     public JSONResponse getDeviceStatus(String deviceId) throws Exception {
+        return getDeviceStatus(deviceId, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Igual que {@link #getDeviceStatus(String)} indicando la prioridad de la
+     * petición frente al limitador de tasa.
+     *
+     * @param deviceId ID del dispositivo
+     * @param priority prioridad de la petición
+     * @return respuesta parseada
+     * @throws Exception si la petición falla o el hilo se interrumpe
+     */
+    public JSONResponse getDeviceStatus(String deviceId, RequestPriority priority) throws Exception {
+        return await(getDeviceStatusAsync(deviceId, priority));
+    }
+
+    /**
+     * Versión no bloqueante de {@link #getDeviceStatus(String)} basada en HttpClient.sendAsync.
+     * Ningún hilo queda bloqueado mientras la petición está en curso.
+     * Cancelar el futuro devuelto cancela también la petición HTTP subyacente.
+     *
+     * @param deviceId ID del dispositivo
+     * @return futuro que se completa con la respuesta, o excepcionalmente con ShellyAPIException
+     */
+    public CompletableFuture<JSONResponse> getDeviceStatusAsync(String deviceId) {
+        return getDeviceStatusAsync(deviceId, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Igual que {@link #getDeviceStatusAsync(String)} indicando la prioridad de la
+     * petición frente al limitador de tasa.
+     * Las llamadas concurrentes para el mismo dispositivo comparten una única petición
+     * en vuelo y reciben el mismo JSONResponse, que por tanto no debe modificarse.
+     * La prioridad efectiva es la de la primera llamada.
+     *
+     * @param deviceId ID del dispositivo
+     * @param priority prioridad de la petición
+     * @return futuro que se completa con la respuesta, o excepcionalmente con ShellyAPIException
+     */
+    public CompletableFuture<JSONResponse> getDeviceStatusAsync(String deviceId, RequestPriority priority) {
+        return statusFlights.execute(deviceId,
+                () -> new ApiCall<>(() -> buildStatusRequest(deviceId), bodyHandler, this::handleStatusResponse,
+                        priority).start());
+    }
+
+    /**
+     * Obtiene el estado del dispositivo directamente en el modelo tipado. El cuerpo se
+     * enlaza a ShellyResponse a partir de los eventos del parser, sin construir el árbol
+     * JSON ni los Map intermedios de {@link #getDeviceStatus(String)}.
+     *
+     * @param deviceId ID del dispositivo
+     * @return respuesta tipada
+     * @throws Exception si la petición falla o el hilo se interrumpe
+     */
+    public ShellyResponse getShellyResponse(String deviceId) throws Exception {
+        return await(getShellyResponseAsync(deviceId, RequestPriority.INTERACTIVE));
+    }
+
+    /**
+     * Versión no bloqueante de {@link #getShellyResponse(String)}, con las mismas garantías
+     * de cancelación y agrupación de llamadas que {@link #getDeviceStatusAsync(String, RequestPriority)}.
+     *
+     * @param deviceId ID del dispositivo
+     * @param priority prioridad de la petición
+     * @return futuro que se completa con la respuesta tipada, o excepcionalmente con ShellyAPIException
+     */
+    public CompletableFuture<ShellyResponse> getShellyResponseAsync(String deviceId, RequestPriority priority) {
+        DeviceStatusSlots slots = statusSlots;
+        JsonBodyHandler<ShellyResponse> bodyHandler = slots == null
+                ? TYPED_BODY_HANDLER
+                : slots.<JsonBodyHandler<ShellyResponse>>attachment(deviceId, JsonBodyHandler::new);
+        return typedStatusFlights.execute(deviceId,
+                () -> new ApiCall<>(() -> buildStatusRequest(deviceId), bodyHandler,
+                        this::handleStatusResponse, priority).start());
+    }
+
+    /**
+     * Obtiene el estado de varios dispositivos usando una sola llamada al endpoint
+     * masivo /device/all_status de Shelly Cloud. La respuesta se divide en un
+     * JSONResponse por dispositivo con la misma forma que devuelve /device/status.
+     * Los dispositivos que no aparezcan en la respuesta masiva, o todos ellos si la
+     * llamada masiva falla por un error de la API o de red, se consultan individualmente.
+     * Si el circuito está abierto no se hace ese respaldo y la llamada falla con CircuitOpenException.
+     *
+     * @param deviceIds IDs de los dispositivos a consultar
+     * @return Map de ID a respuesta; las consultas fallidas tienen isok=false y data.error
+     */
+    public Map<String, JSONResponse> getDevicesStatus(Collection<String> deviceIds) {
+        return getDevicesStatusAsync(deviceIds).join();
+    }
+
+    /**
+     * Versión no bloqueante de {@link #getDevicesStatus(Collection)}.
+     * Cancelar el futuro devuelto cancela también la llamada masiva o las individuales en curso.
+     *
+     * @param deviceIds IDs de los dispositivos a consultar
+     * @return futuro con el Map de ID a respuesta, en el orden de deviceIds
+     */
+    public CompletableFuture<Map<String, JSONResponse>> getDevicesStatusAsync(Collection<String> deviceIds) {
+        List<String> ids = List.copyOf(deviceIds);
+        CompletableFuture<Map<String, JSONResponse>> result = new CompletableFuture<>();
+        CompletableFuture<Map<String, JSONResponse>> bulkCall = new ApiCall<>(this::buildAllStatusRequest,
+                bodyHandler, this::handleAllStatusResponse, RequestPriority.BATCH).start();
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                bulkCall.cancel(true);
+            }
+        });
+        bulkCall.whenComplete((bulk, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause != null && !fallsBackToSingleCalls(cause)) {
+                result.completeExceptionally(cause);
+            } else if (!result.isDone()) {
+                completeWithSingleCalls(ids, cause == null ? bulk : Map.of(), result);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Establece el limitador de tasa que deben respetar todas las peticiones de este
+     * servicio. Para coordinar varios servicios con la misma auth_key conviene usar
+     * {@link RateLimiter#forEndpoint(String, String, double, int)}.
+     *
+     * @param rateLimiter limitador a usar, o null para no limitar
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Establece la política de reintentos para los errores transitorios.
+     * Lo habitual es construirla con {@link RetryPolicy#fromConfig(com.bufigol.config.OtherConfig)}.
+     *
+     * @param retryPolicy política a usar, o null para no reintentar
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Activa el reciclado de las respuestas tipadas: {@link #getShellyResponse(String)} y
+     * {@link #getShellyResponseAsync(String, RequestPriority)} rellenan en su sitio la ranura
+     * de cada dispositivo en lugar de crear un grafo nuevo. Las respuestas devueltas siguen
+     * entonces las reglas de propiedad de {@link DeviceStatusSlots}.
+     *
+     * @param statusSlots ranuras a usar, o null para crear una respuesta nueva en cada llamada
+     */
+    public void setStatusRecycling(DeviceStatusSlots statusSlots) {
+        this.statusSlots = statusSlots;
+    }
+
+    /**
+     * Hace que las respuestas JSONResponse usen los mapas compactos de
+     * {@link com.bufigol.utils.JSONUtils#parseCompactResponse(java.io.InputStream)}: menos memoria por respuesta,
+     * pero sus datos son de solo lectura. Por defecto está desactivado.
+     *
+     * @param compact true para usar mapas compactos
+     */
+    public void setCompactResponses(boolean compact) {
+        this.bodyHandler = compact ? COMPACT_BODY_HANDLER : BODY_HANDLER;
+    }
+
+    /**
+     * Establece el circuit breaker que protege las llamadas de este servicio.
+     * Mientras esté abierto, las peticiones fallan de inmediato con CircuitOpenException
+     * en lugar de esperar los timeouts. Para compartir el estado entre servicios conviene
+     * usar {@link CircuitBreaker#forEndpoint(String)} con la URL base.
+     *
+     * @param circuitBreaker circuit breaker a usar, o null para desactivarlo
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return número de consultas de estado que se unieron a una petición ya en vuelo
+     */
+    public long getCoalescedRequestCount() {
+        return statusFlights.getCoalescedCount();
+    }
+
+    public String getAuthKey() {
+        return authKey;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Espera el resultado de un futuro desenvolviendo la excepción original.
+     * Si el hilo se interrumpe, la petición en curso se cancela.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private HttpRequest buildStatusRequest(String deviceId) {
         // Construir la URL con los parámetros requeridos
         String encodedAuthKey = URLEncoder.encode(authKey, StandardCharsets.UTF_8);
         String encodedId = URLEncoder.encode(deviceId, StandardCharsets.UTF_8);
         String url = String.format("%s/device/status?auth_key=%s&id=%s",
                 baseUrl, encodedAuthKey, encodedId);
 
-        HttpRequest request = HttpRequest.newBuilder()
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .GET()
-                .timeout(Duration.ofSeconds(30))
+                .timeout(TIMEOUT)
                 .build();
+    }
+
+    private HttpRequest buildAllStatusRequest() {
+        String body = "auth_key=" + URLEncoder.encode(authKey, StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/device/all_status"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .timeout(TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Divide la respuesta de /device/all_status en respuestas individuales.
+     * Un código distinto de 200 se lanza como ShellyAPIException para que lo clasifiquen
+     * los reintentos y el circuit breaker; si el cuerpo no trae devices_status devuelve un
+     * Map vacío para forzar las consultas individuales.
+     */
+    private Map<String, JSONResponse> handleAllStatusResponse(HttpResponse<Supplier<JSONResponse>> response) {
+        if (response.statusCode() != 200) {
+            throw new ShellyAPIException("Error al obtener el estado de los dispositivos. Código: "
+                    + response.statusCode(), response.statusCode(), parseRetryAfter(response));
+        }
+        JSONResponse parsed = readBody(response);
+        if (!parsed.isIsok() || !(parsed.getData().get(DEVICES_STATUS) instanceof Map<?, ?> statuses)) {
+            return Map.of();
+        }
+        Map<String, JSONResponse> result = new HashMap<>();
+        for (Map.Entry<?, ?> entry : statuses.entrySet()) {
+            if (!(entry.getValue() instanceof Map<?, ?> status)) {
+                continue;
+            }
+            Map<String, Object> data = new HashMap<>();
+            if (status.get(DEVICE_INFO) instanceof Map<?, ?> info && info.get("online") instanceof Boolean online) {
+                data.put("online", online);
+            }
+            data.put(DeviceStatusMapper.DEVICE_STATUS, status);
+            result.put(String.valueOf(entry.getKey()), new JSONResponse(true, data));
+        }
+        return result;
+    }
+
+    /**
+     * Solo tiene sentido consultar los dispositivos uno a uno si la llamada masiva falló
+     * por un error de la API o de red; no si se canceló o el circuito está abierto.
+     */
+    private static boolean fallsBackToSingleCalls(Throwable error) {
+        return (error instanceof ShellyAPIException && !(error instanceof CircuitOpenException))
+                || error instanceof IOException;
+    }
+
+    private void completeWithSingleCalls(List<String> ids, Map<String, JSONResponse> bulk,
+                                         CompletableFuture<Map<String, JSONResponse>> result) {
+        Map<String, CompletableFuture<JSONResponse>> pending = new LinkedHashMap<>();
+        List<CompletableFuture<JSONResponse>> singleCalls = new ArrayList<>();
+        for (String id : ids) {
+            JSONResponse fromBulk = bulk.get(id);
+            if (fromBulk != null) {
+                pending.put(id, CompletableFuture.completedFuture(fromBulk));
+            } else {
+                CompletableFuture<JSONResponse> call = getDeviceStatusAsync(id, RequestPriority.BATCH);
+                singleCalls.add(call);
+                pending.put(id, call.exceptionally(ShellyAPIService::errorResponse));
+            }
+        }
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                singleCalls.forEach(call -> call.cancel(true));
+            }
+        });
+        CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new))
+                .thenRun(() -> {
+                    Map<String, JSONResponse> responses = new LinkedHashMap<>();
+                    pending.forEach((id, future) -> responses.put(id, future.join()));
+                    result.complete(responses);
+                });
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    private static JSONResponse errorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        Map<String, Object> errorData = new HashMap<>();
+        errorData.put("error", cause.getMessage());
+        return new JSONResponse(false, errorData);
+    }
 
+    private <B> B handleStatusResponse(HttpResponse<Supplier<B>> response) {
         if (response.statusCode() != 200) {
-            throw new Exception("Error al obtener el estado del dispositivo. Código: " + response.statusCode());
+            throw new ShellyAPIException("Error al obtener el estado del dispositivo. Código: "
+                    + response.statusCode(), response.statusCode(), parseRetryAfter(response));
+        }
+        return readBody(response);
+    }
+
+    /**
+     * Parsea el cuerpo de la respuesta mientras se recibe. Un fallo de lectura se
+     * convierte en ShellyAPIException con la IOException como causa, reintentable;
+     * un JSON inválido, en ShellyAPIException no reintentable.
+     */
+    private static <B> B readBody(HttpResponse<Supplier<B>> response) {
+        try {
+            return response.body().get();
+        } catch (UncheckedIOException e) {
+            throw new ShellyAPIException("Error al leer la respuesta: " + e.getCause().getMessage(), e.getCause());
+        } catch (JsonException e) {
+            throw new ShellyAPIException("Respuesta no válida: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Interpreta la cabecera Retry-After, que puede venir en segundos o como fecha HTTP.
+     * @return espera indicada, o null si no hay cabecera o no es válida
+     */
+    private static Duration parseRetryAfter(HttpResponse<?> response) {
+        Optional<String> header = response.headers().firstValue("Retry-After");
+        if (header.isEmpty()) {
+            return null;
+        }
+        String value = header.get().trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration wait = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                return wait.isNegative() ? Duration.ZERO : wait;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Una llamada a la API en curso. Encadena, sin bloquear hilos, la comprobación del
+     * circuit breaker, la espera al limitador de tasa, el envío HTTP y los reintentos
+     * con backoff, y mantiene la etapa activa para que cancelar el resultado cancele
+     * también la espera, la petición en vuelo o el reintento programado.
+     */
+    private final class ApiCall<B, T> {
+        private final Supplier<HttpRequest> requestFactory;
+        private final HttpResponse.BodyHandler<B> bodyHandler;
+        private final Function<HttpResponse<B>, T> responseHandler;
+        private final RequestPriority priority;
+        private final RetryPolicy policy;
+        private final CompletableFuture<T> result;
+        private volatile CompletableFuture<?> currentStage;
+        private int retriesDone;
+
+        ApiCall(Supplier<HttpRequest> requestFactory, HttpResponse.BodyHandler<B> bodyHandler,
+                Function<HttpResponse<B>, T> responseHandler, RequestPriority priority) {
+            this.requestFactory = requestFactory;
+            this.bodyHandler = bodyHandler;
+            this.responseHandler = responseHandler;
+            this.priority = priority;
+            this.policy = retryPolicy;
+            this.result = new CompletableFuture<>();
+        }
+
+        CompletableFuture<T> start() {
+            result.whenComplete((value, error) -> {
+                CompletableFuture<?> stage = currentStage;
+                if (result.isCancelled() && stage != null) {
+                    stage.cancel(true);
+                }
+            });
+            if (policy != null) {
+                policy.recordRequest();
+            }
+            attempt();
+            return result;
         }
 
-        return JSONUtils.getInstance().parseResponse(response.body());
+        private void attempt() {
+            CircuitBreaker breaker = circuitBreaker;
+            long breakerPermit = breaker != null ? breaker.acquirePermission() : CircuitBreaker.NO_PERMISSION;
+            if (breaker != null && breakerPermit == CircuitBreaker.NO_PERMISSION) {
+                onFailure(new CircuitOpenException(baseUrl));
+                return;
+            }
+            RateLimiter limiter = rateLimiter;
+            CompletableFuture<Void> permit = limiter != null
+                    ? limiter.acquireAsync(priority)
+                    : CompletableFuture.completedFuture(null);
+            track(permit);
+            permit.whenComplete((ignored, permitError) -> {
+                if (result.isDone() || permitError != null) {
+                    if (breaker != null) {
+                        breaker.releasePermission(breakerPermit);
+                    }
+                    if (permitError != null) {
+                        onFailure(permitError);
+                    }
+                    return;
+                }
+                long startNanos = System.nanoTime();
+                CompletableFuture<HttpResponse<B>> http;
+                try {
+                    http = httpClient.sendAsync(requestFactory.get(), bodyHandler);
+                } catch (RuntimeException e) {
+                    // Petición mal formada (p. ej. URL base inválida): no ha llegado a enviarse
+                    if (breaker != null) {
+                        breaker.releasePermission(breakerPermit);
+                    }
+                    onFailure(e);
+                    return;
+                }
+                track(http);
+                http.whenComplete((response, httpError) -> {
+                    T value = null;
+                    Throwable error = httpError instanceof CompletionException && httpError.getCause() != null
+                            ? httpError.getCause() : httpError;
+                    if (error == null) {
+                        try {
+                            value = responseHandler.apply(response);
+                        } catch (RuntimeException e) {
+                            error = e;
+                        }
+                    }
+                    if (breaker != null) {
+                        if (error instanceof CancellationException) {
+                            breaker.releasePermission(breakerPermit);
+                        } else {
+                            breaker.onResult(breakerPermit, System.nanoTime() - startNanos, error);
+                        }
+                    }
+                    if (error != null) {
+                        onFailure(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            });
+        }
+
+        private void onFailure(Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (result.isDone()) {
+                return;
+            }
+            if (policy == null || !policy.shouldRetry(retriesDone, cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            long delayNanos = policy.computeDelayNanos(retriesDone, cause);
+            retriesDone++;
+            CompletableFuture<Void> timer = new CompletableFuture<>();
+            track(timer);
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                if (timer.complete(null)) {
+                    attempt();
+                }
+            });
+        }
+
+        private void track(CompletableFuture<?> stage) {
+            currentStage = stage;
+            if (result.isCancelled()) {
+                stage.cancel(true);
+            }
+        }
     }
-}
\ No newline at end of file
+}
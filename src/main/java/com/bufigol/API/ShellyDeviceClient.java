@@ -0,0 +1,190 @@
+package com.bufigol.API;
+
+import com.bufigol.expeciones.ShellyAPIException;
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.modelo.principales.DeviceSnapshot;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.utils.DeviceStatusMapper;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Punto de acceso único al estado de los dispositivos que elige entre la nube
+ * (ShellyAPIService) y la red local (ShellyLocalService).
+ *
+ * La IP local de cada dispositivo se aprende de las respuestas de la nube
+ * (device_status.wifi.sta_ip) o se registra explícitamente. En modo AUTO, si se conoce la
+ * IP se consulta el dispositivo directamente y, si esa llamada falla, se recurre a la nube
+ * y la IP se vuelve a aprender de su respuesta.
+ */
+public class ShellyDeviceClient {
+    private final ShellyAPIService cloudService;
+    private final ShellyLocalService localService;
+    private final TransportMode defaultMode;
+    private final Map<String, String> localAddresses;
+    private final AtomicLong localCalls = new AtomicLong();
+    private final AtomicLong cloudCalls = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ShellyDeviceClient(ShellyAPIService cloudService, ShellyLocalService localService) {
+        this(cloudService, localService, TransportMode.AUTO);
+    }
+
+    /**
+     * @param cloudService cliente de Shelly Cloud
+     * @param localService cliente RPC local
+     * @param defaultMode transporte usado cuando no se indica uno explícitamente
+     */
+    public ShellyDeviceClient(ShellyAPIService cloudService, ShellyLocalService localService,
+                              TransportMode defaultMode) {
+        this.cloudService = cloudService;
+        this.localService = localService;
+        this.defaultMode = defaultMode;
+        this.localAddresses = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Obtiene el estado tipado del dispositivo con el transporte por defecto.
+     *
+     * @param deviceId ID del dispositivo
+     * @return DeviceStatus, o null si la respuesta no contiene estado
+     * @throws Exception si la petición falla
+     */
+    public DeviceStatus getDeviceStatus(String deviceId) throws Exception {
+        return getDeviceStatus(deviceId, defaultMode);
+    }
+
+    /**
+     * Obtiene el estado tipado del dispositivo con el transporte indicado.
+     *
+     * @param deviceId ID del dispositivo
+     * @param mode transporte a usar
+     * @return DeviceStatus, o null si la respuesta no contiene estado
+     * @throws Exception si la petición falla
+     */
+    public DeviceStatus getDeviceStatus(String deviceId, TransportMode mode) throws Exception {
+        try {
+            return DeviceStatusMapper.fromResponse(getDeviceStatusAsync(deviceId, mode).get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene el estado del dispositivo como instantánea inmutable y compacta.
+     *
+     * @param deviceId ID del dispositivo
+     * @param mode transporte a usar
+     * @return DeviceSnapshot, o null si la respuesta no contiene estado
+     * @throws Exception si la petición falla
+     */
+    public DeviceSnapshot getDeviceSnapshot(String deviceId, TransportMode mode) throws Exception {
+        DeviceStatus status = getDeviceStatus(deviceId, mode);
+        return status != null ? DeviceSnapshot.from(status) : null;
+    }
+
+    public CompletableFuture<JSONResponse> getDeviceStatusAsync(String deviceId) {
+        return getDeviceStatusAsync(deviceId, defaultMode);
+    }
+
+    /**
+     * Obtiene la respuesta del dispositivo, con la misma forma que ShellyAPIService,
+     * usando el transporte indicado.
+     *
+     * @param deviceId ID del dispositivo
+     * @param mode transporte a usar
+     * @return futuro con la respuesta; en modo LOCAL falla con ShellyAPIException si no se conoce la IP
+     */
+    public CompletableFuture<JSONResponse> getDeviceStatusAsync(String deviceId, TransportMode mode) {
+        String address = localAddresses.get(deviceId);
+        return switch (mode) {
+            case CLOUD -> fromCloud(deviceId);
+            case LOCAL -> address != null
+                    ? fromLocal(address)
+                    : CompletableFuture.failedFuture(new ShellyAPIException(
+                    "Dirección local desconocida para el dispositivo " + deviceId, -1));
+            case AUTO -> address == null
+                    ? fromCloud(deviceId)
+                    : fromLocal(address).handle((response, error) -> {
+                        if (error == null) {
+                            return CompletableFuture.completedFuture(response);
+                        }
+                        // La IP puede haber cambiado: se olvida y se vuelve a aprender de la nube
+                        fallbacks.incrementAndGet();
+                        localAddresses.remove(deviceId, address);
+                        return fromCloud(deviceId);
+                    }).thenCompose(future -> future);
+        };
+    }
+
+    /**
+     * Registra la IP local de un dispositivo, sustituyendo la aprendida de la nube.
+     *
+     * @param deviceId ID del dispositivo
+     * @param host IP o nombre en la red local, o null para olvidarla
+     */
+    public void registerLocalAddress(String deviceId, String host) {
+        if (host == null) {
+            localAddresses.remove(deviceId);
+        } else {
+            localAddresses.put(deviceId, host);
+        }
+    }
+
+    public String getLocalAddress(String deviceId) {
+        return localAddresses.get(deviceId);
+    }
+
+    /**
+     * @return número de consultas enviadas directamente a los dispositivos
+     */
+    public long getLocalCallCount() {
+        return localCalls.get();
+    }
+
+    /**
+     * @return número de consultas enviadas a Shelly Cloud
+     */
+    public long getCloudCallCount() {
+        return cloudCalls.get();
+    }
+
+    /**
+     * @return número de consultas locales fallidas que se repitieron en la nube
+     */
+    public long getFallbackCount() {
+        return fallbacks.get();
+    }
+
+    private CompletableFuture<JSONResponse> fromLocal(String address) {
+        localCalls.incrementAndGet();
+        return localService.getDeviceStatusAsync(address);
+    }
+
+    private CompletableFuture<JSONResponse> fromCloud(String deviceId) {
+        cloudCalls.incrementAndGet();
+        return cloudService.getDeviceStatusAsync(deviceId).thenApply(response -> {
+            learnAddress(deviceId, response);
+            return response;
+        });
+    }
+
+    private void learnAddress(String deviceId, JSONResponse response) {
+        if (response == null || !response.isIsok() || response.getData() == null) {
+            return;
+        }
+        if (response.getData().get(DeviceStatusMapper.DEVICE_STATUS) instanceof Map<?, ?> status
+                && status.get("wifi") instanceof Map<?, ?> wifi
+                && wifi.get("sta_ip") instanceof String staIp
+                && !staIp.isBlank()) {
+            localAddresses.putIfAbsent(deviceId, staIp);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bufigol.API;
+
+import com.bufigol.expeciones.ShellyAPIException;
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.utils.DeviceStatusMapper;
+import com.bufigol.utils.JSONUtils;
+import jakarta.json.Json;
+import jakarta.json.JsonReader;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Cliente RPC local para dispositivos Shelly Gen2. Llama a /rpc/Shelly.GetStatus
+ * directamente en la IP del dispositivo (la sta_ip de WifiStatus), sin pasar por
+ * Shelly Cloud ni por su limitación de tasa.
+ *
+ * Las respuestas se devuelven con la misma forma que las de ShellyAPIService
+ * (data.online y data.device_status), de modo que DeviceStatusMapper y el resto del
+ * código las tratan igual.
+ */
+public class ShellyLocalService {
+    private static final String GET_STATUS_PATH = "/rpc/Shelly.GetStatus";
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    private static final int DEFAULT_PORT = 80;
+    private static final JsonBodyHandler<Map<String, Object>> BODY_HANDLER = new JsonBodyHandler<>(stream -> {
+        try (JsonReader reader = Json.createReader(stream)) {
+            return JSONUtils.getInstance().convertJsonValueToMap(reader.readObject());
+        }
+    });
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final int port;
+
+    public ShellyLocalService() {
+        this(DEFAULT_TIMEOUT, DEFAULT_PORT);
+    }
+
+    /**
+     * @param timeout tiempo máximo de conexión y de respuesta; en la red local debe ser corto
+     *                para que el respaldo en la nube no se retrase
+     * @param port puerto HTTP de los dispositivos
+     */
+    public ShellyLocalService(Duration timeout, int port) {
+        this.timeout = timeout;
+        this.port = port;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Obtiene el estado de un dispositivo mediante Shelly.GetStatus.
+     *
+     * @param host IP o nombre del dispositivo en la red local
+     * @return futuro con la respuesta, o completado excepcionalmente con ShellyAPIException
+     */
+    public CompletableFuture<JSONResponse> getDeviceStatusAsync(String host) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://" + host + ":" + port + GET_STATUS_PATH))
+                .GET()
+                .timeout(timeout)
+                .build();
+        return httpClient.sendAsync(request, BODY_HANDLER)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        throw new ShellyAPIException("Error al conectar con el dispositivo " + host
+                                + ": " + cause.getMessage(), cause);
+                    }
+                    return handleStatusResponse(host, response);
+                });
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    private static JSONResponse handleStatusResponse(String host, HttpResponse<Supplier<Map<String, Object>>> response) {
+        if (response.statusCode() != 200) {
+            throw new ShellyAPIException("Error al obtener el estado del dispositivo " + host
+                    + ". Código: " + response.statusCode(), response.statusCode());
+        }
+        Map<String, Object> status;
+        try {
+            status = response.body().get();
+        } catch (RuntimeException e) {
+            throw new ShellyAPIException("Respuesta no válida del dispositivo " + host, e);
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("online", true);
+        data.put(DeviceStatusMapper.DEVICE_STATUS, status);
+        return new JSONResponse(true, data);
+    }
+}
@@ -0,0 +1,161 @@
+package com.bufigol.API;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las llamadas concurrentes con la misma clave en una única llamada en vuelo.
+ * El primer llamante lanza la operación; los que lleguen mientras sigue en curso
+ * reciben el mismo resultado sin lanzar otra. Cuando la operación termina, la clave
+ * se libera y la siguiente llamada vuelve a ejecutarse.
+ *
+ * Cada llamante recibe su propio futuro: cancelarlo no afecta a los demás. La operación
+ * subyacente solo se cancela cuando todos sus llamantes han cancelado.
+ * El valor compartido es el mismo objeto para todos, así que no debe modificarse.
+ *
+ * @param <K> tipo de la clave
+ * @param <V> tipo del resultado
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, Flight<V>> flights;
+    private final AtomicLong executions;
+    private final AtomicLong coalesced;
+
+    public SingleFlight() {
+        this.flights = new ConcurrentHashMap<>();
+        this.executions = new AtomicLong();
+        this.coalesced = new AtomicLong();
+    }
+
+    /**
+     * Ejecuta la operación para la clave, o se une a la que ya esté en vuelo.
+     *
+     * @param key clave que identifica la operación
+     * @param operation lanza la operación; solo se invoca si no hay otra en vuelo
+     * @return futuro propio del llamante con el resultado compartido
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> operation) {
+        while (true) {
+            Flight<V> existing = flights.get(key);
+            if (existing == null) {
+                Flight<V> created = new Flight<>();
+                existing = flights.putIfAbsent(key, created);
+                if (existing == null) {
+                    CompletableFuture<V> view = created.subscribe(() -> abandon(key, created));
+                    executions.incrementAndGet();
+                    start(key, created, operation);
+                    return view;
+                }
+            }
+            Flight<V> flight = existing;
+            CompletableFuture<V> view = flight.subscribe(() -> abandon(key, flight));
+            if (view != null) {
+                coalesced.incrementAndGet();
+                return view;
+            }
+            // La operación acaba de ser abandonada por todos sus llamantes: lanzamos otra
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return número de operaciones en vuelo
+     */
+    public int getInFlightCount() {
+        return flights.size();
+    }
+
+    /**
+     * @return número de operaciones realmente lanzadas
+     */
+    public long getExecutionCount() {
+        return executions.get();
+    }
+
+    /**
+     * @return número de llamadas que se unieron a una operación ya en vuelo
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private void start(K key, Flight<V> flight, Supplier<CompletableFuture<V>> operation) {
+        CompletableFuture<V> underlying;
+        try {
+            underlying = operation.get();
+        } catch (RuntimeException e) {
+            underlying = CompletableFuture.failedFuture(e);
+        }
+        flight.underlying = underlying;
+        if (flight.isAbandoned()) {
+            underlying.cancel(true);
+        }
+        underlying.whenComplete((value, error) -> {
+            flights.remove(key, flight);
+            if (error != null) {
+                flight.shared.completeExceptionally(error);
+            } else {
+                flight.shared.complete(value);
+            }
+        });
+    }
+
+    private void abandon(K key, Flight<V> flight) {
+        flights.remove(key, flight);
+        CompletableFuture<V> underlying = flight.underlying;
+        if (underlying != null) {
+            underlying.cancel(true);
+        }
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> shared = new CompletableFuture<>();
+        private volatile CompletableFuture<V> underlying;
+        private int subscribers;
+        private boolean abandoned;
+
+        /**
+         * Registra un nuevo llamante.
+         * @return su futuro, o null si la operación ya fue abandonada
+         */
+        synchronized CompletableFuture<V> subscribe(Runnable onAbandon) {
+            if (abandoned) {
+                return null;
+            }
+            subscribers++;
+            CompletableFuture<V> view = new CompletableFuture<>();
+            shared.whenComplete((value, error) -> {
+                if (error != null) {
+                    view.completeExceptionally(error);
+                } else {
+                    view.complete(value);
+                }
+            });
+            view.whenComplete((value, error) -> {
+                if (view.isCancelled() && unsubscribe()) {
+                    onAbandon.run();
+                }
+            });
+            return view;
+        }
+
+        /**
+         * @return true si era el último llamante y la operación sigue en curso
+         */
+        private synchronized boolean unsubscribe() {
+            subscribers--;
+            if (subscribers == 0 && !shared.isDone()) {
+                abandoned = true;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bufigol.API;
+
+/**
+ * Transporte usado para consultar el estado de un dispositivo.
+ * CLOUD pasa siempre por Shelly Cloud, LOCAL llama directamente al dispositivo en la red
+ * local y AUTO usa la red local cuando se conoce la IP del dispositivo, volviendo a la
+ * nube si la llamada local falla.
+ */
+public enum TransportMode {
+    AUTO,
+    LOCAL,
+    CLOUD
+}
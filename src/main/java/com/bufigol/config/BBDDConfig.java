@@ -100,15 +100,28 @@ public class BBDDConfig implements INT_Configuracion {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * El archivo se lee fuera del bloqueo, de modo que los lectores solo esperan al
+     * intercambio de la configuración. Si la carga falla se conserva la configuración
+     * publicada anteriormente.
+     */
     @Override
     public void loadConfig() throws ConfigurationException {
+        Map<String, Object> candidate;
+        try {
+            candidate = jsonUtils.readConfigFile(configPath.toString());
+        } catch (Exception e) {
+            throw new ConfigurationException("Error al cargar la configuración de base de datos: " + e.getMessage(), e);
+        }
         lock.writeLock().lock();
+        Map<String, Object> previous = configuration;
         try {
-            configuration = jsonUtils.readConfigFile(configPath.toString());
+            configuration = candidate;
             validateConfiguration();
             loaded = true;
         } catch (Exception e) {
-            loaded = false;
+            configuration = previous;
             throw new ConfigurationException("Error al cargar la configuración de base de datos: " + e.getMessage(), e);
         } finally {
             lock.writeLock().unlock();
@@ -0,0 +1,201 @@
+package com.bufigol.config;
+
+import com.bufigol.expeciones.ConfigurationException;
+import com.bufigol.interfaces.INT_Configuracion;
+import com.bufigol.utils.LoggerUtil;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Vigila los directorios de los archivos de configuración y recarga automáticamente
+ * la configuración cuyo archivo cambia.
+ *
+ * Los eventos se agrupan: cada cambio reinicia una espera (debounce) y la recarga solo
+ * se hace cuando el archivo lleva ese tiempo sin cambiar, de modo que una ráfaga de
+ * escrituras provoca una única recarga. Solo se recarga la configuración afectada y,
+ * como {@link INT_Configuracion#reloadConfig()} lee el archivo fuera de su bloqueo, los
+ * lectores no se detienen mientras tanto. Si la recarga falla se conserva la
+ * configuración anterior y el error se registra.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500);
+
+    private final WatchService watchService;
+    private final long debounceNanos;
+    private final Map<Path, INT_Configuracion> configsByFile;
+    private final Map<WatchKey, Path> directories;
+    private final Map<Path, ScheduledFuture<?>> pendingReloads;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<INT_Configuracion>> listeners;
+    private final AtomicLong reloads;
+    private final AtomicLong failures;
+    private volatile Thread watcherThread;
+
+    /**
+     * @param debounce tiempo sin cambios que debe pasar antes de recargar un archivo
+     * @throws IOException si no se puede crear el WatchService
+     */
+    public ConfigWatcher(Duration debounce) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounceNanos = debounce.toNanos();
+        this.configsByFile = new ConcurrentHashMap<>();
+        this.directories = new ConcurrentHashMap<>();
+        this.pendingReloads = new ConcurrentHashMap<>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shelly-config-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.reloads = new AtomicLong();
+        this.failures = new AtomicLong();
+    }
+
+    /**
+     * Añade una configuración a vigilar. Puede llamarse antes o después de {@link #start()}.
+     *
+     * @param config configuración cuyo archivo se vigila
+     * @throws IOException si no se puede vigilar el directorio del archivo
+     */
+    public synchronized void register(INT_Configuracion config) throws IOException {
+        Path file = Path.of(config.getConfigPath()).toAbsolutePath().normalize();
+        Path directory = file.getParent();
+        configsByFile.put(file, config);
+        if (!directories.containsValue(directory)) {
+            // Las escrituras atómicas de JSONUtils llegan como CREATE (renombrado), las demás como MODIFY
+            WatchKey key = directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(key, directory);
+        }
+    }
+
+    /**
+     * Añade un oyente que se invoca tras cada recarga correcta, en el hilo de recarga.
+     * @param listener oyente que recibe la configuración recargada
+     */
+    public void addReloadListener(Consumer<INT_Configuracion> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeReloadListener(Consumer<INT_Configuracion> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Arranca el hilo de vigilancia en segundo plano.
+     */
+    public synchronized void start() {
+        if (watcherThread != null) {
+            return;
+        }
+        Thread thread = new Thread(this::watch, "shelly-config-watcher");
+        thread.setDaemon(true);
+        watcherThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Detiene la vigilancia y descarta las recargas pendientes.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // El WatchService ya no se puede usar en ningún caso
+        }
+        scheduler.shutdownNow();
+        Thread thread = watcherThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return número de recargas correctas
+     */
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    /**
+     * @return número de recargas fallidas
+     */
+    public long getFailedReloadCount() {
+        return failures.get();
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = directories.get(key);
+            if (directory != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Se han perdido eventos: se recargan todas las configuraciones del directorio
+                        configsByFile.forEach((file, config) -> {
+                            if (file.getParent().equals(directory)) {
+                                scheduleReload(file, config);
+                            }
+                        });
+                    } else if (event.context() instanceof Path name) {
+                        Path file = directory.resolve(name);
+                        INT_Configuracion config = configsByFile.get(file);
+                        if (config != null) {
+                            scheduleReload(file, config);
+                        }
+                    }
+                }
+            }
+            key.reset();
+        }
+    }
+
+    private void scheduleReload(Path file, INT_Configuracion config) {
+        pendingReloads.compute(file, (ignored, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return scheduler.schedule(() -> reload(file, config), debounceNanos, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private void reload(Path file, INT_Configuracion config) {
+        pendingReloads.remove(file);
+        try {
+            config.reloadConfig();
+            reloads.incrementAndGet();
+        } catch (ConfigurationException e) {
+            failures.incrementAndGet();
+            LoggerUtil.getInstance().logError(this.getClass().getName(),
+                    "Error al recargar " + file + "; se conserva la configuración anterior", e.toString());
+            return;
+        }
+        for (Consumer<INT_Configuracion> listener : listeners) {
+            listener.accept(config);
+        }
+    }
+}
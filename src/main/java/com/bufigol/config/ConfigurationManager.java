@@ -1,8 +1,11 @@
 package com.bufigol.config;
 
 import com.bufigol.expeciones.ConfigurationException;
+import com.bufigol.interfaces.INT_Configuracion;
 import com.bufigol.utils.LoggerUtil;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -22,6 +25,7 @@ public class ConfigurationManager {
     private final OtherConfig otherConfig;
     private final ReadWriteLock configLock;
     private final AtomicBoolean initialized;
+    private ConfigWatcher watcher;
 
     /**
      * Constructor privado que inicializa las instancias de configuración.
@@ -100,6 +104,7 @@ public class ConfigurationManager {
         configLock.writeLock().lock();
         try {
             otherConfig.reloadConfig();
+            TimeSettings.configure(otherConfig);
             bbddConfig.reloadConfig();
             shellyConfig.reloadConfig();
             LoggerUtil.getInstance().logError(this.getClass().getName(),
@@ -113,6 +118,54 @@ public class ConfigurationManager {
         }
     }
 
+    /**
+     * Arranca la recarga automática de las configuraciones cuando cambian sus archivos,
+     * con la espera por defecto de {@link ConfigWatcher#DEFAULT_DEBOUNCE}.
+     * @return vigilante arrancado
+     * @throws ConfigurationException si el gestor no está inicializado o no se puede vigilar
+     */
+    public ConfigWatcher startWatching() throws ConfigurationException {
+        return startWatching(ConfigWatcher.DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * Arranca la recarga automática de las configuraciones. A diferencia de
+     * {@link #reloadAll()}, cada cambio recarga solo la configuración afectada y sin
+     * tomar el bloqueo global. Si ya estaba arrancada devuelve el vigilante existente.
+     *
+     * @param debounce tiempo sin cambios que debe pasar antes de recargar un archivo
+     * @return vigilante arrancado
+     * @throws ConfigurationException si el gestor no está inicializado o no se puede vigilar
+     */
+    public synchronized ConfigWatcher startWatching(Duration debounce) throws ConfigurationException {
+        checkInitialized();
+        if (watcher != null) {
+            return watcher;
+        }
+        try {
+            ConfigWatcher created = new ConfigWatcher(debounce);
+            created.register(otherConfig);
+            created.addReloadListener(this::onConfigReloaded);
+            created.register(bbddConfig);
+            created.register(shellyConfig);
+            created.start();
+            watcher = created;
+            return created;
+        } catch (IOException e) {
+            throw new ConfigurationException("No se pudo vigilar el directorio de configuración: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Detiene la recarga automática, si estaba arrancada.
+     */
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
     /**
      * Obtiene la configuración de Shelly.
      * @return instancia de ShellyConfig
@@ -178,6 +231,7 @@ public class ConfigurationManager {
      * Métod o para cerrar y limpiar recursos del gestor de configuración.
      */
     public void shutdown() {
+        stopWatching();
         configLock.writeLock().lock();
         try {
             initialized.set(false);
@@ -190,6 +244,18 @@ public class ConfigurationManager {
 
     // Métodos privados de ayuda
 
+    private void onConfigReloaded(INT_Configuracion config) {
+        if (config != otherConfig) {
+            return;
+        }
+        try {
+            TimeSettings.configure(otherConfig);
+        } catch (ConfigurationException e) {
+            LoggerUtil.getInstance().logError(this.getClass().getName(),
+                    "Zona horaria no válida tras recargar other.json; se conserva la anterior", e.toString());
+        }
+    }
+
     private void checkInitialized() throws ConfigurationException {
         if (!initialized.get()) {
             throw new ConfigurationException("El gestor de configuración no está inicializado");
@@ -199,6 +265,7 @@ public class ConfigurationManager {
     private void loadOtherConfig() throws ConfigurationException {
         try {
             otherConfig.loadConfig();
+            TimeSettings.configure(otherConfig);
         } catch (Exception e) {
             throw new ConfigurationException("Error cargando OtherConfig: " + e.getMessage(), e);
         }
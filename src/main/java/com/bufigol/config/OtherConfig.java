@@ -75,15 +75,28 @@ public class OtherConfig implements INT_Configuracion {
         this.loaded = false;
     }
 
+    /**
+     * {@inheritDoc}
+     * El archivo se lee fuera del bloqueo, de modo que los lectores solo esperan al
+     * intercambio de la configuración. Si la carga falla se conserva la configuración
+     * publicada anteriormente.
+     */
     @Override
     public void loadConfig() throws ConfigurationException {
+        Map<String, Object> candidate;
+        try {
+            candidate = jsonUtils.readConfigFile(configPath);
+        } catch (Exception e) {
+            throw new ConfigurationException("Error al cargar otras configuraciones: " + e.getMessage(), e);
+        }
         lock.writeLock().lock();
+        Map<String, Object> previous = configuration;
         try {
-            configuration = jsonUtils.readConfigFile(configPath);
+            configuration = candidate;
             validateConfiguration();
             loaded = true;
         } catch (Exception e) {
-            loaded = false;
+            configuration = previous;
             throw new ConfigurationException("Error al cargar otras configuraciones: " + e.getMessage(), e);
         } finally {
             lock.writeLock().unlock();
@@ -193,6 +206,36 @@ public class OtherConfig implements INT_Configuracion {
         }
     }
 
+    /**
+     * Obtiene el número máximo de reintentos de una petición.
+     */
+    @SuppressWarnings("unchecked")
+    public int getUpdateRetryCount() throws ConfigurationException {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> updateConfig = (Map<String, Object>) configuration.get(UPDATE_CONFIG);
+            validateNestedConfig(updateConfig, UPDATE_RETRY_COUNT, "número de reintentos");
+            return Integer.parseInt(updateConfig.get(UPDATE_RETRY_COUNT).toString());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene el tiempo entre reintentos en segundos.
+     */
+    @SuppressWarnings("unchecked")
+    public int getUpdateRetryDelay() throws ConfigurationException {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> updateConfig = (Map<String, Object>) configuration.get(UPDATE_CONFIG);
+            validateNestedConfig(updateConfig, UPDATE_RETRY_DELAY, "tiempo entre reintentos");
+            return Integer.parseInt(updateConfig.get(UPDATE_RETRY_DELAY).toString());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Métodos para obtener configuración del sistema
      */
@@ -208,6 +251,18 @@ public class OtherConfig implements INT_Configuracion {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    public String getSystemDateFormat() throws ConfigurationException {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> systemConfig = (Map<String, Object>) configuration.get(SYSTEM_CONFIG);
+            validateNestedConfig(systemConfig, SYSTEM_DATE_FORMAT, "formato de fecha");
+            return systemConfig.get(SYSTEM_DATE_FORMAT).toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public String getSystemLocale() throws ConfigurationException {
         lock.readLock().lock();
@@ -6,7 +6,9 @@ import com.bufigol.utils.JSONUtils;
 
 import java.io.File;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -61,15 +63,28 @@ public class ShellyConfig implements INT_Configuracion {
         this.loaded = false;
     }
 
+    /**
+     * {@inheritDoc}
+     * El archivo se lee fuera del bloqueo, de modo que los lectores solo esperan al
+     * intercambio de la configuración. Si la carga falla se conserva la configuración
+     * publicada anteriormente.
+     */
     @Override
     public void loadConfig() throws ConfigurationException {
+        Map<String, Object> candidate;
+        try {
+            candidate = jsonUtils.readConfigFile(configPath);
+        } catch (Exception e) {
+            throw new ConfigurationException("Error al cargar la configuración de Shelly: " + e.getMessage(), e);
+        }
         lock.writeLock().lock();
+        Map<String, Object> previous = configuration;
         try {
-            configuration = jsonUtils.readConfigFile(configPath);
+            configuration = candidate;
             validateConfiguration();
             loaded = true;
         } catch (Exception e) {
-            loaded = false;
+            configuration = previous;
             throw new ConfigurationException("Error al cargar la configuración de Shelly: " + e.getMessage(), e);
         } finally {
             lock.writeLock().unlock();
@@ -188,6 +203,29 @@ public class ShellyConfig implements INT_Configuracion {
         }
     }
 
+    /**
+     * Obtiene todos los dispositivos configurados.
+     * @return Map inmutable de nombre de dispositivo a ID
+     * @throws ConfigurationException si la configuración no está cargada
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getDevices() throws ConfigurationException {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                throw new ConfigurationException("La configuración no está cargada. Llame a loadConfig() primero.");
+            }
+            Map<String, Object> devices = (Map<String, Object>) configuration.get(DEVICES);
+            Map<String, String> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : devices.entrySet()) {
+                result.put(entry.getKey(), String.valueOf(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Valida que la configuración contenga todos los campos requeridos.
      * @throws ConfigurationException si falta algún campo requerido o el formato es inválido
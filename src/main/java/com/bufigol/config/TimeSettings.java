@@ -0,0 +1,95 @@
+package com.bufigol.config;
+
+import com.bufigol.expeciones.ConfigurationException;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Zona horaria y formato de fecha de la aplicación, resueltos una sola vez a partir de
+ * system.timezone y system.date_format de other.json y compartidos por todo el proceso.
+ *
+ * Mientras no se configure se usan la zona del sistema y {@link #DEFAULT_DATE_FORMAT}.
+ * ConfigurationManager la configura al inicializarse y al recargar other.json.
+ */
+public final class TimeSettings {
+    public static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private static volatile TimeSettings current;
+
+    private final ZoneId zone;
+    private final DateTimeFormatter formatter;
+
+    private TimeSettings(ZoneId zone, DateTimeFormatter formatter) {
+        this.zone = zone;
+        this.formatter = formatter.withZone(zone);
+    }
+
+    /**
+     * @return la configuración vigente
+     */
+    public static TimeSettings current() {
+        TimeSettings settings = current;
+        if (settings == null) {
+            settings = new TimeSettings(ZoneId.systemDefault(), DateTimeFormatter.ofPattern(DEFAULT_DATE_FORMAT));
+            current = settings;
+        }
+        return settings;
+    }
+
+    /**
+     * Resuelve la zona y el formato de other.json y los publica como configuración vigente.
+     * @param config configuración cargada
+     * @return la nueva configuración
+     * @throws ConfigurationException si la zona o el formato no son válidos
+     */
+    public static TimeSettings configure(OtherConfig config) throws ConfigurationException {
+        String timezone = config.getSystemTimezone();
+        String dateFormat = config.getSystemDateFormat();
+        try {
+            TimeSettings settings = new TimeSettings(ZoneId.of(timezone), DateTimeFormatter.ofPattern(dateFormat));
+            current = settings;
+            return settings;
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new ConfigurationException("Zona horaria o formato de fecha no válidos: "
+                    + timezone + ", " + dateFormat, e);
+        }
+    }
+
+    /**
+     * Vuelve a la zona del sistema y al formato por defecto.
+     */
+    public static void reset() {
+        current = null;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @return formateador con la zona ya aplicada, utilizable directamente con Instant
+     */
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    public LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+    }
+
+    public long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toEpochSecond();
+    }
+
+    /**
+     * @param epochSecond segundos desde la época
+     * @return fecha formateada en la zona configurada
+     */
+    public String format(long epochSecond) {
+        return formatter.format(Instant.ofEpochSecond(epochSecond));
+    }
+}
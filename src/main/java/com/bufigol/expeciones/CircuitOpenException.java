@@ -0,0 +1,25 @@
+package com.bufigol.expeciones;
+
+/**
+ * Excepción lanzada cuando el circuit breaker de un endpoint está abierto y la
+ * petición se rechaza sin llegar a enviarse.
+ */
+public class CircuitOpenException extends ShellyAPIException {
+    private final String endpoint;
+
+    /**
+     * @param endpoint URL base cuyo circuito está abierto
+     */
+    public CircuitOpenException(String endpoint) {
+        super("Circuito abierto para " + endpoint + ": la petición se rechaza sin enviarse", -1);
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Obtiene la URL base cuyo circuito rechazó la petición.
+     * @return URL base
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bufigol.expeciones;
+
+import java.time.Duration;
+
+/**
+ * Excepción para errores en las llamadas a la API de Shelly Cloud.
+ * Al igual que ConfigurationException extiende RuntimeException, de forma que
+ * puede propagarse a través de un CompletableFuture sin necesidad de envolverla.
+ */
+public class ShellyAPIException extends RuntimeException {
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    /**
+     * Constructor para errores sin respuesta HTTP (red, timeout, parseo...).
+     *
+     * @param message Mensaje de error
+     * @param cause Causa del error
+     */
+    public ShellyAPIException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = -1;
+        this.retryAfter = null;
+    }
+
+    /**
+     * Constructor para respuestas HTTP con código distinto de 200.
+     *
+     * @param message Mensaje de error
+     * @param statusCode Código HTTP devuelto por el servidor
+     */
+    public ShellyAPIException(String message, int statusCode) {
+        this(message, statusCode, null);
+    }
+
+    /**
+     * Constructor para respuestas HTTP que incluyen la cabecera Retry-After.
+     *
+     * @param message Mensaje de error
+     * @param statusCode Código HTTP devuelto por el servidor
+     * @param retryAfter espera indicada por el servidor, o null si no la indicó
+     */
+    public ShellyAPIException(String message, int statusCode, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Obtiene el código HTTP de la respuesta que originó el error.
+     * @return código HTTP, o -1 si el error no proviene de una respuesta HTTP
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Obtiene la espera indicada por el servidor en la cabecera Retry-After.
+     * @return espera mínima antes de reintentar, o null si el servidor no la indicó
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -2,8 +2,13 @@ package com.bufigol.interfaces;
 
 
 import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.utils.ConfigTransaction;
+import jakarta.json.JsonObject;
 import jakarta.json.JsonValue;
+
+import java.io.InputStream;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Interfaz que define los métodos necesarios para el manejo de JSON en la aplicación.
@@ -13,12 +18,39 @@ public interface INT_JSONUtils {
 
     // Métodos existentes
     /**
-     * Procesa una cadena JSON y la convierte en un objeto JSONResponse
+     * Procesa una cadena JSON y la convierte en un objeto JSONResponse.
+     * Los objetos y listas de data son HashMap y ArrayList que el llamador puede modificar.
      * @param jsonString cadena JSON a procesar
      * @return objeto JSONResponse con la información procesada
      */
     JSONResponse parseResponse(String jsonString);
 
+    /**
+     * Procesa un flujo JSON a medida que se lee, sin copiarlo antes a una cadena.
+     * El flujo se cierra al terminar.
+     * @param jsonStream flujo con el JSON a procesar
+     * @return objeto JSONResponse con la información procesada
+     * @throws java.io.UncheckedIOException si falla la lectura del flujo
+     */
+    JSONResponse parseResponse(InputStream jsonStream);
+
+    /**
+     * Igual que {@link #parseResponse(String)}, pero los objetos de data se convierten con
+     * {@link #toCompactMap(JsonObject)}: ocupan menos memoria y son de solo lectura, así
+     * que modificarlos lanza UnsupportedOperationException.
+     * @param jsonString cadena JSON a procesar
+     * @return objeto JSONResponse con datos de solo lectura
+     */
+    JSONResponse parseCompactResponse(String jsonString);
+
+    /**
+     * Versión en flujo de {@link #parseCompactResponse(String)}. El flujo se cierra al terminar.
+     * @param jsonStream flujo con el JSON a procesar
+     * @return objeto JSONResponse con datos de solo lectura
+     * @throws java.io.UncheckedIOException si falla la lectura del flujo
+     */
+    JSONResponse parseCompactResponse(InputStream jsonStream);
+
     /**
      * Convierte un JsonValue en un Map de Java
      * @param value valor JSON a convertir
@@ -26,6 +58,14 @@ public interface INT_JSONUtils {
      */
     Map<String, Object> convertJsonValueToMap(JsonValue value);
 
+    /**
+     * Convierte un objeto JSON en un Map compacto de solo lectura que comparte las claves
+     * con los demás objetos de la misma forma
+     * @param object objeto JSON a convertir
+     * @return Map de solo lectura con los datos convertidos
+     */
+    Map<String, Object> toCompactMap(JsonObject object);
+
     /**
      * Convierte un JsonValue en un objeto Java del tipo apropiado
      * @param value valor JSON a convertir
@@ -63,6 +103,16 @@ public interface INT_JSONUtils {
      */
     void saveConfigValue(String propertyName, String value);
 
+    /**
+     * Aplica varios cambios al archivo de configuración en una sola escritura.
+     * Los cambios se hacen en memoria sobre el contenido actual del archivo, que queda
+     * bloqueado frente a otros escritores hasta que la escritura termina. El archivo se
+     * escribe en un temporal, se sincroniza con el disco y se renombra de forma atómica.
+     * @param changes cambios a aplicar sobre la transacción
+     * @return true si hubo cambios y se escribió el archivo
+     */
+    boolean edit(Consumer<ConfigTransaction> changes);
+
     /**
      * Guarda una configuración completa en el archivo
      * @param config Map con la configuración a guardar
@@ -77,6 +77,15 @@ public class Temperature {
         this.tC = ConversorTemperatura.fahrenheitACelsius(tF);
     }
 
+    /**
+     * Establece las dos escalas tal cual, sin recalcular una a partir de la otra, como
+     * hace el constructor completo. Lo usa el parser al reutilizar instancias.
+     */
+    public void setTemperatures(double tC, double tF) {
+        this.tC = tC;
+        this.tF = tF;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Temperature that)){
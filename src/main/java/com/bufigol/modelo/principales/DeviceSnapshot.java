@@ -0,0 +1,212 @@
+package com.bufigol.modelo.principales;
+
+import com.bufigol.modelo.auxiliares.AvailableUpdates;
+import com.bufigol.modelo.auxiliares.CloudStatus;
+import com.bufigol.modelo.auxiliares.Fase;
+import com.bufigol.modelo.auxiliares.StableVersion;
+import com.bufigol.modelo.auxiliares.Temperature;
+import com.bufigol.modelo.auxiliares.WifiStatus;
+import com.bufigol.utils.Fingerprint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vista inmutable y aplanada de un DeviceStatus: un único objeto con campos primitivos
+ * en lugar del grafo de unos ocho objetos del modelo (EnergyMeter, tres Fase,
+ * EnergyMeterData, SystemInfo, WifiStatus, etc.).
+ *
+ * Las horas se guardan como segundos, igual que en SystemInfo: {@code timeOfDay} es el
+ * segundo del día, {@code unixtime} segundos desde la época y {@code uptimeSeconds} la duración. Los campos ausentes usan las
+ * constantes {@link #NO_TIME}, {@link #NO_UNIXTIME} y {@link #NO_UPTIME}. La MAC se empaqueta
+ * en los 48 bits bajos de un long, o {@link #NO_MAC} si no es una MAC válida.
+ *
+ * {@code fingerprint} es una huella XXH64 de todos los demás componentes (ver
+ * {@link Fingerprint}), calculada al crear la instancia. Es estable entre ejecuciones, así
+ * que puede persistirse y compararse con otra para descartar en O(1) una muestra repetida,
+ * por ejemplo la misma respuesta cacheada de Shelly Cloud recibida dos veces.
+ */
+public record DeviceSnapshot(
+        String id, String code, String updated,
+        int emId,
+        double aActPower, double aAprtPower, double aCurrent, double aFreq, double aPf, double aVoltage,
+        double bActPower, double bAprtPower, double bCurrent, double bFreq, double bPf, double bVoltage,
+        double cActPower, double cAprtPower, double cCurrent, double cFreq, double cPf, double cVoltage,
+        double totalActPower, double totalAprtPower, double totalCurrent,
+        List<String> userCalibratedPhase,
+        int emdataId,
+        double aTotalActEnergy, double aTotalActRetEnergy,
+        double bTotalActEnergy, double bTotalActRetEnergy,
+        double cTotalActEnergy, double cTotalActRetEnergy,
+        double totalAct, double totalActRet,
+        long mac, boolean restartRequired, int timeOfDay, long unixtime, long uptimeSeconds,
+        int ramSize, int ramFree, int fsSize, int fsFree,
+        int cfgRev, int kvsRev, int scheduleRev, int webhookRev, int resetReason,
+        String stableVersion,
+        String staIp, String wifiStatus, String ssid, int rssi,
+        boolean cloudConnected,
+        int temperatureId, double tC, double tF,
+        long fingerprint) {
+
+    public static final long NO_MAC = -1;
+    public static final int NO_TIME = SystemInfo.NO_TIME;
+    public static final long NO_UNIXTIME = SystemInfo.NO_UNIXTIME;
+    public static final long NO_UPTIME = SystemInfo.NO_UPTIME;
+    /** Valor que se pasa al constructor para que calcule la huella. */
+    public static final long NO_FINGERPRINT = 0;
+
+    /**
+     * Si {@code fingerprint} es {@link #NO_FINGERPRINT} se calcula a partir de los demás
+     * componentes; en otro caso se conserva, por ejemplo al leer una huella ya persistida.
+     */
+    public DeviceSnapshot {
+        userCalibratedPhase = userCalibratedPhase == null ? List.of() : List.copyOf(userCalibratedPhase);
+        if (fingerprint == NO_FINGERPRINT) {
+            Fingerprint hash = new Fingerprint()
+                    .add(id).add(code).add(updated).add(emId)
+                    .add(aActPower).add(aAprtPower).add(aCurrent).add(aFreq).add(aPf).add(aVoltage)
+                    .add(bActPower).add(bAprtPower).add(bCurrent).add(bFreq).add(bPf).add(bVoltage)
+                    .add(cActPower).add(cAprtPower).add(cCurrent).add(cFreq).add(cPf).add(cVoltage)
+                    .add(totalActPower).add(totalAprtPower).add(totalCurrent)
+                    .add(userCalibratedPhase.size());
+            for (String phase : userCalibratedPhase) {
+                hash.add(phase);
+            }
+            hash.add(emdataId)
+                    .add(aTotalActEnergy).add(aTotalActRetEnergy)
+                    .add(bTotalActEnergy).add(bTotalActRetEnergy)
+                    .add(cTotalActEnergy).add(cTotalActRetEnergy)
+                    .add(totalAct).add(totalActRet)
+                    .add(mac).add(restartRequired).add(timeOfDay).add(unixtime).add(uptimeSeconds)
+                    .add(ramSize).add(ramFree).add(fsSize).add(fsFree)
+                    .add(cfgRev).add(kvsRev).add(scheduleRev).add(webhookRev).add(resetReason)
+                    .add(stableVersion)
+                    .add(staIp).add(wifiStatus).add(ssid).add(rssi)
+                    .add(cloudConnected)
+                    .add(temperatureId).add(tC).add(tF);
+            long value = hash.value();
+            // La huella 0 queda reservada para NO_FINGERPRINT
+            fingerprint = value == NO_FINGERPRINT ? 1 : value;
+        }
+    }
+
+    /**
+     * @param other otra instantánea, o null
+     * @return true si tiene la misma huella, es decir, casi con seguridad el mismo contenido
+     */
+    public boolean sameContentAs(DeviceSnapshot other) {
+        return other != null && fingerprint == other.fingerprint;
+    }
+
+    /**
+     * Aplana un DeviceStatus. Los objetos anidados null se tratan como valores por defecto.
+     * @param status estado del dispositivo
+     * @return instantánea con los mismos valores
+     */
+    public static DeviceSnapshot from(DeviceStatus status) {
+        EnergyMeter em = status.getEm0() != null ? status.getEm0() : new EnergyMeter();
+        Fase a = em.getFaseA() != null ? em.getFaseA() : new Fase();
+        Fase b = em.getFaseB() != null ? em.getFaseB() : new Fase();
+        Fase c = em.getFaseC() != null ? em.getFaseC() : new Fase();
+        EnergyMeterData emdata = status.getEmdata0() != null ? status.getEmdata0() : new EnergyMeterData();
+        SystemInfo sys = status.getSys() != null ? status.getSys() : new SystemInfo();
+        WifiStatus wifi = status.getWifi() != null ? status.getWifi() : new WifiStatus();
+        Temperature temperature = status.getTemperature0() != null ? status.getTemperature0() : new Temperature();
+        AvailableUpdates updates = sys.getAvailableUpdates();
+
+        return new DeviceSnapshot(
+                status.getId(), status.getCode(), status.getUpdated(),
+                em.getId(),
+                a.getActPower(), a.getAprtPower(), a.getCurrent(), a.getFreq(), a.getPf(), a.getVoltage(),
+                b.getActPower(), b.getAprtPower(), b.getCurrent(), b.getFreq(), b.getPf(), b.getVoltage(),
+                c.getActPower(), c.getAprtPower(), c.getCurrent(), c.getFreq(), c.getPf(), c.getVoltage(),
+                em.getTotalActPower(), em.getTotalAprtPower(), em.getTotalCurrent(),
+                em.getUserCalibratedPhase(),
+                emdata.getId(),
+                emdata.getaTotalActEnergy(), emdata.getaTotalActRetEnergy(),
+                emdata.getbTotalActEnergy(), emdata.getbTotalActRetEnergy(),
+                emdata.getcTotalActEnergy(), emdata.getcTotalActRetEnergy(),
+                emdata.getTotalAct(), emdata.getTotalActRet(),
+                packMac(sys.getMac()), sys.isRestartRequired(),
+                sys.getTimeOfDay(), sys.getUnixtime(), sys.getUptimeSeconds(),
+                sys.getRamSize(), sys.getRamFree(), sys.getFsSize(), sys.getFsFree(),
+                sys.getCfgRev(), sys.getKvsRev(), sys.getScheduleRev(), sys.getWebhookRev(), sys.getResetReason(),
+                updates != null && updates.getStable() != null ? updates.getStable().getVersion() : null,
+                wifi.getStaIp(), wifi.getStatus(), wifi.getSsid(), wifi.getRssi(),
+                status.getCloud() != null && status.getCloud().isConnected(),
+                temperature.getId(), temperature.gettC(), temperature.gettF(),
+                NO_FINGERPRINT);
+    }
+
+    /**
+     * Reconstruye el grafo del modelo. Para un DeviceStatus completo, como los que produce
+     * el parser, {@code from(status).toDeviceStatus()} es igual a {@code status}.
+     * @return nuevo DeviceStatus
+     */
+    public DeviceStatus toDeviceStatus() {
+        EnergyMeter em = new EnergyMeter(emId,
+                new Fase(aActPower, aAprtPower, aCurrent, aFreq, aPf, aVoltage),
+                new Fase(bActPower, bAprtPower, bCurrent, bFreq, bPf, bVoltage),
+                new Fase(cActPower, cAprtPower, cCurrent, cFreq, cPf, cVoltage),
+                totalActPower, totalAprtPower, totalCurrent, new ArrayList<>(userCalibratedPhase));
+        EnergyMeterData emdata = new EnergyMeterData(emdataId, aTotalActEnergy, aTotalActRetEnergy,
+                bTotalActEnergy, bTotalActRetEnergy, cTotalActEnergy, cTotalActRetEnergy, totalAct, totalActRet);
+
+        SystemInfo sys = new SystemInfo();
+        sys.setAvailableUpdates(new AvailableUpdates(new StableVersion(stableVersion)));
+        sys.setMac(macString());
+        sys.setRestartRequired(restartRequired);
+        sys.setTimeOfDay(timeOfDay);
+        sys.setUnixtime(unixtime);
+        sys.setUptimeSeconds(uptimeSeconds);
+        sys.setRamSize(ramSize);
+        sys.setRamFree(ramFree);
+        sys.setFsSize(fsSize);
+        sys.setFsFree(fsFree);
+        sys.setCfgRev(cfgRev);
+        sys.setKvsRev(kvsRev);
+        sys.setScheduleRev(scheduleRev);
+        sys.setWebhookRev(webhookRev);
+        sys.setResetReason(resetReason);
+
+        return new DeviceStatus(code, em, updated, new CloudStatus(cloudConnected),
+                new WifiStatus(staIp, wifiStatus, ssid, rssi), new Temperature(temperatureId, tC, tF),
+                emdata, sys, id);
+    }
+
+    /**
+     * @return MAC en mayúsculas y sin separadores, como la envía Shelly, o "" si no hay
+     */
+    public String macString() {
+        if (mac == NO_MAC) {
+            return "";
+        }
+        String hex = Long.toHexString(mac).toUpperCase();
+        return "0".repeat(12 - hex.length()) + hex;
+    }
+
+    /**
+     * Empaqueta una MAC de 12 dígitos hexadecimales, con o sin separadores ':' o '-'.
+     * @param mac MAC en texto
+     * @return MAC en los 48 bits bajos, o {@link #NO_MAC} si no es válida
+     */
+    public static long packMac(String mac) {
+        if (mac == null) {
+            return NO_MAC;
+        }
+        long value = 0;
+        int digits = 0;
+        for (int i = 0; i < mac.length(); i++) {
+            char ch = mac.charAt(i);
+            if (ch == ':' || ch == '-') {
+                continue;
+            }
+            int digit = Character.digit(ch, 16);
+            if (digit < 0 || ++digits > 12) {
+                return NO_MAC;
+            }
+            value = value << 4 | digit;
+        }
+        return digits == 12 ? value : NO_MAC;
+    }
+}
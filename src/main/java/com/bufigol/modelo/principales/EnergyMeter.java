@@ -3,6 +3,7 @@ package com.bufigol.modelo.principales;
 import com.bufigol.modelo.auxiliares.Fase;
 
 import java.util.List;
+import java.util.Objects;
 
 public class EnergyMeter {
     private int id;
@@ -118,23 +119,23 @@ public class EnergyMeter {
                     Double.compare(getTotalActPower(), that.getTotalActPower()) == 0 &&
                     Double.compare(getTotalAprtPower(), that.getTotalAprtPower()) == 0 &&
                     Double.compare(getTotalCurrent(), that.getTotalCurrent()) == 0 &&
-                    getFaseA().equals(that.getFaseA()) &&
-                    getFaseB().equals(that.getFaseB()) &&
-                    getFaseC().equals(that.getFaseC()) &&
-                    getUserCalibratedPhase().equals(that.getUserCalibratedPhase());
+                    Objects.equals(getFaseA(), that.getFaseA()) &&
+                    Objects.equals(getFaseB(), that.getFaseB()) &&
+                    Objects.equals(getFaseC(), that.getFaseC()) &&
+                    Objects.equals(getUserCalibratedPhase(), that.getUserCalibratedPhase());
         }
     }
 
     @Override
     public int hashCode() {
         int result = getId();
-        result = 31 * result + getFaseA().hashCode();
-        result = 31 * result + getFaseB().hashCode();
-        result = 31 * result + getFaseC().hashCode();
+        result = 31 * result + Objects.hashCode(getFaseA());
+        result = 31 * result + Objects.hashCode(getFaseB());
+        result = 31 * result + Objects.hashCode(getFaseC());
         result = 31 * result + Double.hashCode(getTotalActPower());
         result = 31 * result + Double.hashCode(getTotalAprtPower());
         result = 31 * result + Double.hashCode(getTotalCurrent());
-        result = 31 * result + getUserCalibratedPhase().hashCode();
+        result = 31 * result + Objects.hashCode(getUserCalibratedPhase());
         return result;
     }
 
@@ -0,0 +1,318 @@
+package com.bufigol.modelo.principales;
+
+import com.bufigol.modelo.auxiliares.Fase;
+
+import java.util.Arrays;
+
+/**
+ * Serie temporal de muestras de EnergyMeter en formato columnar: un long[] de marcas de
+ * tiempo y un double[] por métrica, en lugar de una lista de EnergyMeter con tres Fase cada uno.
+ *
+ * Las agregaciones recorren un único array primitivo en un bucle simple, que la JIT puede
+ * desenrollar y vectorizar. Las muestras deben añadirse en orden de tiempo no decreciente,
+ * lo que permite recortar por intervalo con búsqueda binaria.
+ *
+ * No es segura entre hilos.
+ */
+public final class SampleBatch {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Métricas almacenadas: las seis de cada fase y los totales de em:0.
+     */
+    public enum Metric {
+        A_ACT_POWER, A_APRT_POWER, A_CURRENT, A_FREQ, A_PF, A_VOLTAGE,
+        B_ACT_POWER, B_APRT_POWER, B_CURRENT, B_FREQ, B_PF, B_VOLTAGE,
+        C_ACT_POWER, C_APRT_POWER, C_CURRENT, C_FREQ, C_PF, C_VOLTAGE,
+        TOTAL_ACT_POWER, TOTAL_APRT_POWER, TOTAL_CURRENT
+    }
+
+    private static final int METRICS = Metric.values().length;
+    private static final int FASE_FIELDS = 6;
+
+    private long[] timestamps;
+    private final double[][] columns;
+    private int size;
+
+    public SampleBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SampleBatch(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa: " + initialCapacity);
+        }
+        this.timestamps = new long[initialCapacity];
+        this.columns = new double[METRICS][initialCapacity];
+    }
+
+    private SampleBatch(long[] timestamps, double[][] columns, int size) {
+        this.timestamps = timestamps;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Añade una muestra de em:0. Las fases null se guardan como ceros.
+     * @param timestamp marca de tiempo, por ejemplo segundos desde la época
+     * @param em medida del EnergyMeter
+     * @throws IllegalArgumentException si la marca de tiempo es anterior a la última
+     */
+    public void append(long timestamp, EnergyMeter em) {
+        int row = nextRow(timestamp);
+        appendFase(0, row, em.getFaseA());
+        appendFase(FASE_FIELDS, row, em.getFaseB());
+        appendFase(2 * FASE_FIELDS, row, em.getFaseC());
+        columns[Metric.TOTAL_ACT_POWER.ordinal()][row] = em.getTotalActPower();
+        columns[Metric.TOTAL_APRT_POWER.ordinal()][row] = em.getTotalAprtPower();
+        columns[Metric.TOTAL_CURRENT.ordinal()][row] = em.getTotalCurrent();
+        size++;
+    }
+
+    /**
+     * Añade una muestra usando su unixtime como marca de tiempo.
+     * @param snapshot instantánea del dispositivo
+     * @throws IllegalArgumentException si la marca de tiempo es anterior a la última
+     */
+    public void append(DeviceSnapshot snapshot) {
+        int row = nextRow(snapshot.unixtime());
+        set(Metric.A_ACT_POWER, row, snapshot.aActPower());
+        set(Metric.A_APRT_POWER, row, snapshot.aAprtPower());
+        set(Metric.A_CURRENT, row, snapshot.aCurrent());
+        set(Metric.A_FREQ, row, snapshot.aFreq());
+        set(Metric.A_PF, row, snapshot.aPf());
+        set(Metric.A_VOLTAGE, row, snapshot.aVoltage());
+        set(Metric.B_ACT_POWER, row, snapshot.bActPower());
+        set(Metric.B_APRT_POWER, row, snapshot.bAprtPower());
+        set(Metric.B_CURRENT, row, snapshot.bCurrent());
+        set(Metric.B_FREQ, row, snapshot.bFreq());
+        set(Metric.B_PF, row, snapshot.bPf());
+        set(Metric.B_VOLTAGE, row, snapshot.bVoltage());
+        set(Metric.C_ACT_POWER, row, snapshot.cActPower());
+        set(Metric.C_APRT_POWER, row, snapshot.cAprtPower());
+        set(Metric.C_CURRENT, row, snapshot.cCurrent());
+        set(Metric.C_FREQ, row, snapshot.cFreq());
+        set(Metric.C_PF, row, snapshot.cPf());
+        set(Metric.C_VOLTAGE, row, snapshot.cVoltage());
+        set(Metric.TOTAL_ACT_POWER, row, snapshot.totalActPower());
+        set(Metric.TOTAL_APRT_POWER, row, snapshot.totalAprtPower());
+        set(Metric.TOTAL_CURRENT, row, snapshot.totalCurrent());
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long timestamp(int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    public double get(Metric metric, int index) {
+        checkIndex(index);
+        return columns[metric.ordinal()][index];
+    }
+
+    /**
+     * @return copia de la columna de la métrica, con {@link #size()} elementos
+     */
+    public double[] column(Metric metric) {
+        return Arrays.copyOf(columns[metric.ordinal()], size);
+    }
+
+    /**
+     * @return copia de las marcas de tiempo, con {@link #size()} elementos
+     */
+    public long[] timestamps() {
+        return Arrays.copyOf(timestamps, size);
+    }
+
+    /**
+     * Copia un rango de muestras en un lote nuevo e independiente.
+     * @param from índice inicial, incluido
+     * @param to índice final, excluido
+     * @return lote con las muestras [from, to)
+     */
+    public SampleBatch slice(int from, int to) {
+        checkRange(from, to);
+        double[][] copy = new double[METRICS][];
+        for (int m = 0; m < METRICS; m++) {
+            copy[m] = Arrays.copyOfRange(columns[m], from, to);
+        }
+        return new SampleBatch(Arrays.copyOfRange(timestamps, from, to), copy, to - from);
+    }
+
+    /**
+     * Copia las muestras con marca de tiempo en [fromTime, toTime).
+     */
+    public SampleBatch sliceByTime(long fromTime, long toTime) {
+        int from = lowerBound(fromTime);
+        return slice(from, Math.max(from, lowerBound(toTime)));
+    }
+
+    /**
+     * Reconstruye el EnergyMeter de una muestra. El id y las fases calibradas no se guardan.
+     */
+    public EnergyMeter toEnergyMeter(int index) {
+        checkIndex(index);
+        return new EnergyMeter(0,
+                fase(0, index), fase(FASE_FIELDS, index), fase(2 * FASE_FIELDS, index),
+                columns[Metric.TOTAL_ACT_POWER.ordinal()][index],
+                columns[Metric.TOTAL_APRT_POWER.ordinal()][index],
+                columns[Metric.TOTAL_CURRENT.ordinal()][index],
+                null);
+    }
+
+    public double sum(Metric metric) {
+        return sum(metric, 0, size);
+    }
+
+    /**
+     * Suma un rango de la columna. Usa cuatro acumuladores independientes para que el
+     * bucle no quede limitado por la dependencia entre sumas consecutivas.
+     */
+    public double sum(Metric metric, int from, int to) {
+        checkRange(from, to);
+        double[] values = columns[metric.ordinal()];
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            s0 += values[i];
+            s1 += values[i + 1];
+            s2 += values[i + 2];
+            s3 += values[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += values[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * @return mínimo de la columna, o NaN si el lote está vacío
+     */
+    public double min(Metric metric) {
+        return min(metric, 0, size);
+    }
+
+    public double min(Metric metric, int from, int to) {
+        checkRange(from, to);
+        if (from == to) {
+            return Double.NaN;
+        }
+        double[] values = columns[metric.ordinal()];
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    /**
+     * @return máximo de la columna, o NaN si el lote está vacío
+     */
+    public double max(Metric metric) {
+        return max(metric, 0, size);
+    }
+
+    public double max(Metric metric, int from, int to) {
+        checkRange(from, to);
+        if (from == to) {
+            return Double.NaN;
+        }
+        double[] values = columns[metric.ordinal()];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * @return media de la columna, o NaN si el lote está vacío
+     */
+    public double mean(Metric metric) {
+        return mean(metric, 0, size);
+    }
+
+    public double mean(Metric metric, int from, int to) {
+        return from == to ? Double.NaN : sum(metric, from, to) / (to - from);
+    }
+
+    private int nextRow(long timestamp) {
+        if (size > 0 && timestamp < timestamps[size - 1]) {
+            throw new IllegalArgumentException("Las muestras deben añadirse en orden de tiempo: "
+                    + timestamp + " < " + timestamps[size - 1]);
+        }
+        if (size == timestamps.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size + (size >> 1));
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            for (int m = 0; m < METRICS; m++) {
+                columns[m] = Arrays.copyOf(columns[m], capacity);
+            }
+        }
+        timestamps[size] = timestamp;
+        return size;
+    }
+
+    private void set(Metric metric, int row, double value) {
+        columns[metric.ordinal()][row] = value;
+    }
+
+    private void appendFase(int offset, int row, Fase fase) {
+        if (fase == null) {
+            for (int f = 0; f < FASE_FIELDS; f++) {
+                columns[offset + f][row] = 0;
+            }
+            return;
+        }
+        columns[offset][row] = fase.getActPower();
+        columns[offset + 1][row] = fase.getAprtPower();
+        columns[offset + 2][row] = fase.getCurrent();
+        columns[offset + 3][row] = fase.getFreq();
+        columns[offset + 4][row] = fase.getPf();
+        columns[offset + 5][row] = fase.getVoltage();
+    }
+
+    private Fase fase(int offset, int index) {
+        return new Fase(columns[offset][index], columns[offset + 1][index], columns[offset + 2][index],
+                columns[offset + 3][index], columns[offset + 4][index], columns[offset + 5][index]);
+    }
+
+    /**
+     * @return primer índice cuya marca de tiempo es mayor o igual que time
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de rango para " + size + " muestras");
+        }
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Rango [" + from + ", " + to + ") fuera de " + size + " muestras");
+        }
+    }
+}
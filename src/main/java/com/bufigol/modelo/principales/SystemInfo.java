@@ -2,17 +2,32 @@ package com.bufigol.modelo.principales;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
 import java.time.Duration;
-import java.time.Instant;
-import java.time.ZoneId;
+import java.util.Objects;
+import com.bufigol.config.TimeSettings;
 import com.bufigol.modelo.auxiliares.AvailableUpdates;
 
+/**
+ * Sección sys del estado de un dispositivo.
+ *
+ * Las horas se guardan tal como llegan, en primitivos: unixtime en segundos desde la
+ * época, uptime en segundos y la hora local del dispositivo como segundo del día. Los
+ * objetos de java.time solo se crean al pedirlos; getTimestamp() usa la zona horaria de
+ * {@link TimeSettings}, resuelta una vez desde other.json.
+ */
 public class SystemInfo {
+    /** Valor de timeOfDay cuando no hay hora */
+    public static final int NO_TIME = -1;
+    /** Valor de unixtime cuando no hay marca de tiempo */
+    public static final long NO_UNIXTIME = Long.MIN_VALUE;
+    /** Valor de uptimeSeconds cuando no hay tiempo de actividad */
+    public static final long NO_UPTIME = -1;
+
     private AvailableUpdates availableUpdates;
     private String mac;
     private boolean restartRequired;
-    private LocalTime time;
-    private LocalDateTime timestamp;
-    private Duration uptime;
+    private int timeOfDay = NO_TIME;
+    private long unixtime = NO_UNIXTIME;
+    private long uptimeSeconds = NO_UPTIME;
     private int ramSize;
     private int ramFree;
     private int fsSize;
@@ -30,12 +45,9 @@ public class SystemInfo {
         this.availableUpdates = updates;
         this.mac = mac;
         this.restartRequired = restart;
-        this.time = LocalTime.parse(timeStr);
-        this.timestamp = LocalDateTime.ofInstant(
-                Instant.ofEpochSecond(unixtime),
-                ZoneId.systemDefault()
-        );
-        this.uptime = Duration.ofSeconds(uptime);
+        this.timeOfDay = timeStr != null ? parseTimeOfDay(timeStr) : NO_TIME;
+        this.unixtime = unixtime;
+        this.uptimeSeconds = uptime;
         this.ramSize = ramSize;
         this.ramFree = ramFree;
         this.fsSize = fsSize;
@@ -50,6 +62,33 @@ public class SystemInfo {
     public SystemInfo() {
     }
 
+    /**
+     * Convierte una hora "HH:mm" o "HH:mm:ss" en segundos del día sin crear objetos.
+     * Otros formatos ISO se delegan en LocalTime.parse.
+     *
+     * @param time hora en texto
+     * @return segundo del día
+     * @throws java.time.format.DateTimeParseException si la hora no es válida
+     */
+    public static int parseTimeOfDay(CharSequence time) {
+        int length = time.length();
+        if ((length == 5 || length == 8) && time.charAt(2) == ':' && (length == 5 || time.charAt(5) == ':')) {
+            int hours = twoDigits(time, 0);
+            int minutes = twoDigits(time, 3);
+            int seconds = length == 8 ? twoDigits(time, 6) : 0;
+            if (hours >= 0 && hours < 24 && minutes >= 0 && minutes < 60 && seconds >= 0 && seconds < 60) {
+                return hours * 3600 + minutes * 60 + seconds;
+            }
+        }
+        return LocalTime.parse(time).toSecondOfDay();
+    }
+
+    private static int twoDigits(CharSequence text, int offset) {
+        int high = Character.digit(text.charAt(offset), 10);
+        int low = Character.digit(text.charAt(offset + 1), 10);
+        return high < 0 || low < 0 ? -1 : high * 10 + low;
+    }
+
     public AvailableUpdates getAvailableUpdates() {
         return availableUpdates;
     }
@@ -75,27 +114,73 @@ public class SystemInfo {
     }
 
     public LocalTime getTime() {
-        return time;
+        return timeOfDay != NO_TIME ? LocalTime.ofSecondOfDay(timeOfDay) : null;
     }
 
     public void setTime(LocalTime time) {
-        this.time = time;
+        this.timeOfDay = time != null ? time.toSecondOfDay() : NO_TIME;
+    }
+
+    /**
+     * @return hora local del dispositivo en segundos del día, o {@link #NO_TIME}
+     */
+    public int getTimeOfDay() {
+        return timeOfDay;
+    }
+
+    public void setTimeOfDay(int timeOfDay) {
+        this.timeOfDay = timeOfDay;
     }
 
+    /**
+     * @return unixtime en la zona horaria configurada, o null si no hay marca de tiempo
+     */
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return unixtime != NO_UNIXTIME ? TimeSettings.current().toLocalDateTime(unixtime) : null;
     }
 
+    /**
+     * @param timestamp fecha en la zona horaria configurada, o null
+     */
     public void setTimestamp(LocalDateTime timestamp) {
-        this.timestamp = timestamp;
+        this.unixtime = timestamp != null ? TimeSettings.current().toEpochSecond(timestamp) : NO_UNIXTIME;
+    }
+
+    /**
+     * @return segundos desde la época, o {@link #NO_UNIXTIME}
+     */
+    public long getUnixtime() {
+        return unixtime;
+    }
+
+    public void setUnixtime(long unixtime) {
+        this.unixtime = unixtime;
+    }
+
+    /**
+     * @return unixtime con el formato de system.date_format, o null si no hay marca de tiempo
+     */
+    public String getFormattedTimestamp() {
+        return unixtime != NO_UNIXTIME ? TimeSettings.current().format(unixtime) : null;
     }
 
     public Duration getUptime() {
-        return uptime;
+        return uptimeSeconds != NO_UPTIME ? Duration.ofSeconds(uptimeSeconds) : null;
     }
 
     public void setUptime(Duration uptime) {
-        this.uptime = uptime;
+        this.uptimeSeconds = uptime != null ? uptime.getSeconds() : NO_UPTIME;
+    }
+
+    /**
+     * @return tiempo de actividad en segundos, o {@link #NO_UPTIME}
+     */
+    public long getUptimeSeconds() {
+        return uptimeSeconds;
+    }
+
+    public void setUptimeSeconds(long uptimeSeconds) {
+        this.uptimeSeconds = uptimeSeconds;
     }
 
     public int getRamSize() {
@@ -185,22 +270,22 @@ public class SystemInfo {
                     getScheduleRev() == that.getScheduleRev() &&
                     getWebhookRev() == that.getWebhookRev() &&
                     getResetReason() == that.getResetReason() &&
-                    getAvailableUpdates().equals(
-                            that.getAvailableUpdates()) && getMac().equals(that.getMac()) &&
-                            getTime().equals(that.getTime()) &&
-                    getTimestamp().equals(that.getTimestamp()) &&
-                    getUptime().equals(that.getUptime());
+                    Objects.equals(getAvailableUpdates(), that.getAvailableUpdates()) &&
+                    Objects.equals(getMac(), that.getMac()) &&
+                    getTimeOfDay() == that.getTimeOfDay() &&
+                    getUnixtime() == that.getUnixtime() &&
+                    getUptimeSeconds() == that.getUptimeSeconds();
         }
     }
 
     @Override
     public int hashCode() {
-        int result = getAvailableUpdates().hashCode();
-        result = 31 * result + getMac().hashCode();
+        int result = Objects.hashCode(getAvailableUpdates());
+        result = 31 * result + Objects.hashCode(getMac());
         result = 31 * result + Boolean.hashCode(isRestartRequired());
-        result = 31 * result + getTime().hashCode();
-        result = 31 * result + getTimestamp().hashCode();
-        result = 31 * result + getUptime().hashCode();
+        result = 31 * result + getTimeOfDay();
+        result = 31 * result + Long.hashCode(getUnixtime());
+        result = 31 * result + Long.hashCode(getUptimeSeconds());
         result = 31 * result + getRamSize();
         result = 31 * result + getRamFree();
         result = 31 * result + getFsSize();
@@ -218,9 +303,9 @@ public class SystemInfo {
         return "SystemInfo{" + "availableUpdates=" + availableUpdates +
                 ", mac='" + mac + '\'' +
                 ", restartRequired=" + restartRequired +
-                ", time=" + time +
-                ", timestamp=" + timestamp +
-                ", uptime=" + uptime +
+                ", time=" + getTime() +
+                ", unixtime=" + unixtime +
+                ", uptime=" + uptimeSeconds +
                 ", ramSize=" + ramSize +
                 ", ramFree=" + ramFree +
                 ", fsSize=" + fsSize +
@@ -232,4 +317,4 @@ public class SystemInfo {
                 ", resetReason=" + resetReason +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.bufigol.utils;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos que han cambiado en una muestra respecto a la anterior del mismo dispositivo,
+ * tal como los entrega {@link DeltaDetector}.
+ *
+ * Es compacto: los campos presentes se marcan en una máscara de bits y sus valores se
+ * guardan en arrays densos, en el orden de {@link SnapshotField}, sin mapas ni cajas.
+ */
+public final class ChangeSet {
+    private static final SnapshotField[] FIELDS = SnapshotField.values();
+    private static final String[] NO_TEXTS = new String[0];
+
+    static {
+        // La máscara es un único long: más de 64 campos harían que 1L << ordinal se solapase
+        if (FIELDS.length > Long.SIZE) {
+            throw new IllegalStateException("SnapshotField tiene " + FIELDS.length
+                    + " campos y la máscara de ChangeSet admite " + Long.SIZE);
+        }
+    }
+
+    private final String deviceId;
+    private final long unixtime;
+    private final boolean initial;
+    private final long mask;
+    private final double[] numbers;
+    private final String[] texts;
+
+    ChangeSet(String deviceId, long unixtime, boolean initial, long mask, double[] numbers, String[] texts) {
+        this.deviceId = deviceId;
+        this.unixtime = unixtime;
+        this.initial = initial;
+        this.mask = mask;
+        this.numbers = numbers;
+        this.texts = texts == null ? NO_TEXTS : texts;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * @return unixtime de la muestra, o {@link com.bufigol.modelo.principales.SystemInfo#NO_UNIXTIME}
+     */
+    public long getUnixtime() {
+        return unixtime;
+    }
+
+    /**
+     * @return true si es la primera muestra del dispositivo y contiene todos los campos seguidos
+     */
+    public boolean isInitial() {
+        return initial;
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    /**
+     * @return número de campos cambiados
+     */
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    public boolean contains(SnapshotField field) {
+        return (mask & bit(field)) != 0;
+    }
+
+    /**
+     * @return campos cambiados, en el orden de {@link SnapshotField}
+     */
+    public Set<SnapshotField> fields() {
+        EnumSet<SnapshotField> fields = EnumSet.noneOf(SnapshotField.class);
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            fields.add(FIELDS[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return fields;
+    }
+
+    /**
+     * @param field campo numérico
+     * @param defaultValue valor si el campo no ha cambiado
+     * @return nuevo valor del campo
+     */
+    public double getNumber(SnapshotField field, double defaultValue) {
+        if (!contains(field) || !field.isNumeric()) {
+            return defaultValue;
+        }
+        return numbers[rank(field, true)];
+    }
+
+    /**
+     * @param field campo de texto
+     * @return nuevo valor del campo, o null si no ha cambiado (o el nuevo valor es null)
+     */
+    public String getText(SnapshotField field) {
+        if (!contains(field) || field.isNumeric()) {
+            return null;
+        }
+        return texts[rank(field, false)];
+    }
+
+    long mask() {
+        return mask;
+    }
+
+    /**
+     * Posición del campo entre los cambiados de su mismo tipo.
+     */
+    private int rank(SnapshotField field, boolean numeric) {
+        int rank = 0;
+        for (long remaining = mask & (bit(field) - 1); remaining != 0; remaining &= remaining - 1) {
+            if (FIELDS[Long.numberOfTrailingZeros(remaining)].isNumeric() == numeric) {
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    static long bit(SnapshotField field) {
+        return 1L << field.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ChangeSet{").append(deviceId).append(", ").append(unixtime);
+        for (SnapshotField field : fields()) {
+            builder.append(", ").append(field).append('=');
+            if (field.isNumeric()) {
+                builder.append(getNumber(field, Double.NaN));
+            } else {
+                builder.append(getText(field));
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.bufigol.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map de solo lectura respaldado por una {@link ObjectShape} compartida. Guarda únicamente
+ * los valores: los números en un long[] sin caja y el resto en un Object[]. Se presenta
+ * como un Map&lt;String, Object&gt; normal; {@link #get(Object)} crea la caja del número al
+ * leerlo, mientras que {@link #getDouble(String, double)} y {@link #getLong(String, long)}
+ * lo devuelven sin crearla.
+ *
+ * Es lo que devuelve {@link JSONUtils#parseCompactResponse(String)} para los objetos JSON
+ * cuya forma se repite de una respuesta a otra.
+ */
+public final class CompactMap extends AbstractMap<String, Object> {
+    private final ObjectShape shape;
+    private final Object[] objects;
+    private final long[] primitives;
+
+    private CompactMap(ObjectShape shape, Object[] objects, long[] primitives) {
+        this.shape = shape;
+        this.objects = objects;
+        this.primitives = primitives;
+    }
+
+    /**
+     * @param values valores en el orden de las claves de la forma, del tipo que indica la forma
+     */
+    static CompactMap of(ObjectShape shape, Object[] values) {
+        Object[] objects = shape.objectSlots() > 0 ? new Object[shape.objectSlots()] : null;
+        long[] primitives = shape.primitiveSlots() > 0 ? new long[shape.primitiveSlots()] : null;
+        for (int i = 0; i < values.length; i++) {
+            int slot = shape.slot(i);
+            switch (shape.kind(i)) {
+                case ObjectShape.DOUBLE -> primitives[slot] = Double.doubleToRawLongBits((Double) values[i]);
+                case ObjectShape.LONG -> primitives[slot] = (Long) values[i];
+                default -> objects[slot] = values[i];
+            }
+        }
+        return new CompactMap(shape, objects, primitives);
+    }
+
+    @Override
+    public int size() {
+        return shape.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return shape.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = shape.indexOf(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    /**
+     * Obtiene un valor numérico sin crear su caja.
+     * @param key clave
+     * @param defaultValue valor si la clave no existe o no es numérica
+     * @return valor como double
+     */
+    public double getDouble(String key, double defaultValue) {
+        int index = shape.indexOf(key);
+        if (index < 0) {
+            return defaultValue;
+        }
+        long raw = primitiveOrNull(index);
+        return switch (shape.kind(index)) {
+            case ObjectShape.DOUBLE -> Double.longBitsToDouble(raw);
+            case ObjectShape.LONG -> raw;
+            default -> objects[shape.slot(index)] instanceof Number n ? n.doubleValue() : defaultValue;
+        };
+    }
+
+    /**
+     * Obtiene un valor numérico sin crear su caja.
+     * @param key clave
+     * @param defaultValue valor si la clave no existe o no es numérica
+     * @return valor como long
+     */
+    public long getLong(String key, long defaultValue) {
+        int index = shape.indexOf(key);
+        if (index < 0) {
+            return defaultValue;
+        }
+        long raw = primitiveOrNull(index);
+        return switch (shape.kind(index)) {
+            case ObjectShape.DOUBLE -> (long) Double.longBitsToDouble(raw);
+            case ObjectShape.LONG -> raw;
+            default -> objects[shape.slot(index)] instanceof Number n ? n.longValue() : defaultValue;
+        };
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < shape.size();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next >= shape.size()) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(shape.key(index), valueAt(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return shape.size();
+            }
+        };
+    }
+
+    private long primitiveOrNull(int index) {
+        return shape.kind(index) == ObjectShape.OBJECT ? 0 : primitives[shape.slot(index)];
+    }
+
+    private Object valueAt(int index) {
+        int slot = shape.slot(index);
+        return switch (shape.kind(index)) {
+            case ObjectShape.DOUBLE -> Double.longBitsToDouble(primitives[slot]);
+            case ObjectShape.LONG -> primitives[slot];
+            default -> objects[slot];
+        };
+    }
+}
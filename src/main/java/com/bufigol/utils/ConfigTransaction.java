@@ -0,0 +1,89 @@
+package com.bufigol.utils;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Conjunto de cambios sobre el archivo de configuración que se aplican en memoria y
+ * se escriben de una sola vez al terminar {@link JSONUtils#edit(java.util.function.Consumer)}.
+ *
+ * Solo es válida dentro de la llamada a edit: en ese tiempo el archivo está bloqueado
+ * frente a otros escritores, de este proceso o de otros.
+ */
+public final class ConfigTransaction {
+    private final Map<String, Object> values;
+    private boolean modified;
+    private boolean closed;
+
+    ConfigTransaction(Map<String, Object> values) {
+        this.values = values;
+    }
+
+    /**
+     * Obtiene el valor actual de una propiedad, incluidos los cambios de esta transacción.
+     * @param name nombre de la propiedad
+     * @return valor, o null si no existe
+     */
+    public Object get(String name) {
+        checkOpen();
+        return values.get(name);
+    }
+
+    /**
+     * @param name nombre de la propiedad
+     * @return true si la propiedad existe
+     */
+    public boolean has(String name) {
+        checkOpen();
+        return values.containsKey(name);
+    }
+
+    /**
+     * Establece el valor de una propiedad. Se admiten String, Number, Boolean, Map, List y null.
+     * @param name nombre de la propiedad
+     * @param value nuevo valor
+     * @return esta transacción, para encadenar cambios
+     */
+    public ConfigTransaction set(String name, Object value) {
+        checkOpen();
+        Objects.requireNonNull(name, "name");
+        if (!values.containsKey(name) || !Objects.equals(values.get(name), value)) {
+            values.put(name, value);
+            modified = true;
+        }
+        return this;
+    }
+
+    /**
+     * Elimina una propiedad.
+     * @param name nombre de la propiedad
+     * @return true si la propiedad existía
+     */
+    public boolean remove(String name) {
+        checkOpen();
+        if (!values.containsKey(name)) {
+            return false;
+        }
+        values.remove(name);
+        modified = true;
+        return true;
+    }
+
+    boolean isModified() {
+        return modified;
+    }
+
+    Map<String, Object> values() {
+        return values;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("La transacción ya ha terminado");
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.bufigol.utils;
 
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+
 public class ConversorTemperatura {
     // Métod o para convertir Celsius a Fahrenheit
     public static double celsiusAFahrenheit(double celsius) {
@@ -10,4 +13,123 @@ public class ConversorTemperatura {
     public static double fahrenheitACelsius(double fahrenheit) {
         return (fahrenheit - 32) * 5/9;
     }
+
+    /**
+     * Convierte en bloque todos los valores de {@code in}. Los bucles son simples para que
+     * el JIT los vectorice, y cada resultado es idéntico al de la conversión de un valor.
+     * {@code in} y {@code out} pueden ser el mismo array para convertir en su sitio.
+     *
+     * @param in temperaturas en Celsius
+     * @param out destino, de al menos la misma longitud
+     * @throws IllegalArgumentException si {@code out} es más corto que {@code in}
+     */
+    public static void celsiusAFahrenheit(double[] in, double[] out) {
+        celsiusAFahrenheit(in, 0, out, 0, in.length);
+    }
+
+    /**
+     * @param in temperaturas en Fahrenheit
+     * @param out destino, de al menos la misma longitud
+     * @see #celsiusAFahrenheit(double[], double[])
+     */
+    public static void fahrenheitACelsius(double[] in, double[] out) {
+        fahrenheitACelsius(in, 0, out, 0, in.length);
+    }
+
+    /**
+     * Convierte {@code length} valores de {@code in} a partir de {@code inOffset} y los escribe
+     * en {@code out} a partir de {@code outOffset}. Como en System.arraycopy, los rangos
+     * pueden solaparse dentro del mismo array: el resultado es el mismo que si se leyeran
+     * todos los valores antes de escribir.
+     *
+     * @param in temperaturas en Celsius
+     * @param inOffset primera posición que se lee
+     * @param out destino
+     * @param outOffset primera posición que se escribe
+     * @param length número de valores
+     * @throws IllegalArgumentException si algún rango se sale de su array
+     */
+    public static void celsiusAFahrenheit(double[] in, int inOffset, double[] out, int outOffset, int length) {
+        checkRange(in, inOffset, out, outOffset, length);
+        if (in == out && outOffset > inOffset && outOffset < inOffset + length) {
+            // El destino pisa la entrada aún no leída: se recorre desde el final
+            for (int i = length - 1; i >= 0; i--) {
+                out[outOffset + i] = (in[inOffset + i] * 9/5) + 32;
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = (in[inOffset + i] * 9/5) + 32;
+        }
+    }
+
+    /**
+     * @param in temperaturas en Fahrenheit
+     * @see #celsiusAFahrenheit(double[], int, double[], int, int)
+     */
+    public static void fahrenheitACelsius(double[] in, int inOffset, double[] out, int outOffset, int length) {
+        checkRange(in, inOffset, out, outOffset, length);
+        if (in == out && outOffset > inOffset && outOffset < inOffset + length) {
+            for (int i = length - 1; i >= 0; i--) {
+                out[outOffset + i] = (in[inOffset + i] - 32) * 5/9;
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = (in[inOffset + i] - 32) * 5/9;
+        }
+    }
+
+    /**
+     * Convierte los valores restantes de {@code in} y los escribe en {@code out}, avanzando
+     * la posición de ambos como haría {@link DoubleBuffer#put(DoubleBuffer)}. Si los dos
+     * buffers tienen array accesible se usa la conversión de arrays, que admite vistas
+     * solapadas del mismo array. Con buffers directos, {@code in} y {@code out} solo pueden
+     * compartir memoria si son exactamente la misma región (conversión en su sitio).
+     *
+     * @throws BufferOverflowException si no cabe en {@code out}
+     */
+    public static void celsiusAFahrenheit(DoubleBuffer in, DoubleBuffer out) {
+        convert(in, out, true);
+    }
+
+    /**
+     * @see #celsiusAFahrenheit(DoubleBuffer, DoubleBuffer)
+     */
+    public static void fahrenheitACelsius(DoubleBuffer in, DoubleBuffer out) {
+        convert(in, out, false);
+    }
+
+    private static void convert(DoubleBuffer in, DoubleBuffer out, boolean toFahrenheit) {
+        int length = in.remaining();
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (in.hasArray() && out.hasArray()) {
+            double[] source = in.array();
+            int sourceOffset = in.arrayOffset() + in.position();
+            double[] target = out.array();
+            int targetOffset = out.arrayOffset() + out.position();
+            if (toFahrenheit) {
+                celsiusAFahrenheit(source, sourceOffset, target, targetOffset, length);
+            } else {
+                fahrenheitACelsius(source, sourceOffset, target, targetOffset, length);
+            }
+            in.position(in.position() + length);
+            out.position(out.position() + length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                double value = in.get();
+                out.put(toFahrenheit ? celsiusAFahrenheit(value) : fahrenheitACelsius(value));
+            }
+        }
+    }
+
+    private static void checkRange(double[] in, int inOffset, double[] out, int outOffset, int length) {
+        if (length < 0 || inOffset < 0 || outOffset < 0
+                || inOffset > in.length - length || outOffset > out.length - length) {
+            throw new IllegalArgumentException("Rango no válido: " + length + " valores desde " + inOffset
+                    + " (de " + in.length + ") hacia " + outOffset + " (de " + out.length + ")");
+        }
+    }
 }
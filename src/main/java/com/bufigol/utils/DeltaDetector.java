@@ -0,0 +1,201 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.principales.DeviceSnapshot;
+import com.bufigol.modelo.principales.DeviceStatus;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecta qué campos de un dispositivo han cambiado entre muestras consecutivas y los
+ * entrega como un {@link ChangeSet}, para que quien persiste o publica los datos solo
+ * procese lo que se ha movido.
+ *
+ * Cada campo numérico tiene una tolerancia: el cambio solo se notifica si la diferencia
+ * supera ese valor, por ejemplo 0.5 V para ignorar el ruido de la tensión. La referencia
+ * es el último valor notificado, no la muestra anterior, de modo que una deriva lenta
+ * acaba notificándose aunque cada paso quede por debajo de la tolerancia. Los campos de
+ * texto se comparan por igualdad.
+ *
+ * Por defecto la tolerancia es 0 (cualquier cambio cuenta), salvo la hora, el unixtime y
+ * el uptime, que cambian en cada muestra y se ignoran; el unixtime de la muestra va
+ * siempre en el ChangeSet. Es seguro para varios hilos.
+ */
+public class DeltaDetector {
+    /** Tolerancia que hace que un campo no se notifique nunca salvo en la primera muestra. */
+    public static final double IGNORE = Double.POSITIVE_INFINITY;
+
+    private static final SnapshotField[] FIELDS = SnapshotField.values();
+
+    private final double[] tolerances;
+    private final Map<String, Baseline> baselines;
+
+    public DeltaDetector() {
+        this.tolerances = new double[FIELDS.length];
+        this.baselines = new ConcurrentHashMap<>();
+        tolerances[SnapshotField.TIME_OF_DAY.ordinal()] = IGNORE;
+        tolerances[SnapshotField.UNIXTIME.ordinal()] = IGNORE;
+        tolerances[SnapshotField.UPTIME.ordinal()] = IGNORE;
+    }
+
+    /**
+     * Establece la tolerancia de un campo numérico.
+     *
+     * @param field campo numérico
+     * @param tolerance diferencia absoluta que no se considera cambio, o {@link #IGNORE}
+     * @return este detector, para encadenar llamadas
+     * @throws IllegalArgumentException si el campo es de texto o la tolerancia es negativa o NaN
+     */
+    public DeltaDetector setTolerance(SnapshotField field, double tolerance) {
+        if (!field.isNumeric()) {
+            throw new IllegalArgumentException("El campo " + field + " no es numérico");
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerancia no válida para " + field + ": " + tolerance);
+        }
+        synchronized (tolerances) {
+            tolerances[field.ordinal()] = tolerance;
+        }
+        return this;
+    }
+
+    public double getTolerance(SnapshotField field) {
+        synchronized (tolerances) {
+            return tolerances[field.ordinal()];
+        }
+    }
+
+    /**
+     * Compara la muestra con la referencia del dispositivo y la actualiza con los campos notificados.
+     *
+     * @param deviceId identificador del dispositivo
+     * @param sample nueva muestra
+     * @return campos cambiados; en la primera muestra del dispositivo, todos
+     */
+    public ChangeSet detect(String deviceId, DeviceSnapshot sample) {
+        Objects.requireNonNull(deviceId, "deviceId");
+        Objects.requireNonNull(sample, "sample");
+        double[] limits;
+        synchronized (tolerances) {
+            limits = tolerances.clone();
+        }
+        ChangeSet[] result = new ChangeSet[1];
+        baselines.compute(deviceId, (id, baseline) -> {
+            if (baseline == null) {
+                baseline = new Baseline(sample);
+                result[0] = baseline.full(id, sample.unixtime());
+            } else {
+                result[0] = baseline.update(id, sample, limits);
+            }
+            return baseline;
+        });
+        return result[0];
+    }
+
+    /**
+     * @see #detect(String, DeviceSnapshot)
+     */
+    public ChangeSet detect(String deviceId, DeviceStatus sample) {
+        return detect(deviceId, DeviceSnapshot.from(sample));
+    }
+
+    /**
+     * Olvida la referencia de un dispositivo: su siguiente muestra se tratará como la primera.
+     */
+    public void reset(String deviceId) {
+        baselines.remove(deviceId);
+    }
+
+    public void resetAll() {
+        baselines.clear();
+    }
+
+    /**
+     * @return número de dispositivos con referencia
+     */
+    public int size() {
+        return baselines.size();
+    }
+
+    /**
+     * Últimos valores notificados de un dispositivo. Solo se usa dentro de compute,
+     * así que el mapa serializa el acceso por dispositivo.
+     */
+    private static final class Baseline {
+        private final double[] numbers = new double[FIELDS.length];
+        private final String[] texts = new String[FIELDS.length];
+
+        Baseline(DeviceSnapshot sample) {
+            for (SnapshotField field : FIELDS) {
+                if (field.isNumeric()) {
+                    numbers[field.ordinal()] = field.number(sample);
+                } else {
+                    texts[field.ordinal()] = field.text(sample);
+                }
+            }
+        }
+
+        ChangeSet full(String deviceId, long unixtime) {
+            long mask = 0;
+            int numberCount = 0;
+            int textCount = 0;
+            double[] changedNumbers = new double[FIELDS.length];
+            String[] changedTexts = new String[FIELDS.length];
+            for (SnapshotField field : FIELDS) {
+                mask |= ChangeSet.bit(field);
+                if (field.isNumeric()) {
+                    changedNumbers[numberCount++] = numbers[field.ordinal()];
+                } else {
+                    changedTexts[textCount++] = texts[field.ordinal()];
+                }
+            }
+            return new ChangeSet(deviceId, unixtime, true, mask,
+                    Arrays.copyOf(changedNumbers, numberCount), Arrays.copyOf(changedTexts, textCount));
+        }
+
+        ChangeSet update(String deviceId, DeviceSnapshot sample, double[] limits) {
+            long mask = 0;
+            int numberCount = 0;
+            int textCount = 0;
+            double[] changedNumbers = null;
+            String[] changedTexts = null;
+            for (SnapshotField field : FIELDS) {
+                int i = field.ordinal();
+                if (field.isNumeric()) {
+                    double value = field.number(sample);
+                    if (moved(numbers[i], value, limits[i])) {
+                        if (changedNumbers == null) {
+                            changedNumbers = new double[FIELDS.length];
+                        }
+                        changedNumbers[numberCount++] = value;
+                        numbers[i] = value;
+                        mask |= ChangeSet.bit(field);
+                    }
+                } else {
+                    String value = field.text(sample);
+                    if (!Objects.equals(texts[i], value)) {
+                        if (changedTexts == null) {
+                            changedTexts = new String[FIELDS.length];
+                        }
+                        changedTexts[textCount++] = value;
+                        texts[i] = value;
+                        mask |= ChangeSet.bit(field);
+                    }
+                }
+            }
+            return new ChangeSet(deviceId, sample.unixtime(), false, mask,
+                    changedNumbers == null ? null : Arrays.copyOf(changedNumbers, numberCount),
+                    changedTexts == null ? null : Arrays.copyOf(changedTexts, textCount));
+        }
+
+        private static boolean moved(double reference, double value, double tolerance) {
+            if (Double.isNaN(reference) || Double.isNaN(value)) {
+                return Double.isNaN(reference) != Double.isNaN(value);
+            }
+            // Se usa > para que con tolerancia 0 cuente cualquier diferencia y con IGNORE ninguna
+            return Math.abs(value - reference) > tolerance;
+        }
+    }
+}
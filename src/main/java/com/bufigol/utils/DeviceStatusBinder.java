@@ -0,0 +1,604 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.AvailableUpdates;
+import com.bufigol.modelo.auxiliares.CloudStatus;
+import com.bufigol.modelo.auxiliares.Fase;
+import com.bufigol.modelo.auxiliares.StableVersion;
+import com.bufigol.modelo.auxiliares.Temperature;
+import com.bufigol.modelo.auxiliares.WifiStatus;
+import com.bufigol.modelo.principales.DeviceData;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.modelo.principales.EnergyMeter;
+import com.bufigol.modelo.principales.EnergyMeterData;
+import com.bufigol.modelo.principales.ShellyResponse;
+import com.bufigol.modelo.principales.SystemInfo;
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+import jakarta.json.stream.JsonParsingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enlaza JSON de Shelly directamente con el modelo tipado a partir de los eventos de
+ * JsonParser, sin construir el árbol JsonObject ni los Map intermedios de JSONUtils.
+ * Los campos desconocidos se saltan sin materializarlos.
+ *
+ * Produce el mismo resultado que {@link DeviceStatusMapper} para los campos que ambos
+ * conocen: los ausentes conservan los valores por defecto del modelo.
+ */
+public final class DeviceStatusBinder {
+
+    private DeviceStatusBinder() {
+    }
+
+    /**
+     * Lee una respuesta de /device/status de Shelly Cloud.
+     * @param stream flujo con el JSON; se cierra al terminar
+     * @return ShellyResponse con data.online y data.device_status
+     * @throws JsonParsingException si el JSON no es válido
+     * @throws UncheckedIOException si falla la lectura del flujo
+     */
+    public static ShellyResponse readResponse(InputStream stream) {
+        return readResponse(stream, new ShellyResponse(false, new DeviceData()));
+    }
+
+    /**
+     * Lee una respuesta de /device/status reutilizando el grafo de target: los objetos
+     * anidados existentes se reinician y se rellenan en su sitio, y solo se crean los que
+     * faltan. El resultado es igual al de {@link #readResponse(InputStream)}.
+     *
+     * Si se lanza una excepción, target queda a medio rellenar y no debe usarse.
+     *
+     * @param stream flujo con el JSON; se cierra al terminar
+     * @param target respuesta a rellenar
+     * @return target
+     * @throws JsonParsingException si el JSON no es válido
+     * @throws UncheckedIOException si falla la lectura del flujo
+     */
+    public static ShellyResponse readResponse(InputStream stream, ShellyResponse target) {
+        try (JsonParser parser = Json.createParser(stream)) {
+            expectObject(parser, parser.next());
+            DeviceData data = target.getData() != null ? target.getData() : new DeviceData(false, null);
+            DeviceStatus recycled = data.getDeviceStatus();
+            target.setIsok(false);
+            target.setData(data);
+            data.setOnline(false);
+            boolean hasData = false;
+            while (parser.next() == Event.KEY_NAME) {
+                String key = parser.getString();
+                Event event = parser.next();
+                switch (key) {
+                    case "isok" -> target.setIsok(event == Event.VALUE_TRUE);
+                    case "data" -> {
+                        expectObject(parser, event);
+                        hasData = true;
+                        readData(parser, data, recycled);
+                    }
+                    default -> skip(parser, event);
+                }
+            }
+            if (!hasData) {
+                // Sin data el resultado es un DeviceData nuevo, con su estado por defecto
+                data.setDeviceStatus(resetStatus(recycled));
+            }
+            return target;
+        } catch (JsonParsingException e) {
+            throw e;
+        } catch (JsonException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    /**
+     * Lee un objeto de estado, como el devuelto por Shelly.GetStatus de un dispositivo Gen2.
+     * @param stream flujo con el JSON; se cierra al terminar
+     * @return DeviceStatus poblado
+     * @throws JsonParsingException si el JSON no es válido
+     * @throws UncheckedIOException si falla la lectura del flujo
+     */
+    public static DeviceStatus readStatus(InputStream stream) {
+        return readStatus(stream, new DeviceStatus());
+    }
+
+    /**
+     * Lee un objeto de estado reutilizando el grafo de target, con las mismas reglas que
+     * {@link #readResponse(InputStream, ShellyResponse)}.
+     * @param stream flujo con el JSON; se cierra al terminar
+     * @param target estado a rellenar
+     * @return target
+     * @throws JsonParsingException si el JSON no es válido
+     * @throws UncheckedIOException si falla la lectura del flujo
+     */
+    public static DeviceStatus readStatus(InputStream stream, DeviceStatus target) {
+        try (JsonParser parser = Json.createParser(stream)) {
+            expectObject(parser, parser.next());
+            readDeviceStatus(parser, target);
+            return target;
+        } catch (JsonParsingException e) {
+            throw e;
+        } catch (JsonException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    private static void readData(JsonParser parser, DeviceData data, DeviceStatus recycled) {
+        // Si data no trae device_status, DeviceStatusMapper y el parser dejan el estado por defecto
+        DeviceStatus status = null;
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            switch (key) {
+                case "online" -> data.setOnline(event == Event.VALUE_TRUE);
+                case DeviceStatusMapper.DEVICE_STATUS -> {
+                    expectObject(parser, event);
+                    status = recycled != null ? recycled : new DeviceStatus();
+                    readDeviceStatus(parser, status);
+                }
+                default -> skip(parser, event);
+            }
+        }
+        data.setDeviceStatus(status != null ? status : resetStatus(recycled));
+    }
+
+    /**
+     * Lee los campos de un objeto de estado cuyo START_OBJECT ya se ha consumido.
+     * Las secciones ausentes quedan como en un DeviceStatus recién creado.
+     */
+    private static void readDeviceStatus(JsonParser parser, DeviceStatus status) {
+        status.setCode("");
+        status.setUpdated("");
+        status.setId("");
+        boolean em = false;
+        boolean emdata = false;
+        boolean sys = false;
+        boolean wifi = false;
+        boolean cloud = false;
+        boolean temperature = false;
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            switch (key) {
+                case "code" -> status.setCode(string(parser, event, ""));
+                case "updated" -> status.setUpdated(string(parser, event, ""));
+                case "id" -> status.setId(string(parser, event, ""));
+                case "em:0" -> {
+                    if (isObject(parser, event)) {
+                        status.setEm0(readEnergyMeter(parser, status.getEm0()));
+                        em = true;
+                    }
+                }
+                case "emdata:0" -> {
+                    if (isObject(parser, event)) {
+                        status.setEmdata0(readEnergyMeterData(parser, resetEnergyMeterData(status.getEmdata0())));
+                        emdata = true;
+                    }
+                }
+                case "sys" -> {
+                    if (isObject(parser, event)) {
+                        status.setSys(readSystemInfo(parser, status.getSys()));
+                        sys = true;
+                    }
+                }
+                case "wifi" -> {
+                    if (isObject(parser, event)) {
+                        status.setWifi(readWifi(parser, resetWifi(status.getWifi())));
+                        wifi = true;
+                    }
+                }
+                case "cloud" -> {
+                    if (isObject(parser, event)) {
+                        status.setCloud(readCloud(parser, resetCloud(status.getCloud())));
+                        cloud = true;
+                    }
+                }
+                case "temperature:0" -> {
+                    if (isObject(parser, event)) {
+                        status.setTemperature0(readTemperature(parser, resetTemperature(status.getTemperature0())));
+                        temperature = true;
+                    }
+                }
+                default -> skip(parser, event);
+            }
+        }
+        if (!em) {
+            status.setEm0(resetEnergyMeter(status.getEm0()));
+        }
+        if (!emdata) {
+            status.setEmdata0(resetEnergyMeterData(status.getEmdata0()));
+        }
+        if (!sys) {
+            status.setSys(resetSystemInfo(status.getSys()));
+        }
+        if (!wifi) {
+            status.setWifi(resetWifi(status.getWifi()));
+        }
+        if (!cloud) {
+            status.setCloud(resetCloud(status.getCloud()));
+        }
+        if (!temperature) {
+            status.setTemperature0(resetTemperature(status.getTemperature0()));
+        }
+    }
+
+    /**
+     * Deja un estado reciclado igual que un DeviceStatus recién creado.
+     */
+    private static DeviceStatus resetStatus(DeviceStatus status) {
+        if (status == null) {
+            return new DeviceStatus();
+        }
+        status.setCode("");
+        status.setUpdated("");
+        status.setId("");
+        status.setEm0(resetEnergyMeter(status.getEm0()));
+        status.setEmdata0(resetEnergyMeterData(status.getEmdata0()));
+        status.setSys(resetSystemInfo(status.getSys()));
+        status.setWifi(resetWifi(status.getWifi()));
+        status.setCloud(resetCloud(status.getCloud()));
+        status.setTemperature0(resetTemperature(status.getTemperature0()));
+        return status;
+    }
+
+    private static EnergyMeter resetEnergyMeter(EnergyMeter em) {
+        if (em == null) {
+            return new EnergyMeter();
+        }
+        em.setId(0);
+        em.setFaseA(null);
+        em.setFaseB(null);
+        em.setFaseC(null);
+        em.setTotalActPower(0);
+        em.setTotalAprtPower(0);
+        em.setTotalCurrent(0);
+        em.setUserCalibratedPhase(null);
+        return em;
+    }
+
+    /**
+     * Lee em:0 reutilizando las fases y la lista de la lectura anterior cuando existen.
+     */
+    private static EnergyMeter readEnergyMeter(JsonParser parser, EnergyMeter recycled) {
+        EnergyMeter em = recycled != null ? recycled : new EnergyMeter();
+        Fase a = resetFase(em.getFaseA());
+        Fase b = resetFase(em.getFaseB());
+        Fase c = resetFase(em.getFaseC());
+        List<String> calibrated = em.getUserCalibratedPhase() instanceof ArrayList<String> list
+                ? list : new ArrayList<>();
+        calibrated.clear();
+        resetEnergyMeter(em);
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            switch (key) {
+                case "id" -> em.setId((int) number(parser, event));
+                case "total_act_power" -> em.setTotalActPower(number(parser, event));
+                case "total_aprt_power" -> em.setTotalAprtPower(number(parser, event));
+                case "total_current" -> em.setTotalCurrent(number(parser, event));
+                case "user_calibrated_phase" -> readStrings(parser, event, calibrated);
+                default -> {
+                    Fase fase = key.startsWith("a_") ? a : key.startsWith("b_") ? b : key.startsWith("c_") ? c : null;
+                    if (fase == null || !readFaseField(fase, key.substring(2), parser, event)) {
+                        skip(parser, event);
+                    }
+                }
+            }
+        }
+        em.setFaseA(a);
+        em.setFaseB(b);
+        em.setFaseC(c);
+        em.setUserCalibratedPhase(calibrated);
+        return em;
+    }
+
+    private static Fase resetFase(Fase fase) {
+        if (fase == null) {
+            return new Fase();
+        }
+        fase.setActPower(0);
+        fase.setAprtPower(0);
+        fase.setCurrent(0);
+        fase.setFreq(0);
+        fase.setPf(0);
+        fase.setVoltage(0);
+        return fase;
+    }
+
+    private static boolean readFaseField(Fase fase, String field, JsonParser parser, Event event) {
+        switch (field) {
+            case "act_power" -> fase.setActPower(number(parser, event));
+            case "aprt_power" -> fase.setAprtPower(number(parser, event));
+            case "current" -> fase.setCurrent(number(parser, event));
+            case "freq" -> fase.setFreq(number(parser, event));
+            case "pf" -> fase.setPf(number(parser, event));
+            case "voltage" -> fase.setVoltage(number(parser, event));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static EnergyMeterData resetEnergyMeterData(EnergyMeterData emdata) {
+        if (emdata == null) {
+            return new EnergyMeterData();
+        }
+        emdata.setId(0);
+        emdata.setaTotalActEnergy(0);
+        emdata.setaTotalActRetEnergy(0);
+        emdata.setbTotalActEnergy(0);
+        emdata.setbTotalActRetEnergy(0);
+        emdata.setcTotalActEnergy(0);
+        emdata.setcTotalActRetEnergy(0);
+        emdata.setTotalAct(0);
+        emdata.setTotalActRet(0);
+        return emdata;
+    }
+
+    private static EnergyMeterData readEnergyMeterData(JsonParser parser, EnergyMeterData emdata) {
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            switch (key) {
+                case "id" -> emdata.setId((int) number(parser, event));
+                case "a_total_act_energy" -> emdata.setaTotalActEnergy(number(parser, event));
+                case "a_total_act_ret_energy" -> emdata.setaTotalActRetEnergy(number(parser, event));
+                case "b_total_act_energy" -> emdata.setbTotalActEnergy(number(parser, event));
+                case "b_total_act_ret_energy" -> emdata.setbTotalActRetEnergy(number(parser, event));
+                case "c_total_act_energy" -> emdata.setcTotalActEnergy(number(parser, event));
+                case "c_total_act_ret_energy" -> emdata.setcTotalActRetEnergy(number(parser, event));
+                case "total_act" -> emdata.setTotalAct(number(parser, event));
+                case "total_act_ret" -> emdata.setTotalActRet(number(parser, event));
+                default -> skip(parser, event);
+            }
+        }
+        return emdata;
+    }
+
+    private static SystemInfo resetSystemInfo(SystemInfo info) {
+        if (info == null) {
+            return new SystemInfo();
+        }
+        info.setAvailableUpdates(null);
+        info.setMac(null);
+        info.setRestartRequired(false);
+        info.setTimeOfDay(SystemInfo.NO_TIME);
+        info.setUnixtime(SystemInfo.NO_UNIXTIME);
+        info.setUptimeSeconds(SystemInfo.NO_UPTIME);
+        info.setRamSize(0);
+        info.setRamFree(0);
+        info.setFsSize(0);
+        info.setFsFree(0);
+        info.setCfgRev(0);
+        info.setKvsRev(0);
+        info.setScheduleRev(0);
+        info.setWebhookRev(0);
+        info.setResetReason(0);
+        return info;
+    }
+
+    /**
+     * Lee sys reutilizando available_updates de la lectura anterior cuando existe.
+     */
+    private static SystemInfo readSystemInfo(JsonParser parser, SystemInfo recycled) {
+        SystemInfo info = recycled != null ? recycled : new SystemInfo();
+        AvailableUpdates updates = info.getAvailableUpdates();
+        resetSystemInfo(info);
+        info.setMac("");
+        info.setUptimeSeconds(0);
+        String stableVersion = null;
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            switch (key) {
+                case "mac" -> info.setMac(string(parser, event, ""));
+                case "restart_required" -> info.setRestartRequired(event == Event.VALUE_TRUE);
+                case "time" -> {
+                    String time = string(parser, event, null);
+                    if (time != null) {
+                        info.setTimeOfDay(SystemInfo.parseTimeOfDay(time));
+                    }
+                }
+                case "unixtime" -> {
+                    if (event == Event.VALUE_NUMBER) {
+                        info.setUnixtime(parser.getLong());
+                    }
+                }
+                case "uptime" -> info.setUptimeSeconds((long) number(parser, event));
+                case "ram_size" -> info.setRamSize((int) number(parser, event));
+                case "ram_free" -> info.setRamFree((int) number(parser, event));
+                case "fs_size" -> info.setFsSize((int) number(parser, event));
+                case "fs_free" -> info.setFsFree((int) number(parser, event));
+                case "cfg_rev" -> info.setCfgRev((int) number(parser, event));
+                case "kvs_rev" -> info.setKvsRev((int) number(parser, event));
+                case "schedule_rev" -> info.setScheduleRev((int) number(parser, event));
+                case "webhook_rev" -> info.setWebhookRev((int) number(parser, event));
+                case "reset_reason" -> info.setResetReason((int) number(parser, event));
+                case "available_updates" -> {
+                    if (isObject(parser, event)) {
+                        stableVersion = readStableVersion(parser);
+                    }
+                }
+                default -> skip(parser, event);
+            }
+        }
+        if (updates != null && updates.getStable() != null) {
+            updates.getStable().setVersion(stableVersion);
+        } else {
+            updates = new AvailableUpdates(new StableVersion(stableVersion));
+        }
+        info.setAvailableUpdates(updates);
+        return info;
+    }
+
+    /**
+     * Lee available_updates y devuelve stable.version, o null si no existe.
+     */
+    private static String readStableVersion(JsonParser parser) {
+        String version = null;
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            if ("stable".equals(key) && isObject(parser, event)) {
+                while (parser.next() == Event.KEY_NAME) {
+                    String field = parser.getString();
+                    Event value = parser.next();
+                    if ("version".equals(field)) {
+                        version = string(parser, value, null);
+                    } else {
+                        skip(parser, value);
+                    }
+                }
+            } else {
+                skip(parser, event);
+            }
+        }
+        return version;
+    }
+
+    private static WifiStatus resetWifi(WifiStatus wifi) {
+        if (wifi == null) {
+            return new WifiStatus();
+        }
+        wifi.setStaIp(null);
+        wifi.setStatus(null);
+        wifi.setSsid(null);
+        wifi.setRssi(0);
+        return wifi;
+    }
+
+    private static WifiStatus readWifi(JsonParser parser, WifiStatus wifi) {
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            switch (key) {
+                case "sta_ip" -> wifi.setStaIp(string(parser, event, null));
+                case "status" -> wifi.setStatus(string(parser, event, null));
+                case "ssid" -> wifi.setSsid(string(parser, event, null));
+                case "rssi" -> wifi.setRssi((int) number(parser, event));
+                default -> skip(parser, event);
+            }
+        }
+        return wifi;
+    }
+
+    private static CloudStatus resetCloud(CloudStatus cloud) {
+        if (cloud == null) {
+            return new CloudStatus();
+        }
+        cloud.setConnected(false);
+        return cloud;
+    }
+
+    private static CloudStatus readCloud(JsonParser parser, CloudStatus cloud) {
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            if ("connected".equals(key)) {
+                cloud.setConnected(event == Event.VALUE_TRUE);
+            } else {
+                skip(parser, event);
+            }
+        }
+        return cloud;
+    }
+
+    private static Temperature resetTemperature(Temperature temperature) {
+        if (temperature == null) {
+            return new Temperature();
+        }
+        temperature.setId(0);
+        temperature.setTemperatures(0, 0);
+        return temperature;
+    }
+
+    private static Temperature readTemperature(JsonParser parser, Temperature temperature) {
+        double tC = 0;
+        double tF = 0;
+        while (parser.next() == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = parser.next();
+            switch (key) {
+                case "id" -> temperature.setId((int) number(parser, event));
+                case "tC" -> tC = number(parser, event);
+                case "tF" -> tF = number(parser, event);
+                default -> skip(parser, event);
+            }
+        }
+        // settC y settF recalculan la otra escala; se respetan los dos valores recibidos
+        temperature.setTemperatures(tC, tF);
+        return temperature;
+    }
+
+    private static void readStrings(JsonParser parser, Event event, List<String> target) {
+        if (event != Event.START_ARRAY) {
+            skip(parser, event);
+            return;
+        }
+        Event item;
+        while ((item = parser.next()) != Event.END_ARRAY) {
+            if (item == Event.VALUE_STRING || item == Event.VALUE_NUMBER) {
+                target.add(parser.getString());
+            } else {
+                skip(parser, item);
+            }
+        }
+    }
+
+    private static double number(JsonParser parser, Event event) {
+        if (event != Event.VALUE_NUMBER) {
+            skip(parser, event);
+            return 0;
+        }
+        return parser.isIntegralNumber() ? parser.getLong() : parser.getBigDecimal().doubleValue();
+    }
+
+    private static String string(JsonParser parser, Event event, String defaultValue) {
+        return switch (event) {
+            case VALUE_STRING, VALUE_NUMBER -> parser.getString();
+            case VALUE_TRUE -> "true";
+            case VALUE_FALSE -> "false";
+            default -> {
+                skip(parser, event);
+                yield defaultValue;
+            }
+        };
+    }
+
+    private static boolean isObject(JsonParser parser, Event event) {
+        if (event == Event.START_OBJECT) {
+            return true;
+        }
+        skip(parser, event);
+        return false;
+    }
+
+    private static void expectObject(JsonParser parser, Event event) {
+        if (event != Event.START_OBJECT) {
+            throw new JsonParsingException("Se esperaba un objeto JSON y se encontró " + event, parser.getLocation());
+        }
+    }
+
+    /**
+     * Salta el valor que empieza en el evento indicado sin materializarlo.
+     */
+    private static void skip(JsonParser parser, Event event) {
+        if (event == Event.START_OBJECT) {
+            parser.skipObject();
+        } else if (event == Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+
+    private static UncheckedIOException ioFailure(JsonException e) {
+        if (e.getCause() instanceof IOException ioException) {
+            return new UncheckedIOException(ioException);
+        }
+        throw e;
+    }
+}
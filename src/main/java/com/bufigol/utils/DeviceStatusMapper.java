@@ -0,0 +1,154 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.AvailableUpdates;
+import com.bufigol.modelo.auxiliares.CloudStatus;
+import com.bufigol.modelo.auxiliares.Fase;
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.modelo.auxiliares.StableVersion;
+import com.bufigol.modelo.auxiliares.Temperature;
+import com.bufigol.modelo.auxiliares.WifiStatus;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.modelo.principales.EnergyMeter;
+import com.bufigol.modelo.principales.EnergyMeterData;
+import com.bufigol.modelo.principales.SystemInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Convierte el Map genérico producido por JSONUtils (sección device_status de la
+ * respuesta de Shelly Cloud, o el resultado de Shelly.GetStatus de un dispositivo Gen2)
+ * en el modelo tipado DeviceStatus.
+ */
+public final class DeviceStatusMapper {
+    public static final String DEVICE_STATUS = "device_status";
+
+    private DeviceStatusMapper() {
+    }
+
+    /**
+     * Extrae el DeviceStatus de una respuesta de la API.
+     * @param response respuesta con data.device_status
+     * @return DeviceStatus, o null si la respuesta no contiene estado del dispositivo
+     */
+    @SuppressWarnings("unchecked")
+    public static DeviceStatus fromResponse(JSONResponse response) {
+        if (response == null || response.getData() == null) {
+            return null;
+        }
+        Object status = response.getData().get(DEVICE_STATUS);
+        return status instanceof Map ? fromMap((Map<String, Object>) status) : null;
+    }
+
+    /**
+     * Convierte un mapa de estado del dispositivo en DeviceStatus.
+     * Los campos ausentes conservan los valores por defecto del modelo.
+     * @param status mapa con las secciones em:0, emdata:0, sys, wifi, cloud y temperature:0
+     * @return DeviceStatus poblado
+     */
+    public static DeviceStatus fromMap(Map<String, Object> status) {
+        DeviceStatus deviceStatus = new DeviceStatus();
+        deviceStatus.setCode(string(status, "code", ""));
+        deviceStatus.setUpdated(string(status, "updated", ""));
+        deviceStatus.setId(string(status, "id", ""));
+
+        Map<String, Object> em = map(status, "em:0");
+        if (em != null) {
+            deviceStatus.setEm0(toEnergyMeter(em));
+        }
+        Map<String, Object> emdata = map(status, "emdata:0");
+        if (emdata != null) {
+            deviceStatus.setEmdata0(toEnergyMeterData(emdata));
+        }
+        Map<String, Object> sys = map(status, "sys");
+        if (sys != null) {
+            deviceStatus.setSys(toSystemInfo(sys));
+        }
+        Map<String, Object> wifi = map(status, "wifi");
+        if (wifi != null) {
+            deviceStatus.setWifi(new WifiStatus(string(wifi, "sta_ip", null), string(wifi, "status", null),
+                    string(wifi, "ssid", null), (int) number(wifi, "rssi")));
+        }
+        Map<String, Object> cloud = map(status, "cloud");
+        if (cloud != null) {
+            deviceStatus.setCloud(new CloudStatus(Boolean.TRUE.equals(cloud.get("connected"))));
+        }
+        Map<String, Object> temperature = map(status, "temperature:0");
+        if (temperature != null) {
+            deviceStatus.setTemperature0(new Temperature((int) number(temperature, "id"),
+                    number(temperature, "tC"), number(temperature, "tF")));
+        }
+        return deviceStatus;
+    }
+
+    private static EnergyMeter toEnergyMeter(Map<String, Object> em) {
+        List<String> calibrated = new ArrayList<>();
+        if (em.get("user_calibrated_phase") instanceof List<?> phases) {
+            for (Object phase : phases) {
+                calibrated.add(String.valueOf(phase));
+            }
+        }
+        return new EnergyMeter((int) number(em, "id"), toFase(em, "a_"), toFase(em, "b_"), toFase(em, "c_"),
+                number(em, "total_act_power"), number(em, "total_aprt_power"), number(em, "total_current"),
+                calibrated);
+    }
+
+    private static Fase toFase(Map<String, Object> em, String prefix) {
+        return new Fase(number(em, prefix + "act_power"), number(em, prefix + "aprt_power"),
+                number(em, prefix + "current"), number(em, prefix + "freq"), number(em, prefix + "pf"),
+                number(em, prefix + "voltage"));
+    }
+
+    private static EnergyMeterData toEnergyMeterData(Map<String, Object> emdata) {
+        return new EnergyMeterData((int) number(emdata, "id"),
+                number(emdata, "a_total_act_energy"), number(emdata, "a_total_act_ret_energy"),
+                number(emdata, "b_total_act_energy"), number(emdata, "b_total_act_ret_energy"),
+                number(emdata, "c_total_act_energy"), number(emdata, "c_total_act_ret_energy"),
+                number(emdata, "total_act"), number(emdata, "total_act_ret"));
+    }
+
+    private static SystemInfo toSystemInfo(Map<String, Object> sys) {
+        SystemInfo info = new SystemInfo();
+        Map<String, Object> updates = map(sys, "available_updates");
+        Map<String, Object> stable = updates != null ? map(updates, "stable") : null;
+        info.setAvailableUpdates(new AvailableUpdates(
+                new StableVersion(stable != null ? string(stable, "version", null) : null)));
+        info.setMac(string(sys, "mac", ""));
+        info.setRestartRequired(Boolean.TRUE.equals(sys.get("restart_required")));
+        String time = string(sys, "time", null);
+        if (time != null) {
+            info.setTimeOfDay(SystemInfo.parseTimeOfDay(time));
+        }
+        if (sys.get("unixtime") instanceof Number unixtime) {
+            info.setUnixtime(unixtime.longValue());
+        }
+        info.setUptimeSeconds((long) number(sys, "uptime"));
+        info.setRamSize((int) number(sys, "ram_size"));
+        info.setRamFree((int) number(sys, "ram_free"));
+        info.setFsSize((int) number(sys, "fs_size"));
+        info.setFsFree((int) number(sys, "fs_free"));
+        info.setCfgRev((int) number(sys, "cfg_rev"));
+        info.setKvsRev((int) number(sys, "kvs_rev"));
+        info.setScheduleRev((int) number(sys, "schedule_rev"));
+        info.setWebhookRev((int) number(sys, "webhook_rev"));
+        info.setResetReason((int) number(sys, "reset_reason"));
+        return info;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Map<String, Object> source, String key) {
+        Object value = source.get(key);
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    private static String string(Map<String, Object> source, String key, String defaultValue) {
+        Object value = source.get(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    private static double number(Map<String, Object> source, String key) {
+        Object value = source.get(key);
+        return value instanceof Number n ? n.doubleValue() : 0;
+    }
+}
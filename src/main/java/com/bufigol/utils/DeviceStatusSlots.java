@@ -0,0 +1,99 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.principales.DeviceData;
+import com.bufigol.modelo.principales.ShellyResponse;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Modo de reciclado opcional para el sondeo periódico de una flota fija: cada dispositivo
+ * tiene una ranura con un ShellyResponse que {@link DeviceStatusBinder} reinicia y rellena
+ * en su sitio en cada lectura, en lugar de crear un grafo nuevo. Tras la primera lectura,
+ * solo se crean los Strings y las fechas que trae la respuesta.
+ *
+ * Reglas de propiedad:
+ * <ul>
+ *   <li>El objeto devuelto pertenece a la ranura y solo es válido hasta la siguiente
+ *       lectura del mismo dispositivo. Quien necesite conservarlo debe copiarlo antes,
+ *       por ejemplo con {@link com.bufigol.modelo.principales.DeviceSnapshot#from}.</li>
+ *   <li>Las lecturas del mismo dispositivo se serializan: una segunda lectura concurrente
+ *       espera a que termine la anterior en lugar de mezclar datos, por ejemplo cuando la
+ *       llamada anterior se canceló mientras su cuerpo aún se estaba parseando.</li>
+ *   <li>Si una lectura falla, la ranura se descarta y la siguiente parte de cero.</li>
+ * </ul>
+ */
+public final class DeviceStatusSlots {
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Lee una respuesta de /device/status en la ranura del dispositivo.
+     *
+     * @param deviceId ID del dispositivo
+     * @param stream flujo con el JSON; se cierra al terminar
+     * @return la respuesta de la ranura, rellenada con los nuevos datos
+     * @throws jakarta.json.stream.JsonParsingException si el JSON no es válido
+     * @throws java.io.UncheckedIOException si falla la lectura del flujo
+     */
+    public ShellyResponse readResponse(String deviceId, InputStream stream) {
+        Slot slot = slots.computeIfAbsent(deviceId, id -> new Slot());
+        slot.lock.lock();
+        boolean completed = false;
+        try {
+            DeviceStatusBinder.readResponse(stream, slot.response);
+            completed = true;
+            return slot.response;
+        } finally {
+            if (!completed) {
+                slots.remove(deviceId, slot);
+            }
+            slot.lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve el objeto que el llamador guarda en la ranura del dispositivo, creándolo la
+     * primera vez a partir del lector de la ranura. Permite que quien hace las peticiones,
+     * como el BodyHandler de ShellyAPIService, cree sus objetos una sola vez por dispositivo
+     * en lugar de en cada lectura.
+     *
+     * @param deviceId ID del dispositivo
+     * @param factory crea el objeto a partir de una función equivalente a {@link #readResponse}
+     * @param <H> tipo del objeto guardado; debe ser siempre el mismo para unas mismas ranuras
+     * @return objeto guardado en la ranura
+     */
+    @SuppressWarnings("unchecked")
+    public <H> H attachment(String deviceId, Function<Function<InputStream, ShellyResponse>, H> factory) {
+        Slot slot = slots.computeIfAbsent(deviceId, id -> new Slot());
+        Object attachment = slot.attachment;
+        if (attachment == null) {
+            attachment = factory.apply(stream -> readResponse(deviceId, stream));
+            slot.attachment = attachment;
+        }
+        return (H) attachment;
+    }
+
+    /**
+     * Libera la ranura de un dispositivo que ya no se sondea.
+     * @param deviceId ID del dispositivo
+     */
+    public void release(String deviceId) {
+        slots.remove(deviceId);
+    }
+
+    /**
+     * @return número de dispositivos con ranura
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    private static final class Slot {
+        private final ShellyResponse response = new ShellyResponse(false, new DeviceData());
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Object attachment;
+    }
+}
@@ -0,0 +1,256 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.AvailableUpdates;
+import com.bufigol.modelo.auxiliares.CloudStatus;
+import com.bufigol.modelo.auxiliares.Fase;
+import com.bufigol.modelo.auxiliares.Temperature;
+import com.bufigol.modelo.auxiliares.WifiStatus;
+import com.bufigol.modelo.principales.DeviceData;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.modelo.principales.EnergyMeter;
+import com.bufigol.modelo.principales.EnergyMeterData;
+import com.bufigol.modelo.principales.ShellyResponse;
+import com.bufigol.modelo.principales.SystemInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Serializa el modelo tipado al mismo JSON que envía Shelly, de modo que
+ * {@link DeviceStatusBinder} y {@link DeviceStatusMapper} pueden leerlo de nuevo.
+ *
+ * Escribe en streaming sobre un buffer de bytes por hilo que se reutiliza entre llamadas,
+ * sin construir JsonObject ni Strings intermedios, y formatea los double sin asignar
+ * memoria (ver {@link JsonByteWriter}). Los objetos o campos de texto null se omiten.
+ */
+public final class DeviceStatusWriter {
+    private static final int INITIAL_CAPACITY = 2048;
+    /** Los buffers que crezcan por encima de este tamaño no se conservan entre llamadas */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+    private static final ThreadLocal<JsonByteWriter> WRITERS =
+            ThreadLocal.withInitial(() -> new JsonByteWriter(INITIAL_CAPACITY));
+    /** Claves de em:0 por fase, precalculadas para no concatenar Strings en cada muestra */
+    private static final String[][] FASE_KEYS = faseKeys("a_", "b_", "c_");
+
+    private DeviceStatusWriter() {
+    }
+
+    /**
+     * Escribe un objeto de estado, con la forma de Shelly.GetStatus.
+     * @param status estado del dispositivo
+     * @param out flujo de destino; no se cierra
+     * @throws IOException si falla la escritura
+     */
+    public static void write(DeviceStatus status, OutputStream out) throws IOException {
+        JsonByteWriter writer = acquire();
+        try {
+            writeStatus(writer, status);
+            writer.writeTo(out);
+        } finally {
+            release(writer);
+        }
+    }
+
+    /**
+     * Escribe un objeto de estado en un ByteBuffer, a partir de su posición actual.
+     * @param status estado del dispositivo
+     * @param target buffer de destino
+     * @throws java.nio.BufferOverflowException si el JSON no cabe en el espacio restante
+     */
+    public static void write(DeviceStatus status, ByteBuffer target) {
+        JsonByteWriter writer = acquire();
+        try {
+            writeStatus(writer, status);
+            writer.writeTo(target);
+        } finally {
+            release(writer);
+        }
+    }
+
+    /**
+     * Escribe una respuesta completa de /device/status de Shelly Cloud.
+     * @param response respuesta tipada
+     * @param out flujo de destino; no se cierra
+     * @throws IOException si falla la escritura
+     */
+    public static void write(ShellyResponse response, OutputStream out) throws IOException {
+        JsonByteWriter writer = acquire();
+        try {
+            writer.beginObject().name("isok").value(response.isIsok());
+            DeviceData data = response.getData();
+            if (data != null) {
+                writer.name("data").beginObject().name("online").value(data.isOnline());
+                if (data.getDeviceStatus() != null) {
+                    writer.name(DeviceStatusMapper.DEVICE_STATUS);
+                    writeStatus(writer, data.getDeviceStatus());
+                }
+                writer.endObject();
+            }
+            writer.endObject();
+            writer.writeTo(out);
+        } finally {
+            release(writer);
+        }
+    }
+
+    /**
+     * @param status estado del dispositivo
+     * @return JSON en UTF-8
+     */
+    public static byte[] toBytes(DeviceStatus status) {
+        JsonByteWriter writer = acquire();
+        try {
+            writeStatus(writer, status);
+            return writer.toByteArray();
+        } finally {
+            release(writer);
+        }
+    }
+
+    private static String[][] faseKeys(String... prefixes) {
+        String[] fields = {"current", "voltage", "act_power", "aprt_power", "pf", "freq"};
+        String[][] keys = new String[prefixes.length][fields.length];
+        for (int i = 0; i < prefixes.length; i++) {
+            for (int j = 0; j < fields.length; j++) {
+                keys[i][j] = prefixes[i] + fields[j];
+            }
+        }
+        return keys;
+    }
+
+    private static JsonByteWriter acquire() {
+        JsonByteWriter writer = WRITERS.get();
+        writer.reset();
+        return writer;
+    }
+
+    private static void release(JsonByteWriter writer) {
+        if (writer.capacity() > MAX_RETAINED_CAPACITY) {
+            WRITERS.remove();
+        }
+    }
+
+    private static void writeStatus(JsonByteWriter writer, DeviceStatus status) {
+        writer.beginObject();
+        writeString(writer, "code", status.getCode());
+        writeString(writer, "updated", status.getUpdated());
+        writeString(writer, "id", status.getId());
+        if (status.getEm0() != null) {
+            writeEnergyMeter(writer.name("em:0"), status.getEm0());
+        }
+        if (status.getEmdata0() != null) {
+            writeEnergyMeterData(writer.name("emdata:0"), status.getEmdata0());
+        }
+        if (status.getSys() != null) {
+            writeSystemInfo(writer.name("sys"), status.getSys());
+        }
+        if (status.getWifi() != null) {
+            writeWifi(writer.name("wifi"), status.getWifi());
+        }
+        CloudStatus cloud = status.getCloud();
+        if (cloud != null) {
+            writer.name("cloud").beginObject().name("connected").value(cloud.isConnected()).endObject();
+        }
+        Temperature temperature = status.getTemperature0();
+        if (temperature != null) {
+            writer.name("temperature:0").beginObject()
+                    .name("id").value(temperature.getId())
+                    .name("tC").value(temperature.gettC())
+                    .name("tF").value(temperature.gettF())
+                    .endObject();
+        }
+        writer.endObject();
+    }
+
+    private static void writeEnergyMeter(JsonByteWriter writer, EnergyMeter em) {
+        writer.beginObject().name("id").value(em.getId());
+        writeFase(writer, FASE_KEYS[0], em.getFaseA());
+        writeFase(writer, FASE_KEYS[1], em.getFaseB());
+        writeFase(writer, FASE_KEYS[2], em.getFaseC());
+        writer.name("total_current").value(em.getTotalCurrent())
+                .name("total_act_power").value(em.getTotalActPower())
+                .name("total_aprt_power").value(em.getTotalAprtPower());
+        if (em.getUserCalibratedPhase() != null) {
+            writer.name("user_calibrated_phase").beginArray();
+            for (String phase : em.getUserCalibratedPhase()) {
+                writer.value(phase);
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    private static void writeFase(JsonByteWriter writer, String[] keys, Fase fase) {
+        if (fase == null) {
+            return;
+        }
+        writer.name(keys[0]).value(fase.getCurrent())
+                .name(keys[1]).value(fase.getVoltage())
+                .name(keys[2]).value(fase.getActPower())
+                .name(keys[3]).value(fase.getAprtPower())
+                .name(keys[4]).value(fase.getPf())
+                .name(keys[5]).value(fase.getFreq());
+    }
+
+    private static void writeEnergyMeterData(JsonByteWriter writer, EnergyMeterData emdata) {
+        writer.beginObject()
+                .name("id").value(emdata.getId())
+                .name("a_total_act_energy").value(emdata.getaTotalActEnergy())
+                .name("a_total_act_ret_energy").value(emdata.getaTotalActRetEnergy())
+                .name("b_total_act_energy").value(emdata.getbTotalActEnergy())
+                .name("b_total_act_ret_energy").value(emdata.getbTotalActRetEnergy())
+                .name("c_total_act_energy").value(emdata.getcTotalActEnergy())
+                .name("c_total_act_ret_energy").value(emdata.getcTotalActRetEnergy())
+                .name("total_act").value(emdata.getTotalAct())
+                .name("total_act_ret").value(emdata.getTotalActRet())
+                .endObject();
+    }
+
+    private static void writeSystemInfo(JsonByteWriter writer, SystemInfo sys) {
+        writer.beginObject();
+        writeString(writer, "mac", sys.getMac());
+        writer.name("restart_required").value(sys.isRestartRequired());
+        int time = sys.getTimeOfDay();
+        if (time != SystemInfo.NO_TIME) {
+            writer.name("time").timeValue(time / 3600, time / 60 % 60, time % 60);
+        }
+        if (sys.getUnixtime() != SystemInfo.NO_UNIXTIME) {
+            writer.name("unixtime").value(sys.getUnixtime());
+        }
+        if (sys.getUptimeSeconds() != SystemInfo.NO_UPTIME) {
+            writer.name("uptime").value(sys.getUptimeSeconds());
+        }
+        writer.name("ram_size").value(sys.getRamSize())
+                .name("ram_free").value(sys.getRamFree())
+                .name("fs_size").value(sys.getFsSize())
+                .name("fs_free").value(sys.getFsFree())
+                .name("cfg_rev").value(sys.getCfgRev())
+                .name("kvs_rev").value(sys.getKvsRev())
+                .name("schedule_rev").value(sys.getScheduleRev())
+                .name("webhook_rev").value(sys.getWebhookRev());
+        AvailableUpdates updates = sys.getAvailableUpdates();
+        if (updates != null && updates.getStable() != null && updates.getStable().getVersion() != null) {
+            writer.name("available_updates").beginObject()
+                    .name("stable").beginObject().name("version").value(updates.getStable().getVersion()).endObject()
+                    .endObject();
+        }
+        writer.name("reset_reason").value(sys.getResetReason());
+        writer.endObject();
+    }
+
+    private static void writeWifi(JsonByteWriter writer, WifiStatus wifi) {
+        writer.beginObject();
+        writeString(writer, "sta_ip", wifi.getStaIp());
+        writeString(writer, "status", wifi.getStatus());
+        writeString(writer, "ssid", wifi.getSsid());
+        writer.name("rssi").value(wifi.getRssi());
+        writer.endObject();
+    }
+
+    private static void writeString(JsonByteWriter writer, String name, String value) {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+}
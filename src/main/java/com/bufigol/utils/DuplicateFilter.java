@@ -0,0 +1,48 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.principales.DeviceSnapshot;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Descarta las muestras repetidas de un dispositivo comparando la huella de cada
+ * {@link DeviceSnapshot} con la de la última muestra aceptada, en O(1) y sin recorrer
+ * el contenido. Sirve, por ejemplo, para no persistir dos veces la misma respuesta
+ * cacheada de Shelly Cloud. Es seguro para varios hilos.
+ */
+public class DuplicateFilter {
+    private final Map<String, Long> lastFingerprints = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param deviceId identificador del dispositivo
+     * @param snapshot nueva muestra
+     * @return true si la muestra es nueva y debe procesarse; false si repite la anterior
+     */
+    public boolean accept(String deviceId, DeviceSnapshot snapshot) {
+        Objects.requireNonNull(deviceId, "deviceId");
+        Long previous = lastFingerprints.put(deviceId, snapshot.fingerprint());
+        if (previous != null && previous == snapshot.fingerprint()) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Olvida la última muestra de un dispositivo.
+     */
+    public void reset(String deviceId) {
+        lastFingerprints.remove(deviceId);
+    }
+
+    /**
+     * @return número de muestras descartadas por repetidas
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
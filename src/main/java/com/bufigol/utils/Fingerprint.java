@@ -0,0 +1,133 @@
+package com.bufigol.utils;
+
+/**
+ * Huella de 64 bits, estable entre ejecuciones y versiones de la JVM, calculada con
+ * XXH64 sobre la forma canónica de una secuencia de valores.
+ *
+ * Cada valor se convierte en una o varias palabras de 8 bytes (little-endian): los
+ * enteros y booleanos como long, los double con {@link Double#doubleToLongBits(double)}
+ * (todos los NaN son iguales) y los String como su longitud seguida de sus caracteres,
+ * cuatro por palabra; null se codifica como longitud -1. El resultado coincide con XXH64
+ * de esa secuencia de bytes. No es una función criptográfica: sirve para detectar
+ * duplicados, no para resistir colisiones buscadas.
+ */
+public final class Fingerprint {
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private final long seed;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    private final long[] pending = new long[4];
+    private int pendingCount;
+    private long totalLength;
+
+    public Fingerprint() {
+        this(0);
+    }
+
+    public Fingerprint(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    /**
+     * Vuelve al estado inicial para reutilizar el objeto.
+     * @return este objeto
+     */
+    public Fingerprint reset() {
+        v1 = seed + PRIME1 + PRIME2;
+        v2 = seed + PRIME2;
+        v3 = seed;
+        v4 = seed - PRIME1;
+        pendingCount = 0;
+        totalLength = 0;
+        return this;
+    }
+
+    public Fingerprint add(long value) {
+        pending[pendingCount++] = value;
+        totalLength += Long.BYTES;
+        if (pendingCount == pending.length) {
+            v1 = round(v1, pending[0]);
+            v2 = round(v2, pending[1]);
+            v3 = round(v3, pending[2]);
+            v4 = round(v4, pending[3]);
+            pendingCount = 0;
+        }
+        return this;
+    }
+
+    public Fingerprint add(int value) {
+        return add((long) value);
+    }
+
+    public Fingerprint add(boolean value) {
+        return add(value ? 1L : 0L);
+    }
+
+    public Fingerprint add(double value) {
+        return add(Double.doubleToLongBits(value));
+    }
+
+    public Fingerprint add(CharSequence value) {
+        if (value == null) {
+            return add(-1L);
+        }
+        int length = value.length();
+        add((long) length);
+        for (int i = 0; i < length; i += 4) {
+            long word = 0;
+            for (int j = 0; j < 4 && i + j < length; j++) {
+                word |= (long) value.charAt(i + j) << (16 * j);
+            }
+            add(word);
+        }
+        return this;
+    }
+
+    /**
+     * Calcula la huella de los valores añadidos hasta ahora, sin modificar el estado.
+     * @return huella de 64 bits
+     */
+    public long value() {
+        long hash;
+        if (totalLength >= 32) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+                    + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME5;
+        }
+        hash += totalLength;
+        for (int i = 0; i < pendingCount; i++) {
+            hash ^= round(0, pending[i]);
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+        }
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME1 + PRIME4;
+    }
+}
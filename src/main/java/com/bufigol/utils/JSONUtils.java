@@ -6,19 +6,39 @@ import com.bufigol.modelo.auxiliares.JSONResponse;
 import jakarta.json.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class JSONUtils implements INT_JSONUtils {
 
     private static JSONUtils instance;
     private final Path configPath;
     private static final String DEFAULT_CONFIG_PATH = "config/config.json";
+    private final AtomicLong configDiskReads = new AtomicLong();
+    private volatile ConfigSnapshot configSnapshot;
+    private final ReentrantLock editLock = new ReentrantLock();
+    private final ObjectShape.Registry shapes = new ObjectShape.Registry(MAX_SHAPES);
+    private static final int MAX_SHAPES = 4096;
 
     private JSONUtils(String configPath) {
         this.configPath = Paths.get(configPath).normalize();
@@ -48,29 +68,71 @@ public class JSONUtils implements INT_JSONUtils {
     }
 
     public JSONResponse parseResponse(String jsonString) {
-        try (JsonReader jsonReader = Json.createReader(new StringReader(jsonString))) {
-            JsonObject jsonObject = jsonReader.readObject();
-            JSONResponse jsonResponse = new JSONResponse();
+        return parseResponse(jsonString, false);
+    }
 
-            jsonResponse.setIsok(jsonObject.getBoolean("isok", false));
+    @Override
+    public JSONResponse parseResponse(InputStream jsonStream) {
+        return parseResponse(jsonStream, false);
+    }
 
-            if (jsonObject.containsKey("data")) {
-                JsonValue dataValue = jsonObject.get("data");
-                Map<String, Object> dataMap = convertJsonValueToMap(dataValue);
-                jsonResponse.setData(dataMap);
-            } else {
-                jsonResponse.setData(new HashMap<>());
-            }
+    @Override
+    public JSONResponse parseCompactResponse(String jsonString) {
+        return parseResponse(jsonString, true);
+    }
+
+    @Override
+    public JSONResponse parseCompactResponse(InputStream jsonStream) {
+        return parseResponse(jsonStream, true);
+    }
+
+    private JSONResponse parseResponse(String jsonString, boolean compact) {
+        try (JsonReader jsonReader = Json.createReader(new StringReader(jsonString))) {
+            return toResponse(jsonReader.readObject(), compact);
+        } catch (Exception e) {
+            return parseErrorResponse(e);
+        }
+    }
 
-            return jsonResponse;
+    private JSONResponse parseResponse(InputStream jsonStream, boolean compact) {
+        try (JsonReader jsonReader = Json.createReader(jsonStream)) {
+            return toResponse(jsonReader.readObject(), compact);
+        } catch (JsonException e) {
+            // Un fallo de lectura no es un JSON inválido: se propaga para que pueda reintentarse
+            if (e.getCause() instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            return parseErrorResponse(e);
         } catch (Exception e) {
-            JSONResponse errorResponse = new JSONResponse();
-            errorResponse.setIsok(false);
-            Map<String, Object> errorData = new HashMap<>();
-            errorData.put("error", "Error parsing JSON response: " + e.getMessage());
-            errorResponse.setData(errorData);
-            return errorResponse;
+            return parseErrorResponse(e);
+        }
+    }
+
+    private JSONResponse toResponse(JsonObject jsonObject, boolean compact) {
+        JSONResponse jsonResponse = new JSONResponse();
+
+        jsonResponse.setIsok(jsonObject.getBoolean("isok", false));
+
+        if (jsonObject.containsKey("data")) {
+            JsonValue dataValue = jsonObject.get("data");
+            Map<String, Object> dataMap = compact && dataValue.getValueType() == JsonValue.ValueType.OBJECT
+                    ? toCompactMap(dataValue.asJsonObject())
+                    : convertJsonValueToMap(dataValue);
+            jsonResponse.setData(dataMap);
+        } else {
+            jsonResponse.setData(new HashMap<>());
         }
+
+        return jsonResponse;
+    }
+
+    private static JSONResponse parseErrorResponse(Exception e) {
+        JSONResponse errorResponse = new JSONResponse();
+        errorResponse.setIsok(false);
+        Map<String, Object> errorData = new HashMap<>();
+        errorData.put("error", "Error parsing JSON response: " + e.getMessage());
+        errorResponse.setData(errorData);
+        return errorResponse;
     }
 
     @Override
@@ -102,6 +164,58 @@ public class JSONUtils implements INT_JSONUtils {
         return result;
     }
 
+    /**
+     * Convierte un objeto JSON en un Map de solo lectura que comparte las claves con los
+     * demás objetos de la misma forma (mismas claves, en el mismo orden, y mismos tipos
+     * numéricos). Los objetos anidados se convierten igual. Si la forma no se admite
+     * (demasiadas claves o registro lleno) se usa un HashMap, también de solo lectura.
+     */
+    @Override
+    public Map<String, Object> toCompactMap(JsonObject object) {
+        int size = object.size();
+        String[] keys = new String[size];
+        byte[] kinds = new byte[size];
+        Object[] values = new Object[size];
+        int i = 0;
+        for (Map.Entry<String, JsonValue> entry : object.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i] = toCompactValue(entry.getValue());
+            kinds[i] = ObjectShape.kindOf(values[i]);
+            i++;
+        }
+        ObjectShape shape = shapes.shapeFor(keys, kinds);
+        if (shape != null) {
+            return CompactMap.of(shape, values);
+        }
+        Map<String, Object> result = new HashMap<>(size * 2);
+        for (int j = 0; j < size; j++) {
+            result.put(keys[j], values[j]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return número de formas de objeto distintas aprendidas por {@link #toCompactMap(JsonObject)}
+     */
+    public int getShapeCount() {
+        return shapes.size();
+    }
+
+    private Object toCompactValue(JsonValue value) {
+        return switch (value.getValueType()) {
+            case OBJECT -> toCompactMap(value.asJsonObject());
+            case ARRAY -> {
+                JsonArray array = value.asJsonArray();
+                List<Object> list = new ArrayList<>(array.size());
+                for (JsonValue item : array) {
+                    list.add(toCompactValue(item));
+                }
+                yield Collections.unmodifiableList(list);
+            }
+            default -> convertJsonValueToJavaObject(value);
+        };
+    }
+
     @Override
     public Object convertJsonValueToJavaObject(JsonValue value) {
         if (value == null || value.getValueType() == JsonValue.ValueType.NULL) {
@@ -154,8 +268,7 @@ public class JSONUtils implements INT_JSONUtils {
     @Override
     public String readConfigValue(String propertyName, String defaultValue) {
         try {
-            Map<String, Object> config = readConfigFile(this.configPath.toString());
-            Object value = config.get(propertyName);
+            Object value = currentConfig().get(propertyName);
             return value != null ? value.toString() : defaultValue;
         } catch (Exception e) {
             return defaultValue;
@@ -164,15 +277,44 @@ public class JSONUtils implements INT_JSONUtils {
 
     @Override
     public void saveConfigValue(String propertyName, String value) {
-        Map<String, Object> config;
+        // Como antes, si el archivo no se puede leer se empieza con una configuración vacía
+        edit(tx -> tx.set(propertyName, value), true);
+    }
+
+    @Override
+    public boolean edit(Consumer<ConfigTransaction> changes) {
+        return edit(changes, false);
+    }
+
+    private boolean edit(Consumer<ConfigTransaction> changes, boolean resetIfUnreadable) {
+        editLock.lock();
         try {
-            config = readConfigFile(this.configPath.toString());
-        } catch (Exception e) {
-            config = new HashMap<>();
+            createParentDirectories(configPath);
+            // FileLock protege frente a otros procesos; editLock, frente a otros hilos de este
+            try (FileChannel lockChannel = FileChannel.open(lockPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                FileLock fileLock = lockChannel.lock();
+                try {
+                    ConfigTransaction tx = new ConfigTransaction(loadForEdit(resetIfUnreadable));
+                    try {
+                        changes.accept(tx);
+                    } finally {
+                        tx.close();
+                    }
+                    if (!tx.isModified()) {
+                        return false;
+                    }
+                    writeAtomically(configPath, tx.values());
+                    return true;
+                } finally {
+                    fileLock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("Error saving config file: " + e.getMessage(), e);
+        } finally {
+            editLock.unlock();
         }
-
-        config.put(propertyName, value);
-        saveConfigFile(config, this.configPath.toString());
     }
 
     @Override
@@ -180,19 +322,114 @@ public class JSONUtils implements INT_JSONUtils {
         try {
             Path path = Paths.get(filePath).normalize();
             createParentDirectories(path);
+            writeAtomically(path, config);
+        } catch (IOException e) {
+            throw new ConfigurationException("Error saving config file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee el archivo de configuración propio directamente del disco, sin pasar por la
+     * instantánea, para que la transacción parta siempre del contenido más reciente.
+     */
+    private Map<String, Object> loadForEdit(boolean resetIfUnreadable) {
+        if (!Files.exists(configPath)) {
+            return new HashMap<>();
+        }
+        try {
+            configDiskReads.incrementAndGet();
+            return new HashMap<>(readConfigFile(configPath.toString()));
+        } catch (RuntimeException e) {
+            if (resetIfUnreadable) {
+                return new HashMap<>();
+            }
+            throw new ConfigurationException("El archivo de configuración no es válido: " + configPath, e);
+        }
+    }
+
+    /**
+     * Escribe la configuración en un archivo temporal del mismo directorio, lo sincroniza
+     * con el disco y lo renombra sobre el destino. Los lectores ven siempre el archivo
+     * anterior completo o el nuevo completo, nunca uno a medio escribir.
+     */
+    private void writeAtomically(Path path, Map<String, Object> config) throws IOException {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        for (Map.Entry<String, Object> entry : config.entrySet()) {
+            addValueToBuilder(builder, entry.getKey(), entry.getValue());
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (JsonWriter jsonWriter = Json.createWriter(content)) {
+            jsonWriter.writeObject(builder.build());
+        }
 
-            try (JsonWriter jsonWriter = Json.createWriter(Files.newBufferedWriter(path))) {
-                JsonObjectBuilder builder = Json.createObjectBuilder();
-                for (Map.Entry<String, Object> entry : config.entrySet()) {
-                    addValueToBuilder(builder, entry.getKey(), entry.getValue());
+        Path directory = path.toAbsolutePath().getParent();
+        Path temp = createTempSibling(directory, path.getFileName().toString());
+        try {
+            copyPermissions(path, temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
                 }
-                jsonWriter.writeObject(builder.build());
+                channel.force(true);
             }
-        } catch (IOException e) {
-            throw new ConfigurationException("Error saving config file: " + e.getMessage(), e);
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        syncDirectory(directory);
+        if (path.equals(configPath)) {
+            configSnapshot = null;
+        }
+    }
+
+    /**
+     * Crea el temporal con los permisos por defecto del proceso (umask), como haría una
+     * escritura normal, y no con los 0600 de Files.createTempFile.
+     */
+    private static Path createTempSibling(Path directory, String name) throws IOException {
+        while (true) {
+            String suffix = Long.toUnsignedString(ThreadLocalRandom.current().nextLong());
+            Path temp = directory.resolve(name + "." + suffix + ".tmp");
+            try {
+                return Files.createFile(temp);
+            } catch (FileAlreadyExistsException ignored) {
+                // Colisión improbable de nombres: se prueba con otro
+            }
+        }
+    }
+
+    /**
+     * Copia los permisos POSIX del archivo actual al temporal para que el renombrado no
+     * los cambie. En sistemas sin vista POSIX o si el destino aún no existe no hace nada.
+     */
+    private static void copyPermissions(Path target, Path temp) throws IOException {
+        if (Files.exists(target)
+                && target.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
         }
     }
 
+    /**
+     * Sincroniza el directorio para que el renombrado sobreviva a un corte de corriente.
+     * No todos los sistemas permiten abrir un directorio, así que es un mejor esfuerzo.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // Sin soporte en esta plataforma: el archivo ya está sincronizado
+        }
+    }
+
+    private Path lockPath() {
+        return configPath.resolveSibling(configPath.getFileName() + ".lock");
+    }
+
     private void addValueToBuilder(JsonObjectBuilder builder, String key, Object value) {
         if (value == null) {
             builder.addNull(key);
@@ -256,8 +493,7 @@ public class JSONUtils implements INT_JSONUtils {
     @Override
     public boolean hasProperty(String propertyName) {
         try {
-            Map<String, Object> config = readConfigFile(this.configPath.toString());
-            return config.containsKey(propertyName);
+            return currentConfig().containsKey(propertyName);
         } catch (Exception e) {
             return false;
         }
@@ -266,12 +502,7 @@ public class JSONUtils implements INT_JSONUtils {
     @Override
     public boolean removeProperty(String propertyName) {
         try {
-            Map<String, Object> config = readConfigFile(this.configPath.toString());
-            boolean removed = config.remove(propertyName) != null;
-            if (removed) {
-                saveConfigFile(config, this.configPath.toString());
-            }
-            return removed;
+            return edit(tx -> tx.remove(propertyName));
         } catch (Exception e) {
             return false;
         }
@@ -316,6 +547,41 @@ public class JSONUtils implements INT_JSONUtils {
         return result;
     }
 
+    /**
+     * Número de veces que se ha leído y parseado el archivo de configuración propio
+     * para atender readConfigValue, hasProperty, removeProperty o saveConfigValue.
+     * @return lecturas del disco desde que se creó la instancia
+     */
+    public long getConfigDiskReadCount() {
+        return configDiskReads.get();
+    }
+
+    /**
+     * Devuelve la instantánea inmutable del archivo de configuración propio. Solo se
+     * vuelve a leer el archivo cuando cambian su fecha de modificación o su tamaño;
+     * en caso contrario la consulta se resuelve en memoria.
+     */
+    private Map<String, Object> currentConfig() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(configPath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new ConfigurationException("El archivo de configuración no existe: " + configPath);
+        }
+        ConfigSnapshot snapshot = configSnapshot;
+        if (snapshot != null && snapshot.matches(attributes)) {
+            return snapshot.values;
+        }
+        Map<String, Object> values = readConfigFile(configPath.toString());
+        configDiskReads.incrementAndGet();
+        // Se guardan los atributos leídos antes del contenido: si el archivo cambia
+        // entretanto, la siguiente consulta verá otra fecha y volverá a leerlo
+        snapshot = new ConfigSnapshot(Collections.unmodifiableMap(values), attributes.lastModifiedTime(),
+                attributes.size());
+        configSnapshot = snapshot;
+        return snapshot.values;
+    }
+
     private void createParentDirectories(Path path) throws IOException {
         Path parent = path.getParent();
         if (parent != null && !Files.exists(parent)) {
@@ -333,4 +599,24 @@ public class JSONUtils implements INT_JSONUtils {
             throw new ConfigurationException("Could not create config directory: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Contenido del archivo de configuración junto con la fecha de modificación y el
+     * tamaño que tenía al leerlo.
+     */
+    private static final class ConfigSnapshot {
+        private final Map<String, Object> values;
+        private final FileTime lastModified;
+        private final long size;
+
+        private ConfigSnapshot(Map<String, Object> values, FileTime lastModified, long size) {
+            this.values = values;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified.equals(attributes.lastModifiedTime());
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.bufigol.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Generador JSON mínimo que escribe UTF-8 directamente en un byte[] reutilizable.
+ *
+ * A diferencia de JsonGenerator, los números se formatean sin crear Strings: los enteros
+ * dígito a dígito y los double con la representación decimal más corta de hasta
+ * {@value #MAX_DECIMALS} decimales que vuelve a leerse como el mismo double. Solo los
+ * valores que no admiten esa forma (muy grandes o con más decimales) pasan por
+ * Double.toString. NaN e infinito no existen en JSON y se escriben como null.
+ *
+ * No es seguro entre hilos: cada hilo debe usar su propia instancia.
+ */
+final class JsonByteWriter {
+    static final int MAX_DECIMALS = 9;
+    private static final int MAX_DEPTH = 64;
+    private static final long[] POW10 = new long[MAX_DECIMALS + 1];
+    private static final double MAX_SCALED = 1L << 53;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private byte[] buffer;
+    private int size;
+    private int depth;
+    /** Bit por nivel de anidamiento: 1 si ya se ha escrito algún elemento en ese nivel */
+    private long hasElements;
+    private boolean afterName;
+
+    JsonByteWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    void reset() {
+        size = 0;
+        depth = 0;
+        hasElements = 0;
+        afterName = false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    JsonByteWriter beginObject() {
+        return open('{');
+    }
+
+    JsonByteWriter endObject() {
+        return close('}');
+    }
+
+    JsonByteWriter beginArray() {
+        return open('[');
+    }
+
+    JsonByteWriter endArray() {
+        return close(']');
+    }
+
+    JsonByteWriter name(String name) {
+        separator();
+        writeQuoted(name);
+        put(':');
+        afterName = true;
+        return this;
+    }
+
+    JsonByteWriter value(String value) {
+        separator();
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeQuoted(value);
+        }
+        return this;
+    }
+
+    JsonByteWriter value(boolean value) {
+        separator();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    JsonByteWriter value(long value) {
+        separator();
+        writeLong(value);
+        return this;
+    }
+
+    JsonByteWriter value(double value) {
+        separator();
+        writeDouble(value);
+        return this;
+    }
+
+    JsonByteWriter nullValue() {
+        separator();
+        writeAscii("null");
+        return this;
+    }
+
+    /**
+     * Escribe una hora como cadena "HH:mm", o "HH:mm:ss" si los segundos no son cero.
+     */
+    JsonByteWriter timeValue(int hour, int minute, int second) {
+        separator();
+        put('"');
+        writeTwoDigits(hour);
+        put(':');
+        writeTwoDigits(minute);
+        if (second != 0) {
+            put(':');
+            writeTwoDigits(second);
+        }
+        put('"');
+        return this;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException si el destino no tiene espacio suficiente
+     */
+    void writeTo(ByteBuffer target) {
+        target.put(buffer, 0, size);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private JsonByteWriter open(char bracket) {
+        separator();
+        if (depth + 1 >= MAX_DEPTH) {
+            throw new IllegalStateException("Anidamiento JSON demasiado profundo");
+        }
+        put(bracket);
+        depth++;
+        hasElements &= ~(1L << depth);
+        return this;
+    }
+
+    private JsonByteWriter close(char bracket) {
+        put(bracket);
+        depth--;
+        return this;
+    }
+
+    private void separator() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        long bit = 1L << depth;
+        if ((hasElements & bit) != 0) {
+            put(',');
+        }
+        hasElements |= bit;
+    }
+
+    private void writeDouble(double value) {
+        if (!Double.isFinite(value)) {
+            writeAscii("null");
+            return;
+        }
+        if (value == 0) {
+            put('0');
+            return;
+        }
+        double magnitude = Math.abs(value);
+        for (int decimals = 0; decimals <= MAX_DECIMALS; decimals++) {
+            double scaled = magnitude * POW10[decimals];
+            if (scaled >= MAX_SCALED) {
+                break;
+            }
+            long digits = Math.round(scaled);
+            // Ambos operandos son exactos, así que la división está bien redondeada como al parsear
+            if ((double) digits / POW10[decimals] == magnitude) {
+                if (value < 0) {
+                    put('-');
+                }
+                writeFixed(digits, decimals);
+                return;
+            }
+        }
+        writeAscii(Double.toString(value));
+    }
+
+    private void writeFixed(long digits, int decimals) {
+        long integerPart = digits / POW10[decimals];
+        writeLong(integerPart);
+        if (decimals == 0) {
+            return;
+        }
+        long fraction = digits % POW10[decimals];
+        // Se quitan los ceros finales y se rellenan los iniciales
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            decimals--;
+        }
+        put('.');
+        ensureCapacity(decimals);
+        for (int i = decimals - 1; i >= 0; i--) {
+            buffer[size + i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        size += decimals;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int length = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            length++;
+        }
+        ensureCapacity(length);
+        for (int i = length - 1; i >= 0; i--) {
+            buffer[size + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += length;
+    }
+
+    private void writeQuoted(String text) {
+        put('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                put('\\');
+                put(c);
+            } else if (c < 0x20) {
+                switch (c) {
+                    case '\n' -> writeAscii("\\n");
+                    case '\r' -> writeAscii("\\r");
+                    case '\t' -> writeAscii("\\t");
+                    default -> {
+                        writeAscii("\\u00");
+                        put((char) HEX[c >> 4]);
+                        put((char) HEX[c & 0xF]);
+                    }
+                }
+            } else if (c < 0x80) {
+                put(c);
+            } else if (c < 0x800) {
+                put((char) (0xC0 | c >> 6));
+                put((char) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                put((char) (0xF0 | codePoint >> 18));
+                put((char) (0x80 | codePoint >> 12 & 0x3F));
+                put((char) (0x80 | codePoint >> 6 & 0x3F));
+                put((char) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                put('?');
+            } else {
+                put((char) (0xE0 | c >> 12));
+                put((char) (0x80 | c >> 6 & 0x3F));
+                put((char) (0x80 | c & 0x3F));
+            }
+        }
+        put('"');
+    }
+
+    private void writeTwoDigits(int value) {
+        put((char) ('0' + value / 10 % 10));
+        put((char) ('0' + value % 10));
+    }
+
+    private void writeAscii(String text) {
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void put(char c) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) c;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ruta precompilada sobre el Map de datos de un JSONResponse, por ejemplo
+ * {@code JsonPath.compile("device_status/em:0/a_act_power")}.
+ *
+ * La ruta se divide una sola vez en segmentos (cuyo hash queda cacheado en el String)
+ * y se resuelve sin cadenas de get y cast en el código cliente. Los segmentos numéricos
+ * indexan listas. Los getters primitivos devuelven el valor por defecto si la ruta no
+ * existe o no es del tipo pedido.
+ *
+ * Para leer muchas rutas de la misma respuesta conviene agruparlas en un {@link JsonPathSet},
+ * que recorre los prefijos comunes una sola vez.
+ */
+public final class JsonPath {
+    public static final String SEPARATOR = "/";
+
+    private final String expression;
+    private final String[] segments;
+    private final int[] indexes;
+
+    private JsonPath(String expression, String[] segments) {
+        this.expression = expression;
+        this.segments = segments;
+        this.indexes = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            indexes[i] = parseIndex(segments[i]);
+        }
+    }
+
+    /**
+     * Compila una ruta con segmentos separados por '/'. Los nombres pueden contener
+     * cualquier otro carácter, incluidos ':' y '.'.
+     *
+     * @param expression ruta, por ejemplo "device_status/em:0/a_act_power"
+     * @return ruta compilada
+     * @throws IllegalArgumentException si la ruta está vacía o tiene segmentos vacíos
+     */
+    public static JsonPath compile(String expression) {
+        if (expression == null || expression.isEmpty()) {
+            throw new IllegalArgumentException("La ruta no puede estar vacía");
+        }
+        String[] segments = expression.split(SEPARATOR, -1);
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("Segmento vacío en la ruta: " + expression);
+            }
+        }
+        return new JsonPath(expression, segments);
+    }
+
+    /**
+     * Resuelve la ruta sobre los datos de la respuesta.
+     * @param response respuesta de la API
+     * @return valor encontrado, o null si la ruta no existe
+     */
+    public Object resolve(JSONResponse response) {
+        return response == null ? null : resolve(response.getData());
+    }
+
+    /**
+     * Resuelve la ruta sobre un Map como los que produce JSONUtils.
+     * @param root Map raíz
+     * @return valor encontrado, o null si la ruta no existe
+     */
+    public Object resolve(Map<String, Object> root) {
+        Object current = root;
+        for (int i = 0; i < segments.length && current != null; i++) {
+            current = step(current, segments[i], indexes[i]);
+        }
+        return current;
+    }
+
+    public double getDouble(JSONResponse response, double defaultValue) {
+        Object parent = resolveParent(response);
+        // En un CompactMap el último valor se lee sin crear su caja
+        if (parent instanceof CompactMap compact) {
+            return compact.getDouble(lastSegment(), defaultValue);
+        }
+        return resolveLast(parent) instanceof Number number ? number.doubleValue() : defaultValue;
+    }
+
+    public long getLong(JSONResponse response, long defaultValue) {
+        Object parent = resolveParent(response);
+        if (parent instanceof CompactMap compact) {
+            return compact.getLong(lastSegment(), defaultValue);
+        }
+        return resolveLast(parent) instanceof Number number ? number.longValue() : defaultValue;
+    }
+
+    private String lastSegment() {
+        return segments[segments.length - 1];
+    }
+
+    private Object resolveLast(Object parent) {
+        int last = segments.length - 1;
+        return parent == null ? null : step(parent, segments[last], indexes[last]);
+    }
+
+    private Object resolveParent(JSONResponse response) {
+        Object current = response == null ? null : response.getData();
+        for (int i = 0; i < segments.length - 1 && current != null; i++) {
+            current = step(current, segments[i], indexes[i]);
+        }
+        return current;
+    }
+
+    public boolean getBoolean(JSONResponse response, boolean defaultValue) {
+        return resolve(response) instanceof Boolean value ? value : defaultValue;
+    }
+
+    public String getString(JSONResponse response, String defaultValue) {
+        Object value = resolve(response);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    /**
+     * @return true si la ruta existe y su valor no es null
+     */
+    public boolean isPresent(JSONResponse response) {
+        return resolve(response) != null;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    int length() {
+        return segments.length;
+    }
+
+    String segment(int position) {
+        return segments[position];
+    }
+
+    /**
+     * Avanza un segmento: clave en un Map o posición en una lista.
+     */
+    static Object step(Object current, String segment, int index) {
+        if (current instanceof Map<?, ?> map) {
+            return map.get(segment);
+        }
+        if (index >= 0 && current instanceof List<?> list && index < list.size()) {
+            return list.get(index);
+        }
+        return null;
+    }
+
+    static int parseIndex(String segment) {
+        if (segment.length() > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JsonPath that && expression.equals(that.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonPath{" + expression + '}';
+    }
+}
@@ -0,0 +1,221 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto de rutas precompiladas que se evalúan juntas sobre una misma respuesta.
+ *
+ * Las rutas se organizan en un árbol por prefijos, así que los segmentos comunes
+ * (por ejemplo "device_status/em:0" para todas las magnitudes de fase) se resuelven una
+ * sola vez por respuesta en lugar de una vez por ruta. Los resultados se escriben en el
+ * array del llamante, en el orden en que se pasaron las rutas, sin crear objetos.
+ */
+public final class JsonPathSet {
+    private final List<JsonPath> paths;
+    private final Node root;
+
+    private JsonPathSet(List<JsonPath> paths) {
+        this.paths = List.copyOf(paths);
+        this.root = new Node(null);
+        for (int slot = 0; slot < this.paths.size(); slot++) {
+            JsonPath path = this.paths.get(slot);
+            Node node = root;
+            for (int i = 0; i < path.length(); i++) {
+                node = node.child(path.segment(i));
+            }
+            node.addSlot(slot);
+        }
+        root.freeze();
+    }
+
+    public static JsonPathSet of(JsonPath... paths) {
+        return new JsonPathSet(Arrays.asList(paths));
+    }
+
+    public static JsonPathSet of(List<JsonPath> paths) {
+        return new JsonPathSet(paths);
+    }
+
+    /**
+     * Compila y agrupa varias rutas.
+     * @param expressions rutas con segmentos separados por '/'
+     * @return conjunto de rutas
+     */
+    public static JsonPathSet compile(String... expressions) {
+        List<JsonPath> compiled = new ArrayList<>(expressions.length);
+        for (String expression : expressions) {
+            compiled.add(JsonPath.compile(expression));
+        }
+        return new JsonPathSet(compiled);
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    public JsonPath get(int slot) {
+        return paths.get(slot);
+    }
+
+    /**
+     * Lee todas las rutas como double en una sola pasada.
+     *
+     * @param response respuesta de la API
+     * @param target array de al menos {@link #size()} posiciones donde se escriben los valores
+     * @param missing valor para las rutas que no existen o no son numéricas
+     */
+    public void readDoubles(JSONResponse response, double[] target, double missing) {
+        checkTarget(target.length);
+        Arrays.fill(target, 0, paths.size(), missing);
+        if (response != null && response.getData() != null) {
+            root.readDoubles(response.getData(), target);
+        }
+    }
+
+    /**
+     * Lee todas las rutas como long en una sola pasada.
+     *
+     * @param response respuesta de la API
+     * @param target array de al menos {@link #size()} posiciones donde se escriben los valores
+     * @param missing valor para las rutas que no existen o no son numéricas
+     */
+    public void readLongs(JSONResponse response, long[] target, long missing) {
+        checkTarget(target.length);
+        Arrays.fill(target, 0, paths.size(), missing);
+        if (response != null && response.getData() != null) {
+            root.readLongs(response.getData(), target);
+        }
+    }
+
+    /**
+     * Resuelve todas las rutas en una sola pasada.
+     *
+     * @param response respuesta de la API
+     * @param target array de al menos {@link #size()} posiciones; las rutas que no existen quedan a null
+     */
+    public void resolve(JSONResponse response, Object[] target) {
+        checkTarget(target.length);
+        Arrays.fill(target, 0, paths.size(), null);
+        if (response != null && response.getData() != null) {
+            root.visitChildren(response.getData(), (slot, value) -> target[slot] = value);
+        }
+    }
+
+    private void checkTarget(int length) {
+        if (length < paths.size()) {
+            throw new IllegalArgumentException("El array destino necesita " + paths.size()
+                    + " posiciones y tiene " + length);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Sink {
+        void accept(int slot, Object value);
+    }
+
+    private static final class Node {
+        private final String segment;
+        private final int index;
+        private Map<String, Node> building = new LinkedHashMap<>();
+        private Node[] children;
+        private int[] slots = new int[0];
+
+        private Node(String segment) {
+            this.segment = segment;
+            this.index = segment != null ? JsonPath.parseIndex(segment) : -1;
+        }
+
+        private Node child(String name) {
+            return building.computeIfAbsent(name, Node::new);
+        }
+
+        private void addSlot(int slot) {
+            slots = Arrays.copyOf(slots, slots.length + 1);
+            slots[slots.length - 1] = slot;
+        }
+
+        private void freeze() {
+            children = building.values().toArray(new Node[0]);
+            building = null;
+            for (Node child : children) {
+                child.freeze();
+            }
+        }
+
+        private void visitChildren(Object value, Sink sink) {
+            for (Node child : children) {
+                Object next = JsonPath.step(value, child.segment, child.index);
+                if (next != null) {
+                    child.visit(next, sink);
+                }
+            }
+        }
+
+        /**
+         * Igual que visitChildren, pero escribe directamente los números. En un
+         * {@link CompactMap} las hojas se leen sin crear su caja.
+         */
+        private void readDoubles(Object value, double[] target) {
+            for (Node child : children) {
+                if (value instanceof CompactMap compact) {
+                    for (int slot : child.slots) {
+                        target[slot] = compact.getDouble(child.segment, target[slot]);
+                    }
+                    if (child.children.length > 0) {
+                        Object next = compact.get(child.segment);
+                        if (next != null) {
+                            child.readDoubles(next, target);
+                        }
+                    }
+                    continue;
+                }
+                Object next = JsonPath.step(value, child.segment, child.index);
+                if (next instanceof Number number) {
+                    for (int slot : child.slots) {
+                        target[slot] = number.doubleValue();
+                    }
+                } else if (next != null) {
+                    child.readDoubles(next, target);
+                }
+            }
+        }
+
+        private void readLongs(Object value, long[] target) {
+            for (Node child : children) {
+                if (value instanceof CompactMap compact) {
+                    for (int slot : child.slots) {
+                        target[slot] = compact.getLong(child.segment, target[slot]);
+                    }
+                    if (child.children.length > 0) {
+                        Object next = compact.get(child.segment);
+                        if (next != null) {
+                            child.readLongs(next, target);
+                        }
+                    }
+                    continue;
+                }
+                Object next = JsonPath.step(value, child.segment, child.index);
+                if (next instanceof Number number) {
+                    for (int slot : child.slots) {
+                        target[slot] = number.longValue();
+                    }
+                } else if (next != null) {
+                    child.readLongs(next, target);
+                }
+            }
+        }
+
+        private void visit(Object value, Sink sink) {
+            for (int slot : slots) {
+                sink.accept(slot, value);
+            }
+            visitChildren(value, sink);
+        }
+    }
+}
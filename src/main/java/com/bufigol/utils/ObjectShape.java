@@ -0,0 +1,139 @@
+package com.bufigol.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Forma compartida de los objetos JSON que se repiten en cada respuesta: la lista de
+ * claves, en orden, y el tipo de valor de cada una. Es el equivalente a las "hidden
+ * classes" de los motores JavaScript: todos los {@link CompactMap} con la misma forma
+ * comparten una sola copia de las claves y del índice, y solo guardan sus valores.
+ *
+ * Los valores Long y Double se guardan sin caja en un long[]; el resto, en un Object[].
+ */
+final class ObjectShape {
+    static final byte OBJECT = 0;
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+
+    private final String[] keys;
+    private final byte[] kinds;
+    private final int[] slots;
+    private final Map<String, Integer> indexByKey;
+    private final int objectSlots;
+    private final int primitiveSlots;
+
+    private ObjectShape(String[] keys, byte[] kinds) {
+        this.keys = keys;
+        this.kinds = kinds;
+        this.slots = new int[keys.length];
+        this.indexByKey = new HashMap<>(keys.length * 2);
+        int objects = 0;
+        int primitives = 0;
+        for (int i = 0; i < keys.length; i++) {
+            slots[i] = kinds[i] == OBJECT ? objects++ : primitives++;
+            indexByKey.put(keys[i], i);
+        }
+        this.objectSlots = objects;
+        this.primitiveSlots = primitives;
+    }
+
+    static byte kindOf(Object value) {
+        if (value instanceof Double) {
+            return DOUBLE;
+        }
+        if (value instanceof Long) {
+            return LONG;
+        }
+        return OBJECT;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    int indexOf(Object key) {
+        Integer index = indexByKey.get(key);
+        return index != null ? index : -1;
+    }
+
+    String key(int index) {
+        return keys[index];
+    }
+
+    byte kind(int index) {
+        return kinds[index];
+    }
+
+    int slot(int index) {
+        return slots[index];
+    }
+
+    int objectSlots() {
+        return objectSlots;
+    }
+
+    int primitiveSlots() {
+        return primitiveSlots;
+    }
+
+    /**
+     * Registro de las formas conocidas. Está acotado para que objetos con claves
+     * variables (IDs, marcas de tiempo) no lo hagan crecer sin límite: cuando se llena,
+     * los objetos nuevos se representan con un HashMap normal.
+     */
+    static final class Registry {
+        static final int MAX_KEYS = 64;
+
+        private final Map<ShapeKey, ObjectShape> shapes = new ConcurrentHashMap<>();
+        private final int maxShapes;
+
+        Registry(int maxShapes) {
+            this.maxShapes = maxShapes;
+        }
+
+        /**
+         * @return la forma canónica para las claves y tipos dados, o null si no se admite
+         */
+        ObjectShape shapeFor(String[] keys, byte[] kinds) {
+            if (keys.length > MAX_KEYS) {
+                return null;
+            }
+            ShapeKey lookup = new ShapeKey(keys, kinds);
+            ObjectShape shape = shapes.get(lookup);
+            if (shape != null || shapes.size() >= maxShapes) {
+                return shape;
+            }
+            return shapes.computeIfAbsent(lookup, key -> new ObjectShape(key.keys, key.kinds));
+        }
+
+        int size() {
+            return shapes.size();
+        }
+    }
+
+    private static final class ShapeKey {
+        private final String[] keys;
+        private final byte[] kinds;
+        private final int hash;
+
+        private ShapeKey(String[] keys, byte[] kinds) {
+            this.keys = keys;
+            this.kinds = kinds;
+            this.hash = 31 * Arrays.hashCode(keys) + Arrays.hashCode(kinds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ShapeKey that && hash == that.hash
+                    && Arrays.equals(kinds, that.kinds) && Arrays.equals(keys, that.keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
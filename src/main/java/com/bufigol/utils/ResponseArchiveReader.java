@@ -0,0 +1,225 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.modelo.principales.ShellyResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Lector de archivos de respuestas grabadas en JSON delimitado por saltos de línea
+ * (un registro por línea).
+ *
+ * El archivo se proyecta en memoria y los registros se separan buscando '\n' sobre los
+ * bytes, sin decodificarlos a String. Cada registro se entrega al parser como un flujo
+ * sobre su trozo del buffer proyectado, de modo que el JSON se lee directamente de las
+ * páginas del archivo. Los streams devueltos pueden pasarse a paralelo para repartir el
+ * parseo entre varios hilos: cada registro usa su propia vista del buffer.
+ *
+ * Las líneas vacías se ignoran y se admite el final de línea "\r\n".
+ */
+public final class ResponseArchiveReader implements AutoCloseable {
+    /** Tamaño máximo de cada región proyectada; un registro no puede superarlo */
+    static final long DEFAULT_REGION_SIZE = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> regions;
+    private final int[] recordRegions;
+    private final int[] recordOffsets;
+    private final int[] recordLengths;
+
+    private ResponseArchiveReader(FileChannel channel, List<MappedByteBuffer> regions,
+                                  int[] recordRegions, int[] recordOffsets, int[] recordLengths) {
+        this.channel = channel;
+        this.regions = regions;
+        this.recordRegions = recordRegions;
+        this.recordOffsets = recordOffsets;
+        this.recordLengths = recordLengths;
+    }
+
+    /**
+     * Abre un archivo y localiza sus registros.
+     * @param path ruta del archivo
+     * @return lector abierto
+     * @throws IOException si no se puede leer el archivo o un registro no cabe en una región
+     */
+    public static ResponseArchiveReader open(Path path) throws IOException {
+        return open(path, DEFAULT_REGION_SIZE);
+    }
+
+    static ResponseArchiveReader open(Path path, long regionSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return index(channel, regionSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static ResponseArchiveReader index(FileChannel channel, long regionSize) throws IOException {
+        long size = channel.size();
+        List<MappedByteBuffer> regions = new ArrayList<>();
+        int[] recordRegions = new int[16];
+        int[] offsets = new int[16];
+        int[] lengths = new int[16];
+        int count = 0;
+
+        long position = 0;
+        while (position < size) {
+            long length = Math.min(regionSize, size - position);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int end = (int) length;
+            if (position + length < size) {
+                // La región termina a mitad de un registro: se corta tras el último salto de línea
+                end = lastNewline(region, end) + 1;
+                if (end == 0) {
+                    throw new IOException("Registro de más de " + regionSize + " bytes en la posición " + position);
+                }
+                region = channel.map(FileChannel.MapMode.READ_ONLY, position, end);
+            }
+            int regionIndex = regions.size();
+            regions.add(region);
+
+            int start = 0;
+            while (start < end) {
+                int newline = nextNewline(region, start, end);
+                int stop = newline;
+                if (stop > start && region.get(stop - 1) == '\r') {
+                    stop--;
+                }
+                if (stop > start) {
+                    if (count == offsets.length) {
+                        recordRegions = Arrays.copyOf(recordRegions, count * 2);
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                        lengths = Arrays.copyOf(lengths, count * 2);
+                    }
+                    recordRegions[count] = regionIndex;
+                    offsets[count] = start;
+                    lengths[count] = stop - start;
+                    count++;
+                }
+                start = newline + 1;
+            }
+            position += end;
+        }
+        return new ResponseArchiveReader(channel, regions, Arrays.copyOf(recordRegions, count),
+                Arrays.copyOf(offsets, count), Arrays.copyOf(lengths, count));
+    }
+
+    private static int nextNewline(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int lastNewline(ByteBuffer buffer, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return número de registros del archivo
+     */
+    public int size() {
+        return recordOffsets.length;
+    }
+
+    /**
+     * Devuelve los bytes de un registro como vista de solo lectura del buffer proyectado.
+     * @param index posición del registro
+     * @return buffer con el registro, sin el salto de línea
+     */
+    public ByteBuffer record(int index) {
+        return regions.get(recordRegions[index]).slice(recordOffsets[index], recordLengths[index]);
+    }
+
+    /**
+     * Recorre los registros aplicando un parser que lee de un flujo sobre cada uno.
+     * Para repartir el parseo entre hilos basta con llamar a parallel() sobre el resultado.
+     *
+     * @param parser función que lee un registro
+     * @param <T> tipo del resultado
+     * @return stream ordenado con un resultado por registro
+     */
+    public <T> Stream<T> records(Function<InputStream, T> parser) {
+        return IntStream.range(0, size()).mapToObj(index -> parser.apply(new ByteBufferInputStream(record(index))));
+    }
+
+    /**
+     * Parsea los registros como respuestas de Shelly Cloud con JSONUtils.
+     * Un registro inválido produce una respuesta con isok=false.
+     */
+    public Stream<JSONResponse> responses() {
+        return records(stream -> JSONUtils.getInstance().parseResponse(stream));
+    }
+
+    /**
+     * Parsea los registros directamente al modelo tipado con {@link DeviceStatusBinder}.
+     * @throws jakarta.json.stream.JsonParsingException al consumir un registro inválido
+     */
+    public Stream<ShellyResponse> shellyResponses() {
+        return records(DeviceStatusBinder::readResponse);
+    }
+
+    /**
+     * Cierra el archivo. Las regiones proyectadas se liberan cuando el recolector las
+     * descarta, por lo que no deben usarse los buffers de {@link #record(int)} tras cerrar.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * InputStream sobre un ByteBuffer, sin copiarlo.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
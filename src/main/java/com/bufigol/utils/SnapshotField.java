@@ -0,0 +1,104 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.principales.DeviceSnapshot;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Campos de un {@link DeviceSnapshot} que sigue {@link DeltaDetector}. Los numéricos se
+ * leen como double (los booleanos como 0 o 1, la MAC empaquetada cabe sin pérdida) y los
+ * de texto como String.
+ */
+public enum SnapshotField {
+    A_ACT_POWER(DeviceSnapshot::aActPower),
+    A_APRT_POWER(DeviceSnapshot::aAprtPower),
+    A_CURRENT(DeviceSnapshot::aCurrent),
+    A_FREQ(DeviceSnapshot::aFreq),
+    A_PF(DeviceSnapshot::aPf),
+    A_VOLTAGE(DeviceSnapshot::aVoltage),
+    B_ACT_POWER(DeviceSnapshot::bActPower),
+    B_APRT_POWER(DeviceSnapshot::bAprtPower),
+    B_CURRENT(DeviceSnapshot::bCurrent),
+    B_FREQ(DeviceSnapshot::bFreq),
+    B_PF(DeviceSnapshot::bPf),
+    B_VOLTAGE(DeviceSnapshot::bVoltage),
+    C_ACT_POWER(DeviceSnapshot::cActPower),
+    C_APRT_POWER(DeviceSnapshot::cAprtPower),
+    C_CURRENT(DeviceSnapshot::cCurrent),
+    C_FREQ(DeviceSnapshot::cFreq),
+    C_PF(DeviceSnapshot::cPf),
+    C_VOLTAGE(DeviceSnapshot::cVoltage),
+    TOTAL_ACT_POWER(DeviceSnapshot::totalActPower),
+    TOTAL_APRT_POWER(DeviceSnapshot::totalAprtPower),
+    TOTAL_CURRENT(DeviceSnapshot::totalCurrent),
+    A_TOTAL_ACT_ENERGY(DeviceSnapshot::aTotalActEnergy),
+    A_TOTAL_ACT_RET_ENERGY(DeviceSnapshot::aTotalActRetEnergy),
+    B_TOTAL_ACT_ENERGY(DeviceSnapshot::bTotalActEnergy),
+    B_TOTAL_ACT_RET_ENERGY(DeviceSnapshot::bTotalActRetEnergy),
+    C_TOTAL_ACT_ENERGY(DeviceSnapshot::cTotalActEnergy),
+    C_TOTAL_ACT_RET_ENERGY(DeviceSnapshot::cTotalActRetEnergy),
+    TOTAL_ACT(DeviceSnapshot::totalAct),
+    TOTAL_ACT_RET(DeviceSnapshot::totalActRet),
+    MAC(DeviceSnapshot::mac),
+    RESTART_REQUIRED((DeviceSnapshot s) -> s.restartRequired() ? 1 : 0),
+    TIME_OF_DAY(DeviceSnapshot::timeOfDay),
+    UNIXTIME(DeviceSnapshot::unixtime),
+    UPTIME(DeviceSnapshot::uptimeSeconds),
+    RAM_SIZE(DeviceSnapshot::ramSize),
+    RAM_FREE(DeviceSnapshot::ramFree),
+    FS_SIZE(DeviceSnapshot::fsSize),
+    FS_FREE(DeviceSnapshot::fsFree),
+    CFG_REV(DeviceSnapshot::cfgRev),
+    KVS_REV(DeviceSnapshot::kvsRev),
+    SCHEDULE_REV(DeviceSnapshot::scheduleRev),
+    WEBHOOK_REV(DeviceSnapshot::webhookRev),
+    RESET_REASON(DeviceSnapshot::resetReason),
+    RSSI(DeviceSnapshot::rssi),
+    CLOUD_CONNECTED((DeviceSnapshot s) -> s.cloudConnected() ? 1 : 0),
+    TEMPERATURE_C(DeviceSnapshot::tC),
+    TEMPERATURE_F(DeviceSnapshot::tF),
+    CODE(DeviceSnapshot::code),
+    UPDATED(DeviceSnapshot::updated),
+    STABLE_VERSION(DeviceSnapshot::stableVersion),
+    STA_IP(DeviceSnapshot::staIp),
+    WIFI_STATUS(DeviceSnapshot::wifiStatus),
+    SSID(DeviceSnapshot::ssid);
+
+    private final ToDoubleFunction<DeviceSnapshot> number;
+    private final Function<DeviceSnapshot, String> text;
+
+    SnapshotField(ToDoubleFunction<DeviceSnapshot> number) {
+        this.number = number;
+        this.text = null;
+    }
+
+    SnapshotField(Function<DeviceSnapshot, String> text) {
+        this.number = null;
+        this.text = text;
+    }
+
+    public boolean isNumeric() {
+        return number != null;
+    }
+
+    /**
+     * @throws IllegalStateException si el campo es de texto
+     */
+    public double number(DeviceSnapshot snapshot) {
+        if (number == null) {
+            throw new IllegalStateException(name() + " no es numérico");
+        }
+        return number.applyAsDouble(snapshot);
+    }
+
+    /**
+     * @throws IllegalStateException si el campo es numérico
+     */
+    public String text(DeviceSnapshot snapshot) {
+        if (text == null) {
+            throw new IllegalStateException(name() + " no es de texto");
+        }
+        return text.apply(snapshot);
+    }
+}
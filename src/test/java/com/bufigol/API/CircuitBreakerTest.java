@@ -0,0 +1,140 @@
+package com.bufigol.API;
+
+import com.bufigol.expeciones.ShellyAPIException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private CircuitBreaker newBreaker(Duration waitInOpen) {
+        return new CircuitBreaker("https://test.shelly.cloud", 10, 4, 50, Duration.ofSeconds(1), 75,
+                waitInOpen, 2);
+    }
+
+    private void record(CircuitBreaker breaker, long duration, Throwable error) {
+        long permit = breaker.acquirePermission();
+        assertNotEquals(CircuitBreaker.NO_PERMISSION, permit);
+        breaker.onResult(permit, duration, error);
+    }
+
+    @Test
+    @DisplayName("Se abre al superar la tasa de fallos y rechaza las llamadas")
+    void opensOnFailureRate() {
+        CircuitBreaker breaker = newBreaker(Duration.ofMinutes(1));
+
+        record(breaker, FAST, null);
+        record(breaker, FAST, null);
+        record(breaker, FAST, new IOException("reset"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        record(breaker, FAST, new ShellyAPIException("error", 503));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.NO_PERMISSION, breaker.acquirePermission());
+        assertEquals(1, breaker.getRejectedCalls());
+        assertEquals(1, breaker.getTransitionCount(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    @DisplayName("Los errores 4xx no cuentan como fallo")
+    void clientErrorsDoNotCount() {
+        CircuitBreaker breaker = newBreaker(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 6; i++) {
+            record(breaker, FAST, new ShellyAPIException("not found", 404));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    @DisplayName("Se abre cuando demasiadas llamadas son lentas")
+    void opensOnSlowCalls() {
+        CircuitBreaker breaker = newBreaker(Duration.ofMinutes(1));
+
+        record(breaker, SLOW, null);
+        record(breaker, SLOW, null);
+        record(breaker, SLOW, null);
+        record(breaker, FAST, null);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Pasa a semiabierto tras la espera y se cierra si las pruebas van bien")
+    void halfOpenThenClose() throws InterruptedException {
+        CircuitBreaker breaker = newBreaker(Duration.ofMillis(20));
+        List<String> changes = new CopyOnWriteArrayList<>();
+        breaker.addStateListener((endpoint, from, to) -> changes.add(from + "->" + to));
+        for (int i = 0; i < 4; i++) {
+            record(breaker, FAST, new IOException("down"));
+        }
+        Thread.sleep(40);
+
+        record(breaker, FAST, null);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        record(breaker, FAST, null);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), changes);
+    }
+
+    @Test
+    @DisplayName("En semiabierto limita las llamadas de prueba y vuelve a abrirse si fallan")
+    void halfOpenLimitsProbesAndReopens() throws InterruptedException {
+        CircuitBreaker breaker = newBreaker(Duration.ofMillis(20));
+        for (int i = 0; i < 4; i++) {
+            record(breaker, FAST, new IOException("down"));
+        }
+        Thread.sleep(40);
+
+        long first = breaker.acquirePermission();
+        long second = breaker.acquirePermission();
+        assertNotEquals(CircuitBreaker.NO_PERMISSION, first);
+        assertNotEquals(CircuitBreaker.NO_PERMISSION, second);
+        assertEquals(CircuitBreaker.NO_PERMISSION, breaker.acquirePermission());
+        breaker.onResult(first, FAST, new IOException("still down"));
+        breaker.onResult(second, FAST, null);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getTransitionCount(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    @DisplayName("Una llamada lenta concedida en CLOSED no cuenta como prueba de HALF_OPEN")
+    void lateClosedResultIgnoredInHalfOpen() throws InterruptedException {
+        CircuitBreaker breaker = newBreaker(Duration.ofMillis(20));
+        long slowCall = breaker.acquirePermission();
+        long cancelledCall = breaker.acquirePermission();
+        for (int i = 0; i < 4; i++) {
+            record(breaker, FAST, new IOException("down"));
+        }
+        Thread.sleep(40);
+
+        long probe = breaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(slowCall, SLOW, new IOException("timeout"));
+        breaker.releasePermission(cancelledCall);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // El permiso liberado era de CLOSED: solo queda sitio para una prueba más
+        long secondProbe = breaker.acquirePermission();
+        assertNotEquals(CircuitBreaker.NO_PERMISSION, secondProbe);
+        assertEquals(CircuitBreaker.NO_PERMISSION, breaker.acquirePermission());
+        breaker.onResult(probe, FAST, null);
+        breaker.onResult(secondProbe, FAST, null);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,162 @@
+package com.bufigol.API;
+
+import com.bufigol.expeciones.ShellyAPIException;
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeviceStatusCache Tests")
+class DeviceStatusCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(5);
+    private static final Duration MAX_STALE = Duration.ofSeconds(30);
+
+    private final AtomicLong now = new AtomicLong();
+    private StubService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StubService();
+    }
+
+    private DeviceStatusCache cache(int maxSize) {
+        return new DeviceStatusCache(service, TTL, MAX_STALE, maxSize, now::get);
+    }
+
+    @Test
+    @DisplayName("Una entrada fresca se sirve sin consultar la nube")
+    void get_Fresh_IsHit() throws Exception {
+        DeviceStatusCache cache = cache(10);
+
+        JSONResponse first = cache.get("abc");
+        now.addAndGet(TTL.toNanos() - 1);
+        JSONResponse second = cache.get("abc");
+
+        assertSame(first, second);
+        assertEquals(1, service.calls.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("Una entrada caducada se sirve al instante y se refresca en segundo plano")
+    void get_Stale_ServesAndRevalidates() throws Exception {
+        DeviceStatusCache cache = cache(10);
+        JSONResponse first = cache.get("abc");
+        now.addAndGet(TTL.toNanos());
+        service.pending = new CompletableFuture<>();
+
+        CompletableFuture<JSONResponse> stale = cache.getAsync("abc");
+        CompletableFuture<JSONResponse> staleAgain = cache.getAsync("abc");
+
+        assertTrue(stale.isDone());
+        assertSame(first, stale.join());
+        assertSame(first, staleAgain.join());
+        assertEquals(2, service.calls.get(), "solo un refresco para varias lecturas obsoletas");
+        assertEquals(RequestPriority.BATCH, service.lastPriority);
+
+        JSONResponse refreshed = response("abc");
+        service.pending.complete(refreshed);
+        assertSame(refreshed, cache.get("abc"));
+        assertEquals(2, cache.getStaleHitCount());
+    }
+
+    @Test
+    @DisplayName("Si el refresco falla se sigue sirviendo la entrada obsoleta")
+    void get_RefreshFails_KeepsStale() throws Exception {
+        DeviceStatusCache cache = cache(10);
+        JSONResponse first = cache.get("abc");
+        now.addAndGet(TTL.toNanos());
+        service.pending = CompletableFuture.failedFuture(new ShellyAPIException("boom", 503));
+
+        assertSame(first, cache.get("abc"));
+        assertSame(first, cache.get("abc"));
+        assertEquals(3, service.calls.get(), "tras un fallo el siguiente acceso vuelve a refrescar");
+    }
+
+    @Test
+    @DisplayName("Más allá del límite de obsolescencia se espera a la nube")
+    void get_TooStale_IsMiss() throws Exception {
+        DeviceStatusCache cache = cache(10);
+        JSONResponse first = cache.get("abc");
+        now.addAndGet(TTL.toNanos() + MAX_STALE.toNanos());
+
+        assertNotSame(first, cache.get("abc"));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Se descarta la entrada usada hace más tiempo al superar el tamaño")
+    void get_OverCapacity_EvictsLeastRecentlyUsed() throws Exception {
+        DeviceStatusCache cache = cache(2);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.get("a");
+        assertEquals(2, cache.getHitCount(), "a sigue en caché");
+        cache.get("b");
+        assertEquals(4, cache.getMissCount(), "b fue descartada");
+    }
+
+    @Test
+    @DisplayName("Las respuestas con isok=false no se guardan")
+    void get_NotOk_IsNotCached() throws Exception {
+        DeviceStatusCache cache = cache(10);
+        service.ok = false;
+
+        cache.get("abc");
+        cache.get("abc");
+
+        assertEquals(2, service.calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("invalidate fuerza una nueva consulta")
+    void invalidate_ForcesReload() throws Exception {
+        DeviceStatusCache cache = cache(10);
+        cache.get("abc");
+        cache.invalidate("abc");
+        cache.get("abc");
+
+        assertEquals(2, service.calls.get());
+    }
+
+    private static JSONResponse response(String id) {
+        return new JSONResponse(true, Map.of("device_status", Map.of("id", id)));
+    }
+
+    private static final class StubService extends ShellyAPIService {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile CompletableFuture<JSONResponse> pending;
+        private volatile RequestPriority lastPriority;
+        private volatile boolean ok = true;
+
+        private StubService() {
+            super("key", "http://127.0.0.1:1", null);
+        }
+
+        @Override
+        public CompletableFuture<JSONResponse> getDeviceStatusAsync(String deviceId, RequestPriority priority) {
+            calls.incrementAndGet();
+            lastPriority = priority;
+            if (pending != null) {
+                return pending;
+            }
+            return CompletableFuture.completedFuture(ok ? response(deviceId) : new JSONResponse(false, Map.of()));
+        }
+    }
+}
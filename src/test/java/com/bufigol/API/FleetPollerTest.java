@@ -0,0 +1,94 @@
+package com.bufigol.API;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FleetPoller Tests")
+class FleetPollerTest {
+
+    private HttpServer server;
+    private ShellyAPIService service;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/device/status", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean fail = exchange.getRequestURI().getQuery().contains("id=bad");
+            byte[] body = "{\"isok\":true,\"data\":{\"online\":true}}".getBytes(StandardCharsets.UTF_8);
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(fail ? 500 : 200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        service = new ShellyAPIService("key", "http://127.0.0.1:" + server.getAddress().getPort(), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Registra éxitos y fallos por dispositivo")
+    void pollAll_ReportsPerDeviceOutcome() {
+        Map<String, String> devices = new LinkedHashMap<>();
+        devices.put("living_room", "id1");
+        devices.put("kitchen", "bad");
+
+        FleetPollResult result = new FleetPoller(service, 4).pollAll(devices);
+
+        assertEquals(2, result.getResults().size());
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(1, result.getFailureCount());
+        DevicePollResult kitchen = result.getResultsByName().get("kitchen");
+        assertFalse(kitchen.isSuccess());
+        assertNotNull(kitchen.getError());
+        assertTrue(result.getResultsByName().get("living_room").getDuration().toNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Respeta el límite de concurrencia")
+    void pollAll_RespectsConcurrencyCap() {
+        Map<String, String> devices = new LinkedHashMap<>();
+        for (int i = 0; i < 30; i++) {
+            devices.put("device_" + i, "id" + i);
+        }
+
+        FleetPollResult result = new FleetPoller(service, 3).pollAll(devices);
+
+        assertEquals(30, result.getSuccessCount());
+        assertTrue(maxInFlight.get() <= 3, "Se superó el límite de concurrencia: " + maxInFlight.get());
+    }
+
+    @Test
+    @DisplayName("Rechaza una concurrencia no positiva")
+    void constructor_InvalidConcurrency_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new FleetPoller(service, 0));
+    }
+}
@@ -0,0 +1,82 @@
+package com.bufigol.API;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    @Test
+    @DisplayName("Concede la ráfaga inicial sin esperar")
+    void tryAcquire_BurstThenEmpty() {
+        RateLimiter limiter = new RateLimiter(1, 3);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Respeta la tasa sostenida configurada")
+    void acquire_RespectsRate() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(50, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire(RequestPriority.BATCH);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 1 token inicial + 10 a 50/s = 200 ms como mínimo
+        assertTrue(elapsedMillis >= 180, "Demasiado rápido: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Las peticiones interactivas adelantan a las de lote y cada cola es FIFO")
+    void acquireAsync_InteractiveFirstAndFifo() {
+        RateLimiter limiter = new RateLimiter(100, 1);
+        assertTrue(limiter.tryAcquire());
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> b1 = limiter.acquireAsync(RequestPriority.BATCH).thenRun(() -> order.add("b1"));
+        CompletableFuture<Void> b2 = limiter.acquireAsync(RequestPriority.BATCH).thenRun(() -> order.add("b2"));
+        CompletableFuture<Void> i1 = limiter.acquireAsync(RequestPriority.INTERACTIVE).thenRun(() -> order.add("i1"));
+        CompletableFuture<Void> i2 = limiter.acquireAsync(RequestPriority.INTERACTIVE).thenRun(() -> order.add("i2"));
+        CompletableFuture.allOf(b1, b2, i1, i2).join();
+
+        assertEquals(List.of("i1", "i2", "b1", "b2"), order);
+    }
+
+    @Test
+    @DisplayName("Una espera cancelada sale de la cola sin consumir token")
+    void acquireAsync_CancelledWaiterIsSkipped() throws Exception {
+        RateLimiter limiter = new RateLimiter(20, 1);
+        assertTrue(limiter.tryAcquire());
+
+        CompletableFuture<Void> cancelled = limiter.acquireAsync(RequestPriority.BATCH);
+        CompletableFuture<Void> next = limiter.acquireAsync(RequestPriority.BATCH);
+        cancelled.cancel(false);
+
+        next.get(1, TimeUnit.SECONDS);
+        assertEquals(0, limiter.getQueueLength());
+    }
+
+    @Test
+    @DisplayName("forEndpoint comparte el limitador por auth_key y URL base")
+    void forEndpoint_SharesInstance() {
+        RateLimiter a = RateLimiter.forEndpoint("key", "https://a.shelly.cloud", 1, 1);
+        RateLimiter b = RateLimiter.forEndpoint("key", "https://a.shelly.cloud", 5, 5);
+        RateLimiter c = RateLimiter.forEndpoint("other", "https://a.shelly.cloud", 1, 1);
+
+        assertSame(a, b);
+        assertNotSame(a, c);
+    }
+}
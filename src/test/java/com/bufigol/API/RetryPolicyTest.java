@@ -0,0 +1,114 @@
+package com.bufigol.API;
+
+import com.bufigol.expeciones.ShellyAPIException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RetryPolicy Tests")
+class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(3, Duration.ofMillis(100), Duration.ofSeconds(1), null);
+
+    @Nested
+    @DisplayName("Clasificación de errores")
+    class ClassificationTests {
+        @ParameterizedTest(name = "El código {0} es reintentable")
+        @ValueSource(ints = {408, 429, 500, 502, 503, 504})
+        void transientStatus_IsRetryable(int status) {
+            assertTrue(policy.isRetryable(new ShellyAPIException("error", status)));
+        }
+
+        @ParameterizedTest(name = "El código {0} no es reintentable")
+        @ValueSource(ints = {400, 401, 403, 404})
+        void clientStatus_IsNotRetryable(int status) {
+            assertFalse(policy.isRetryable(new ShellyAPIException("error", status)));
+        }
+
+        @Test
+        @DisplayName("Los errores de red y timeouts son reintentables")
+        void ioErrors_AreRetryable() {
+            assertTrue(policy.isRetryable(new IOException("connection reset")));
+            assertTrue(policy.isRetryable(new HttpTimeoutException("timeout")));
+            assertFalse(policy.isRetryable(new IllegalStateException("bug")));
+        }
+
+        @Test
+        @DisplayName("No se supera el número máximo de reintentos")
+        void shouldRetry_StopsAtMaxRetries() {
+            ShellyAPIException error = new ShellyAPIException("error", 503);
+            assertTrue(policy.shouldRetry(2, error));
+            assertFalse(policy.shouldRetry(3, error));
+        }
+    }
+
+    @Nested
+    @DisplayName("Cálculo de esperas")
+    class DelayTests {
+        @Test
+        @DisplayName("El jitter completo queda dentro de la ventana exponencial")
+        void computeDelay_WithinExponentialWindow() {
+            ShellyAPIException error = new ShellyAPIException("error", 503);
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(policy.computeDelayNanos(0, error) <= Duration.ofMillis(100).toNanos());
+                assertTrue(policy.computeDelayNanos(2, error) <= Duration.ofMillis(400).toNanos());
+                assertTrue(policy.computeDelayNanos(10, error) <= Duration.ofSeconds(1).toNanos());
+            }
+        }
+
+        @Test
+        @DisplayName("Se respeta el Retry-After del servidor")
+        void computeDelay_HonorsRetryAfter() {
+            ShellyAPIException error = new ShellyAPIException("error", 429, Duration.ofSeconds(5));
+            assertTrue(policy.computeDelayNanos(0, error) >= Duration.ofSeconds(5).toNanos());
+        }
+
+        @Test
+        @DisplayName("No se reintenta si Retry-After supera la espera máxima")
+        void shouldRetry_RetryAfterBeyondMaxDelay_GivesUp() {
+            RetryPolicy bounded = new RetryPolicy(3, Duration.ofMillis(100), Duration.ofSeconds(10), null);
+
+            assertTrue(bounded.shouldRetry(0, new ShellyAPIException("error", 429, Duration.ofSeconds(10))));
+            assertFalse(bounded.shouldRetry(0, new ShellyAPIException("error", 429, Duration.ofDays(1))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Presupuesto de reintentos")
+    class BudgetTests {
+        @Test
+        @DisplayName("Sin tráfico previo ni mínimo por segundo no se permite reintentar")
+        void budget_EmptyRejects() {
+            RetryBudget budget = new RetryBudget(0.2, 0, 100);
+            RetryPolicy limited = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(1), budget);
+
+            assertFalse(limited.shouldRetry(0, new ShellyAPIException("error", 503)));
+            assertEquals(1, budget.getRetriesRejected());
+        }
+
+        @Test
+        @DisplayName("Los reintentos quedan limitados a la fracción del tráfico original")
+        void budget_LimitsRetriesToRatio() {
+            RetryBudget budget = new RetryBudget(0.2, 0, 100);
+            for (int i = 0; i < 10; i++) {
+                budget.recordRequest();
+            }
+
+            int granted = 0;
+            for (int i = 0; i < 10; i++) {
+                if (budget.tryAcquireRetry()) {
+                    granted++;
+                }
+            }
+            assertEquals(2, granted);
+        }
+    }
+}
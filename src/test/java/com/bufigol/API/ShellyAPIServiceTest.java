@@ -0,0 +1,327 @@
+package com.bufigol.API;
+
+import com.bufigol.expeciones.ShellyAPIException;
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.modelo.principales.ShellyResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShellyAPIService Tests")
+class ShellyAPIServiceTest {
+
+    private static final String STATUS_OK = "{\"isok\":true,\"data\":{\"online\":true,\"device_status\":{\"id\":\"abc\"}}}";
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int statusCode = 200;
+    private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blockResponses = false;
+    private volatile int bulkStatusCode = 200;
+    private final AtomicInteger bulkRequests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/device/status", exchange -> {
+            requests.incrementAndGet();
+            if (blockResponses) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = STATUS_OK.getBytes(StandardCharsets.UTF_8);
+            int code = failuresBeforeSuccess.getAndDecrement() > 0 ? 503 : statusCode;
+            exchange.sendResponseHeaders(code, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.createContext("/device/all_status", exchange -> {
+            bulkRequests.incrementAndGet();
+            byte[] body = ("{\"isok\":true,\"data\":{\"devices_status\":{"
+                    + "\"abc\":{\"id\":\"abc\",\"_dev_info\":{\"online\":true}},"
+                    + "\"def\":{\"id\":\"def\"}}}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(bulkStatusCode, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("getDeviceStatus devuelve la respuesta parseada")
+    void getDeviceStatus_Success() throws Exception {
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+
+        JSONResponse response = service.getDeviceStatus("abc");
+
+        assertTrue(response.isIsok());
+        assertEquals(true, response.getData().get("online"));
+    }
+
+    @Test
+    @DisplayName("getDeviceStatusAsync se completa usando el executor indicado")
+    void getDeviceStatusAsync_UsesExecutor() throws Exception {
+        AtomicInteger executed = new AtomicInteger();
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, command -> {
+            executed.incrementAndGet();
+            new Thread(command).start();
+        });
+
+        JSONResponse response = service.getDeviceStatusAsync("abc").get(5, TimeUnit.SECONDS);
+
+        assertTrue(response.isIsok());
+        assertTrue(executed.get() > 0);
+    }
+
+    @Test
+    @DisplayName("getDeviceStatusAsync falla con ShellyAPIException ante un código distinto de 200")
+    void getDeviceStatusAsync_Non200_CompletesExceptionally() {
+        statusCode = 500;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> service.getDeviceStatusAsync("abc").get(5, TimeUnit.SECONDS));
+        ShellyAPIException cause = assertInstanceOf(ShellyAPIException.class, e.getCause());
+        assertEquals(500, cause.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Una URL base inválida falla enseguida en lugar de dejar la llamada pendiente")
+    void getDeviceStatus_InvalidBaseUrl_FailsFast() {
+        ShellyAPIService service = new ShellyAPIService("k", "localhost:8080", null);
+        service.setCircuitBreaker(new CircuitBreaker("localhost:8080"));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> service.getDeviceStatusAsync("dev").get(3, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertTimeoutPreemptively(Duration.ofSeconds(3),
+                () -> assertThrows(IllegalArgumentException.class, () -> service.getDeviceStatus("dev")));
+    }
+
+    @Test
+    @DisplayName("Cancelar el futuro no deja la petición esperando respuesta")
+    void getDeviceStatusAsync_Cancel() {
+        blockResponses = true;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+
+        CompletableFuture<JSONResponse> future = service.getDeviceStatusAsync("abc");
+        assertTrue(future.cancel(true));
+
+        assertTrue(future.isCancelled());
+        assertThrows(java.util.concurrent.CancellationException.class, future::join);
+    }
+
+    @Test
+    @DisplayName("Muchas peticiones concurrentes comparten el cliente sin un hilo por petición")
+    void getDeviceStatusAsync_ManyInFlight() {
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[50];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = service.getDeviceStatusAsync("dev" + i);
+        }
+        CompletableFuture.allOf(futures).join();
+
+        assertEquals(50, requests.get());
+        for (CompletableFuture<?> f : futures) {
+            assertTrue(((JSONResponse) f.join()).isIsok());
+            assertInstanceOf(Map.class, ((JSONResponse) f.join()).getData().get("device_status"));
+        }
+    }
+
+    @Test
+    @DisplayName("getDevicesStatus usa la llamada masiva y consulta aparte los que faltan")
+    @SuppressWarnings("unchecked")
+    void getDevicesStatus_SplitsBulkResponse() {
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+
+        Map<String, JSONResponse> result = service.getDevicesStatus(java.util.List.of("abc", "def", "xyz"));
+
+        assertEquals(java.util.List.of("abc", "def", "xyz"), java.util.List.copyOf(result.keySet()));
+        assertEquals(1, bulkRequests.get());
+        assertEquals(1, requests.get(), "Solo el dispositivo ausente de la respuesta masiva se consulta aparte");
+        Map<String, Object> abcStatus = (Map<String, Object>) result.get("abc").getData().get("device_status");
+        assertEquals("abc", abcStatus.get("id"));
+        assertEquals(true, result.get("abc").getData().get("online"));
+        assertTrue(result.get("xyz").isIsok());
+    }
+
+    @Test
+    @DisplayName("getDevicesStatus recurre a consultas individuales si la llamada masiva falla")
+    void getDevicesStatus_FallsBackWhenBulkFails() {
+        bulkStatusCode = 503;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+        service.setRetryPolicy(new RetryPolicy(2, Duration.ofMillis(1), Duration.ofMillis(5), null));
+
+        Map<String, JSONResponse> result = service.getDevicesStatus(java.util.List.of("abc", "def"));
+
+        assertEquals(3, bulkRequests.get(), "La llamada masiva se reintenta antes de recurrir a las individuales");
+        assertEquals(2, requests.get());
+        assertTrue(result.get("abc").isIsok());
+        assertTrue(result.get("def").isIsok());
+    }
+
+    @Test
+    @DisplayName("Un 503 de la llamada masiva cuenta como fallo para el circuit breaker")
+    void getDevicesStatus_BulkError_RecordedByBreaker() {
+        bulkStatusCode = 503;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+        CircuitBreaker breaker = new CircuitBreaker(baseUrl, 4, 1, 50, Duration.ofSeconds(5), 100,
+                Duration.ofMinutes(1), 1);
+        service.setCircuitBreaker(breaker);
+
+        Map<String, JSONResponse> result = service.getDevicesStatus(java.util.List.of("abc", "def"));
+
+        assertEquals(1, bulkRequests.get());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0, requests.get(), "Con el circuito abierto las consultas individuales no se envían");
+        assertFalse(result.get("abc").isIsok());
+    }
+
+    @Test
+    @DisplayName("getDevicesStatus no recurre a consultas individuales con el circuito abierto")
+    void getDevicesStatus_CircuitOpen_DoesNotFallBack() {
+        statusCode = 503;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+        service.setCircuitBreaker(new CircuitBreaker(baseUrl, 4, 2, 50, Duration.ofSeconds(5), 100,
+                Duration.ofMinutes(1), 1));
+        assertThrows(ShellyAPIException.class, () -> service.getDeviceStatus("a"));
+        assertThrows(ShellyAPIException.class, () -> service.getDeviceStatus("b"));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> service.getDevicesStatusAsync(java.util.List.of("abc", "def")).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(com.bufigol.expeciones.CircuitOpenException.class, e.getCause());
+        assertEquals(0, bulkRequests.get());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    @DisplayName("Cancelar getDevicesStatusAsync no deja la consulta en curso")
+    void getDevicesStatusAsync_Cancel() {
+        bulkStatusCode = 503;
+        blockResponses = true;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+
+        CompletableFuture<Map<String, JSONResponse>> future = service.getDevicesStatusAsync(java.util.List.of("abc"));
+        assertTrue(future.cancel(true));
+
+        assertThrows(java.util.concurrent.CancellationException.class, future::join);
+    }
+
+    @Test
+    @DisplayName("Las peticiones respetan el limitador de tasa configurado")
+    void getDeviceStatusAsync_UsesRateLimiter() {
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+        service.setRateLimiter(new RateLimiter(20, 1));
+
+        long start = System.nanoTime();
+        CompletableFuture.allOf(service.getDeviceStatusAsync("a"), service.getDeviceStatusAsync("b"),
+                service.getDeviceStatusAsync("c")).join();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(3, requests.get());
+        assertTrue(elapsedMillis >= 90, "El limitador no se aplicó: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Los errores transitorios se reintentan hasta obtener respuesta")
+    void getDeviceStatus_RetriesTransientErrors() throws Exception {
+        failuresBeforeSuccess.set(2);
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+        service.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), null));
+
+        JSONResponse response = service.getDeviceStatus("abc");
+
+        assertTrue(response.isIsok());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    @DisplayName("Los errores no transitorios no se reintentan")
+    void getDeviceStatus_DoesNotRetryClientErrors() {
+        statusCode = 404;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+        service.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), null));
+
+        ShellyAPIException e = assertThrows(ShellyAPIException.class, () -> service.getDeviceStatus("abc"));
+        assertEquals(404, e.getStatusCode());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    @DisplayName("Con el circuito abierto las peticiones fallan sin enviarse")
+    void getDeviceStatus_FailsFastWhenCircuitOpen() {
+        statusCode = 503;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+        service.setCircuitBreaker(new CircuitBreaker(baseUrl, 4, 2, 50, Duration.ofSeconds(5), 100,
+                Duration.ofMinutes(1), 1));
+
+        assertThrows(ShellyAPIException.class, () -> service.getDeviceStatus("a"));
+        assertThrows(ShellyAPIException.class, () -> service.getDeviceStatus("b"));
+        assertThrows(com.bufigol.expeciones.CircuitOpenException.class, () -> service.getDeviceStatus("c"));
+
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    @DisplayName("Las consultas concurrentes del mismo dispositivo comparten una petición")
+    void getDeviceStatusAsync_CoalescesSameDevice() throws Exception {
+        blockResponses = true;
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+
+        CompletableFuture<JSONResponse> first = service.getDeviceStatusAsync("abc");
+        CompletableFuture<JSONResponse> second = service.getDeviceStatusAsync("abc");
+        CompletableFuture<JSONResponse> third = service.getDeviceStatusAsync("abc", RequestPriority.BATCH);
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertSame(first.get(), third.get());
+        assertEquals(1, requests.get());
+        assertEquals(2, service.getCoalescedRequestCount());
+    }
+
+    @Test
+    @DisplayName("getShellyResponse enlaza la respuesta directamente al modelo tipado")
+    void getShellyResponse_BindsTypedModel() throws Exception {
+        ShellyAPIService service = new ShellyAPIService("key", baseUrl, null);
+
+        ShellyResponse response = service.getShellyResponse("abc");
+
+        assertTrue(response.isIsok());
+        assertTrue(response.getData().isOnline());
+        assertEquals("abc", response.getData().getDeviceStatus().getId());
+    }
+}
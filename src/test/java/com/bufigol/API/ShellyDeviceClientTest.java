@@ -0,0 +1,123 @@
+package com.bufigol.API;
+
+import com.bufigol.expeciones.ShellyAPIException;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShellyDeviceClient Tests")
+class ShellyDeviceClientTest {
+
+    private static final String LOCAL_STATUS = "{\"sys\":{\"mac\":\"A8032ABE54DC\",\"uptime\":120},"
+            + "\"wifi\":{\"sta_ip\":\"127.0.0.1\",\"status\":\"got ip\",\"ssid\":\"casa\",\"rssi\":-60},"
+            + "\"em:0\":{\"id\":0,\"total_act_power\":1234.5}}";
+    private static final String CLOUD_STATUS = "{\"isok\":true,\"data\":{\"online\":true,\"device_status\":"
+            + "{\"id\":\"abc\",\"wifi\":{\"sta_ip\":\"127.0.0.1\"},\"sys\":{\"mac\":\"CLOUD\"}}}}";
+
+    private HttpServer cloudServer;
+    private HttpServer deviceServer;
+    private final AtomicInteger cloudRequests = new AtomicInteger();
+    private final AtomicInteger localRequests = new AtomicInteger();
+    private ShellyAPIService cloudService;
+    private ShellyLocalService localService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cloudServer = server("/device/status", CLOUD_STATUS, cloudRequests);
+        deviceServer = server("/rpc/Shelly.GetStatus", LOCAL_STATUS, localRequests);
+        cloudService = new ShellyAPIService("key", "http://127.0.0.1:" + cloudServer.getAddress().getPort(), null);
+        localService = new ShellyLocalService(Duration.ofSeconds(2), deviceServer.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cloudServer.stop(0);
+        deviceServer.stop(0);
+    }
+
+    private static HttpServer server(String path, String body, AtomicInteger counter) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(path, exchange -> {
+            counter.incrementAndGet();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    @DisplayName("El modo LOCAL consulta el dispositivo y mapea a DeviceStatus")
+    void local_MapsShellyGetStatus() throws Exception {
+        ShellyDeviceClient client = new ShellyDeviceClient(cloudService, localService, TransportMode.LOCAL);
+        client.registerLocalAddress("abc", "127.0.0.1");
+
+        DeviceStatus status = client.getDeviceStatus("abc");
+
+        assertEquals("A8032ABE54DC", status.getSys().getMac());
+        assertEquals(1234.5, status.getEm0().getTotalActPower(), 0.001);
+        assertEquals("127.0.0.1", status.getWifi().getStaIp());
+        assertEquals(1, localRequests.get());
+        assertEquals(0, cloudRequests.get());
+    }
+
+    @Test
+    @DisplayName("El modo LOCAL sin IP conocida falla")
+    void local_UnknownAddress_Fails() {
+        ShellyDeviceClient client = new ShellyDeviceClient(cloudService, localService, TransportMode.LOCAL);
+
+        assertThrows(ShellyAPIException.class, () -> client.getDeviceStatus("abc"));
+    }
+
+    @Test
+    @DisplayName("El modo AUTO aprende la IP de la nube y después consulta en local")
+    void auto_LearnsAddressFromCloud() throws Exception {
+        ShellyDeviceClient client = new ShellyDeviceClient(cloudService, localService);
+
+        assertEquals("CLOUD", client.getDeviceStatus("abc").getSys().getMac());
+        assertEquals("127.0.0.1", client.getLocalAddress("abc"));
+        assertEquals("A8032ABE54DC", client.getDeviceStatus("abc").getSys().getMac());
+
+        assertEquals(1, cloudRequests.get());
+        assertEquals(1, localRequests.get());
+    }
+
+    @Test
+    @DisplayName("El modo AUTO vuelve a la nube si el dispositivo no responde")
+    void auto_FallsBackToCloud() throws Exception {
+        ShellyDeviceClient client = new ShellyDeviceClient(cloudService, localService);
+        client.registerLocalAddress("abc", "127.0.0.1");
+        deviceServer.stop(0);
+
+        assertEquals("CLOUD", client.getDeviceStatus("abc").getSys().getMac());
+        assertEquals(1, client.getFallbackCount());
+        assertEquals(1, cloudRequests.get());
+    }
+
+    @Test
+    @DisplayName("El modo CLOUD ignora la IP local")
+    void cloud_IgnoresLocalAddress() throws Exception {
+        ShellyDeviceClient client = new ShellyDeviceClient(cloudService, localService);
+        client.registerLocalAddress("abc", "127.0.0.1");
+
+        client.getDeviceStatus("abc", TransportMode.CLOUD);
+
+        assertEquals(0, localRequests.get());
+        assertEquals(1, client.getCloudCallCount());
+    }
+}
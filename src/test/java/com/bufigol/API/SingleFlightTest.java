@@ -0,0 +1,80 @@
+package com.bufigol.API;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("Las llamadas concurrentes con la misma clave comparten una operación")
+    void execute_CoalescesConcurrentCalls() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CompletableFuture<String> operation = new CompletableFuture<>();
+        AtomicInteger launched = new AtomicInteger();
+
+        CompletableFuture<String> a = flight.execute("dev", () -> {
+            launched.incrementAndGet();
+            return operation;
+        });
+        CompletableFuture<String> b = flight.execute("dev", () -> {
+            launched.incrementAndGet();
+            return operation;
+        });
+        operation.complete("status");
+
+        assertEquals("status", a.join());
+        assertEquals("status", b.join());
+        assertEquals(1, launched.get());
+        assertEquals(1, flight.getCoalescedCount());
+        assertEquals(0, flight.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("Una vez terminada, la siguiente llamada lanza otra operación")
+    void execute_AfterCompletion_RunsAgain() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger launched = new AtomicInteger();
+
+        flight.execute("dev", () -> CompletableFuture.completedFuture(launched.incrementAndGet())).join();
+        int second = flight.execute("dev", () -> CompletableFuture.completedFuture(launched.incrementAndGet())).join();
+
+        assertEquals(2, second);
+        assertEquals(2, flight.getExecutionCount());
+    }
+
+    @Test
+    @DisplayName("Cancelar un llamante no afecta a los demás; cancelar todos cancela la operación")
+    void execute_CancellationIsRefCounted() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CompletableFuture<String> operation = new CompletableFuture<>();
+
+        CompletableFuture<String> a = flight.execute("dev", () -> operation);
+        CompletableFuture<String> b = flight.execute("dev", () -> operation);
+
+        a.cancel(true);
+        assertFalse(operation.isCancelled());
+        b.cancel(true);
+        assertTrue(operation.isCancelled());
+        assertEquals(0, flight.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("Los errores se propagan a todos los llamantes")
+    void execute_PropagatesErrors() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CompletableFuture<String> operation = new CompletableFuture<>();
+
+        CompletableFuture<String> a = flight.execute("dev", () -> operation);
+        CompletableFuture<String> b = flight.execute("dev", () -> operation);
+        operation.completeExceptionally(new IllegalStateException("boom"));
+
+        assertTrue(a.isCompletedExceptionally());
+        assertTrue(b.isCompletedExceptionally());
+    }
+}
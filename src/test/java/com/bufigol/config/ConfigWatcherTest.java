@@ -0,0 +1,89 @@
+package com.bufigol.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigWatcherTest {
+    private static final String CONFIG_TEMPLATE = """
+        {
+            "url": "%s",
+            "username": "testuser",
+            "password": "testpass",
+            "driver": "com.mysql.cj.jdbc.Driver",
+            "pool": {
+                "max_size": 10,
+                "timeout": 30
+            }
+        }
+        """;
+
+    @TempDir
+    Path tempDir;
+    private Path configPath;
+    private BBDDConfig bbddConfig;
+    private ConfigWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        configPath = tempDir.resolve("database.json");
+        Files.writeString(configPath, CONFIG_TEMPLATE.formatted("jdbc:mysql://localhost/v0"));
+        bbddConfig = new BBDDConfig(configPath);
+        bbddConfig.loadConfig();
+        watcher = new ConfigWatcher(Duration.ofMillis(200));
+        watcher.register(bbddConfig);
+        watcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.close();
+    }
+
+    @Test
+    void fileChanges_BurstOfWrites_ReloadsOnce() throws Exception {
+        CountDownLatch reloaded = new CountDownLatch(1);
+        watcher.addReloadListener(config -> reloaded.countDown());
+
+        for (int i = 1; i <= 5; i++) {
+            Files.writeString(configPath, CONFIG_TEMPLATE.formatted("jdbc:mysql://localhost/v" + i));
+        }
+
+        assertTrue(reloaded.await(10, TimeUnit.SECONDS));
+        assertEquals("jdbc:mysql://localhost/v5", bbddConfig.getDatabaseUrl());
+        Thread.sleep(500);
+        assertEquals(1, watcher.getReloadCount());
+    }
+
+    @Test
+    void fileChanges_InvalidContent_KeepsPreviousConfiguration() throws Exception {
+        Files.writeString(configPath, "{\"url\": \"jdbc:mysql://localhost/broken\"}");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (watcher.getFailedReloadCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(1, watcher.getFailedReloadCount());
+        assertTrue(bbddConfig.isLoaded());
+        assertEquals("jdbc:mysql://localhost/v0", bbddConfig.getDatabaseUrl());
+    }
+
+    @Test
+    void fileChanges_UnrelatedFile_IsIgnored() throws Exception {
+        Files.writeString(tempDir.resolve("other.json"), "{}");
+
+        Thread.sleep(600);
+        assertEquals(0, watcher.getReloadCount());
+        assertEquals(0, watcher.getFailedReloadCount());
+    }
+}
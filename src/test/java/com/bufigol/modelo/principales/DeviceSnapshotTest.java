@@ -0,0 +1,119 @@
+package com.bufigol.modelo.principales;
+
+import com.bufigol.modelo.auxiliares.AvailableUpdates;
+import com.bufigol.modelo.auxiliares.CloudStatus;
+import com.bufigol.modelo.auxiliares.StableVersion;
+import com.bufigol.modelo.auxiliares.Temperature;
+import com.bufigol.modelo.auxiliares.WifiStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeviceSnapshot Tests")
+class DeviceSnapshotTest {
+
+    private static DeviceStatus sample() {
+        EnergyMeter em = new EnergyMeter(0,
+                300.5, 320.0, 1.5, 50.0, 0.94, 230.1,
+                100.0, 110.0, 0.5, 50.0, 0.91, 229.8,
+                450.0, 460.0, 2.0, 50.0, 0.98, 231.0,
+                850.5, 890.0, 4.0, new ArrayList<>(List.of("a")));
+        EnergyMeterData emdata = new EnergyMeterData(0, 1000.5, 0, 500.25, 0, 750, 1.5, 2250.75, 1.5);
+        SystemInfo sys = new SystemInfo(new AvailableUpdates(new StableVersion("1.4.4")), "A8032ABE54DC", false,
+                "10:15", 1732097700L, 3600, 247000, 120000, 524288, 200000, 12, 1, 0, 0, 3);
+        return new DeviceStatus("SPEM-003CEBEU", em, "2024-11-20 10:15:00", new CloudStatus(true),
+                new WifiStatus("192.168.1.50", "got ip", "casa", -58), new Temperature(0, 35.2, 95.4),
+                emdata, sys, "abc123");
+    }
+
+    @Test
+    @DisplayName("La conversión de ida y vuelta conserva el DeviceStatus")
+    void from_RoundTrip() {
+        DeviceStatus status = sample();
+
+        DeviceSnapshot snapshot = DeviceSnapshot.from(status);
+
+        assertEquals(status, snapshot.toDeviceStatus());
+        assertEquals(300.5, snapshot.aActPower());
+        assertEquals(229.8, snapshot.bVoltage());
+        assertEquals(1732097700L, snapshot.unixtime());
+        assertEquals(10 * 3600 + 15 * 60, snapshot.timeOfDay());
+        assertEquals(3600, snapshot.uptimeSeconds());
+        assertEquals(0xA8032ABE54DCL, snapshot.mac());
+        assertEquals("A8032ABE54DC", snapshot.macString());
+    }
+
+    @Test
+    @DisplayName("Los objetos anidados ausentes se convierten en valores por defecto")
+    void from_MissingParts() {
+        DeviceStatus status = new DeviceStatus(null, null, null, null, null, null, null, null, "x");
+
+        DeviceSnapshot snapshot = DeviceSnapshot.from(status);
+
+        assertEquals(DeviceSnapshot.NO_MAC, snapshot.mac());
+        assertEquals(DeviceSnapshot.NO_TIME, snapshot.timeOfDay());
+        assertEquals(DeviceSnapshot.NO_UNIXTIME, snapshot.unixtime());
+        assertEquals(DeviceSnapshot.NO_UPTIME, snapshot.uptimeSeconds());
+        assertEquals(List.of(), snapshot.userCalibratedPhase());
+        assertNull(snapshot.toDeviceStatus().getSys().getTime());
+        assertEquals("", snapshot.toDeviceStatus().getSys().getMac());
+    }
+
+    @Test
+    @DisplayName("La lista de fases calibradas no puede modificarse")
+    void userCalibratedPhase_IsImmutable() {
+        DeviceSnapshot snapshot = DeviceSnapshot.from(sample());
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.userCalibratedPhase().add("b"));
+    }
+
+    @Test
+    @DisplayName("La huella es estable y cambia con el contenido")
+    void fingerprint_StableAndContentSensitive() {
+        DeviceSnapshot first = DeviceSnapshot.from(sample());
+        DeviceSnapshot same = DeviceSnapshot.from(sample());
+        DeviceStatus changed = sample();
+        changed.getEm0().getFaseA().setVoltage(230.2);
+
+        assertNotEquals(DeviceSnapshot.NO_FINGERPRINT, first.fingerprint());
+        assertEquals(first.fingerprint(), same.fingerprint());
+        assertTrue(first.sameContentAs(same));
+        assertFalse(first.sameContentAs(DeviceSnapshot.from(changed)));
+        assertEquals(first.fingerprint(), DeviceSnapshot.from(first.toDeviceStatus()).fingerprint());
+    }
+
+    @Test
+    @DisplayName("EnergyMeter compara sin error cuando faltan partes")
+    void energyMeterEquals_NullParts() {
+        EnergyMeter em = new EnergyMeter();
+        em.setUserCalibratedPhase(null);
+        EnergyMeter other = new EnergyMeter();
+        other.setUserCalibratedPhase(null);
+
+        assertEquals(em, other);
+        assertEquals(em.hashCode(), other.hashCode());
+        other.setUserCalibratedPhase(new ArrayList<>(List.of("a")));
+        assertNotEquals(em, other);
+        assertNotEquals(other, em);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a8:03:2a:be:54:dc", "A8-03-2A-BE-54-DC", "a8032abe54dc"})
+    @DisplayName("Empaqueta MACs con o sin separadores")
+    void packMac_Separators(String mac) {
+        assertEquals(0xA8032ABE54DCL, DeviceSnapshot.packMac(mac));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "A8032ABE54", "A8032ABE54DC00", "G8032ABE54DC"})
+    @DisplayName("Las MACs inválidas no se empaquetan")
+    void packMac_Invalid(String mac) {
+        assertEquals(DeviceSnapshot.NO_MAC, DeviceSnapshot.packMac(mac));
+    }
+}
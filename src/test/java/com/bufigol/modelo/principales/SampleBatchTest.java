@@ -0,0 +1,118 @@
+package com.bufigol.modelo.principales;
+
+import com.bufigol.modelo.auxiliares.Fase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.bufigol.modelo.principales.SampleBatch.Metric.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SampleBatch Tests")
+class SampleBatchTest {
+
+    private static EnergyMeter meter(double aPower, double bVoltage, double total) {
+        return new EnergyMeter(0, new Fase(aPower, 0, 0, 50, 1, 230), new Fase(0, 0, 0, 50, 1, bVoltage),
+                new Fase(), total, 0, 0, List.of());
+    }
+
+    private static SampleBatch batch(int samples) {
+        SampleBatch batch = new SampleBatch(2);
+        for (int i = 0; i < samples; i++) {
+            batch.append(1000L + i * 10, meter(i, 230 + i % 3, 2.0 * i));
+        }
+        return batch;
+    }
+
+    @Test
+    @DisplayName("Añade muestras y crece según se necesita")
+    void append_Grows() {
+        SampleBatch batch = batch(1000);
+
+        assertEquals(1000, batch.size());
+        assertEquals(1000L + 999 * 10, batch.timestamp(999));
+        assertEquals(999.0, batch.get(A_ACT_POWER, 999));
+        assertEquals(50.0, batch.get(B_FREQ, 5));
+        assertEquals(0.0, batch.get(C_VOLTAGE, 5));
+    }
+
+    @Test
+    @DisplayName("Las agregaciones coinciden con el cálculo directo")
+    void aggregations() {
+        SampleBatch batch = batch(1003);
+
+        assertEquals(1002 * 1003 / 2.0, batch.sum(A_ACT_POWER));
+        assertEquals(0.0, batch.min(A_ACT_POWER));
+        assertEquals(1002.0, batch.max(A_ACT_POWER));
+        assertEquals(501.0, batch.mean(A_ACT_POWER), 1e-9);
+        assertEquals(230.0, batch.min(B_VOLTAGE));
+        assertEquals(232.0, batch.max(B_VOLTAGE));
+        assertEquals(2 + 4 + 6.0, batch.sum(TOTAL_ACT_POWER, 1, 4));
+    }
+
+    @Test
+    @DisplayName("Un lote vacío devuelve NaN salvo en la suma")
+    void aggregations_Empty() {
+        SampleBatch batch = new SampleBatch();
+
+        assertEquals(0.0, batch.sum(A_ACT_POWER));
+        assertTrue(Double.isNaN(batch.min(A_ACT_POWER)));
+        assertTrue(Double.isNaN(batch.max(A_ACT_POWER)));
+        assertTrue(Double.isNaN(batch.mean(A_ACT_POWER)));
+    }
+
+    @Test
+    @DisplayName("Los recortes son copias independientes")
+    void slice_IsIndependent() {
+        SampleBatch batch = batch(10);
+
+        SampleBatch slice = batch.slice(2, 5);
+        slice.append(5000, meter(99, 230, 0));
+
+        assertEquals(4, slice.size());
+        assertEquals(2.0, slice.get(A_ACT_POWER, 0));
+        assertEquals(10, batch.size());
+        assertEquals(1050L, batch.timestamp(5));
+    }
+
+    @Test
+    @DisplayName("Recorta por intervalo de tiempo [desde, hasta)")
+    void sliceByTime() {
+        SampleBatch batch = batch(10);
+
+        SampleBatch slice = batch.sliceByTime(1015, 1050);
+
+        assertArrayEquals(new long[]{1020, 1030, 1040}, slice.timestamps());
+        assertEquals(0, batch.sliceByTime(2000, 3000).size());
+        assertEquals(0, batch.sliceByTime(1050, 1010).size());
+    }
+
+    @Test
+    @DisplayName("Rechaza muestras fuera de orden y rangos inválidos")
+    void validation() {
+        SampleBatch batch = batch(3);
+
+        assertThrows(IllegalArgumentException.class, () -> batch.append(0, meter(0, 0, 0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.get(A_PF, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.slice(2, 1));
+    }
+
+    @Test
+    @DisplayName("Convierte entre EnergyMeter, DeviceSnapshot y columnas")
+    void conversions() {
+        SampleBatch batch = new SampleBatch();
+        EnergyMeter em = meter(12.5, 229.5, 40);
+        batch.append(100, em);
+        DeviceStatus status = new DeviceStatus();
+        status.setEm0(em);
+        status.getSys().setTimestamp(LocalDateTime.now().withNano(0));
+        DeviceSnapshot snapshot = DeviceSnapshot.from(status);
+        batch.append(snapshot);
+
+        assertEquals(em.getFaseB(), batch.toEnergyMeter(0).getFaseB());
+        assertEquals(snapshot.unixtime(), batch.timestamp(1));
+        assertArrayEquals(new double[]{40, 40}, batch.column(TOTAL_ACT_POWER));
+    }
+}
@@ -0,0 +1,84 @@
+package com.bufigol.modelo.principales;
+
+import com.bufigol.config.OtherConfig;
+import com.bufigol.config.TimeSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SystemInfo Tests")
+class SystemInfoTest {
+
+    @AfterEach
+    void resetTimeSettings() {
+        TimeSettings.reset();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"10:15, 36900", "00:00, 0", "23:59:59, 86399", "07:05:30.5, 25530"})
+    @DisplayName("Convierte la hora del dispositivo en segundos del día")
+    void parseTimeOfDay(String time, int expected) {
+        assertEquals(expected, SystemInfo.parseTimeOfDay(time));
+    }
+
+    @Test
+    @DisplayName("Rechaza horas inválidas")
+    void parseTimeOfDay_Invalid() {
+        assertThrows(DateTimeParseException.class, () -> SystemInfo.parseTimeOfDay("25:00"));
+        assertThrows(DateTimeParseException.class, () -> SystemInfo.parseTimeOfDay("ab:cd"));
+    }
+
+    @Test
+    @DisplayName("Guarda los tiempos como primitivos y crea los objetos al pedirlos")
+    void constructor_StoresPrimitives() {
+        SystemInfo info = new SystemInfo(null, "A8032ABE54DC", false, "10:15", 1732097700L, 3600,
+                0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        assertEquals(36900, info.getTimeOfDay());
+        assertEquals(LocalTime.of(10, 15), info.getTime());
+        assertEquals(1732097700L, info.getUnixtime());
+        assertEquals(Duration.ofHours(1), info.getUptime());
+        assertEquals(3600, info.getUptimeSeconds());
+    }
+
+    @Test
+    @DisplayName("Usa la zona horaria y el formato de other.json")
+    void getTimestamp_ConfiguredZone() {
+        OtherConfig config = new OtherConfig("other.json");
+        config.loadConfig();
+        TimeSettings.configure(config);
+        SystemInfo info = new SystemInfo();
+        info.setUnixtime(1732097700L);
+
+        assertEquals(ZoneId.of("America/Santiago"), TimeSettings.current().getZone());
+        assertEquals(LocalDateTime.of(2024, 11, 20, 7, 15), info.getTimestamp());
+        assertEquals("2024-11-20 07:15:00", info.getFormattedTimestamp());
+
+        info.setTimestamp(LocalDateTime.of(2024, 11, 20, 8, 15));
+        assertEquals(1732097700L + 3600, info.getUnixtime());
+    }
+
+    @Test
+    @DisplayName("Sin horas, getters devuelven null y equals no falla")
+    void missingTimes() {
+        SystemInfo first = new SystemInfo();
+        SystemInfo second = new SystemInfo();
+
+        assertNull(first.getTime());
+        assertNull(first.getTimestamp());
+        assertNull(first.getUptime());
+        assertNull(first.getFormattedTimestamp());
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+}
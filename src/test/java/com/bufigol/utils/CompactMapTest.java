@@ -0,0 +1,89 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompactMap Tests")
+class CompactMapTest {
+
+    @Test
+    @DisplayName("Las respuestas con la misma forma comparten las claves")
+    void parseCompactResponse_SameShape_SharesShape() {
+        JSONUtils utils = JSONUtils.getInstance();
+        JSONResponse first = utils.parseCompactResponse("{\"isok\":true,\"data\":{\"em:0\":{\"a_current\":1.5,\"id\":0}}}");
+        int shapes = utils.getShapeCount();
+        JSONResponse second = utils.parseCompactResponse("{\"isok\":true,\"data\":{\"em:0\":{\"a_current\":2.5,\"id\":0}}}");
+
+        assertInstanceOf(CompactMap.class, first.getData().get("em:0"));
+        CompactMap secondEm = assertInstanceOf(CompactMap.class, second.getData().get("em:0"));
+        assertEquals(shapes, utils.getShapeCount());
+        assertEquals(2.5, secondEm.getDouble("a_current", Double.NaN));
+    }
+
+    @Test
+    @DisplayName("Se comporta como un Map normal")
+    void compactMap_MapView() {
+        JSONResponse response = JSONUtils.getInstance().parseCompactResponse(
+                "{\"isok\":true,\"data\":{\"name\":\"x\",\"power\":12.5,\"count\":3,\"on\":true,\"none\":null,"
+                        + "\"list\":[1,{\"a\":2}]}}");
+        Map<String, Object> data = response.getData();
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("name", "x");
+        expected.put("power", 12.5);
+        expected.put("count", 3.0);
+        expected.put("on", true);
+        expected.put("none", null);
+        expected.put("list", List.of(1.0, Map.of("a", 2.0)));
+
+        assertEquals(expected, data);
+        assertEquals(data, expected);
+        assertEquals(expected.hashCode(), data.hashCode());
+        assertTrue(data.containsKey("none"));
+        assertNull(data.get("missing"));
+        assertEquals(3L, ((CompactMap) data).getLong("count", -1));
+        assertEquals(-1, ((CompactMap) data).getLong("name", -1));
+    }
+
+    @Test
+    @DisplayName("Los mapas compactos son de solo lectura")
+    void compactMap_IsReadOnly() {
+        Map<String, Object> data = JSONUtils.getInstance()
+                .parseCompactResponse("{\"isok\":true,\"data\":{\"online\":true}}").getData();
+
+        assertThrows(UnsupportedOperationException.class, () -> data.put("online", false));
+        assertThrows(UnsupportedOperationException.class, () -> data.remove("online"));
+    }
+
+    @Test
+    @DisplayName("parseResponse sigue devolviendo mapas modificables")
+    @SuppressWarnings("unchecked")
+    void parseResponse_ReturnsMutableMaps() {
+        Map<String, Object> data = JSONUtils.getInstance()
+                .parseResponse("{\"isok\":true,\"data\":{\"online\":true,\"em:0\":{\"id\":0}}}").getData();
+
+        data.put("online", false);
+        ((Map<String, Object>) data.get("em:0")).put("id", 1);
+
+        assertEquals(false, data.get("online"));
+    }
+
+    @Test
+    @DisplayName("Si el registro está lleno se usan mapas normales")
+    void registry_Full_ReturnsNull() {
+        ObjectShape.Registry registry = new ObjectShape.Registry(1);
+        byte[] kinds = {ObjectShape.OBJECT};
+
+        assertNotNull(registry.shapeFor(new String[]{"a"}, kinds));
+        assertNotNull(registry.shapeFor(new String[]{"a"}, kinds));
+        assertNull(registry.shapeFor(new String[]{"b"}, kinds));
+        assertEquals(1, registry.size());
+    }
+}
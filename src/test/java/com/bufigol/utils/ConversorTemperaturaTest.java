@@ -7,6 +7,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Temperature Converter Tests")
@@ -111,4 +115,73 @@ class ConversorTemperaturaTest {
                     "Conversions took too long to complete");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Bulk Conversion Tests")
+    class BulkConversionTests {
+        private final double[] celsius = {-40, 0, 21.5, 37, 100, Double.NaN, -0.0};
+
+        @Test
+        @DisplayName("Array conversion should match single value conversion exactly")
+        void arraysShouldMatchScalar() {
+            double[] fahrenheit = new double[celsius.length];
+            double[] back = new double[celsius.length];
+
+            ConversorTemperatura.celsiusAFahrenheit(celsius, fahrenheit);
+            ConversorTemperatura.fahrenheitACelsius(fahrenheit, back);
+
+            for (int i = 0; i < celsius.length; i++) {
+                assertEquals(ConversorTemperatura.celsiusAFahrenheit(celsius[i]), fahrenheit[i]);
+                assertEquals(ConversorTemperatura.fahrenheitACelsius(fahrenheit[i]), back[i]);
+            }
+        }
+
+        @Test
+        @DisplayName("Array conversion should work in place and reject short targets")
+        void arraysInPlaceAndBounds() {
+            double[] values = celsius.clone();
+
+            ConversorTemperatura.celsiusAFahrenheit(values, values);
+
+            assertEquals(32.0, values[1]);
+            assertThrows(IllegalArgumentException.class,
+                    () -> ConversorTemperatura.celsiusAFahrenheit(celsius, new double[2]));
+            assertThrows(IllegalArgumentException.class,
+                    () -> ConversorTemperatura.celsiusAFahrenheit(celsius, 5, new double[10], 0, 3));
+        }
+
+        @Test
+        @DisplayName("Overlapping ranges of the same array should behave like System.arraycopy")
+        void arraysOverlappingRanges() {
+            double[] forward = {0, 100, 37, -40, 0};
+            double[] backward = {0, 100, 37, -40, 0};
+
+            ConversorTemperatura.celsiusAFahrenheit(forward, 0, forward, 1, 4);
+            ConversorTemperatura.celsiusAFahrenheit(backward, 1, backward, 0, 4);
+
+            assertArrayEquals(new double[]{0, 32, 212, ConversorTemperatura.celsiusAFahrenheit(37), -40}, forward);
+            assertArrayEquals(new double[]{212, ConversorTemperatura.celsiusAFahrenheit(37), -40, 32, 0}, backward);
+        }
+
+        @Test
+        @DisplayName("DoubleBuffer conversion should advance positions for heap and direct buffers")
+        void buffersShouldAdvance() {
+            DoubleBuffer heapIn = DoubleBuffer.wrap(celsius, 1, 4);
+            DoubleBuffer heapOut = DoubleBuffer.allocate(6);
+            heapOut.position(1);
+            DoubleBuffer directOut = ByteBuffer.allocateDirect(4 * Double.BYTES).asDoubleBuffer();
+
+            ConversorTemperatura.celsiusAFahrenheit(heapIn, heapOut);
+            ConversorTemperatura.celsiusAFahrenheit(DoubleBuffer.wrap(celsius, 1, 4), directOut);
+
+            assertEquals(5, heapIn.position());
+            assertEquals(5, heapOut.position());
+            assertEquals(32.0, heapOut.get(1));
+            assertEquals(212.0, heapOut.get(4));
+            assertEquals(4, directOut.position());
+            assertEquals(212.0, directOut.get(3));
+            assertThrows(BufferOverflowException.class,
+                    () -> ConversorTemperatura.fahrenheitACelsius(DoubleBuffer.wrap(celsius), DoubleBuffer.allocate(1)));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.AvailableUpdates;
+import com.bufigol.modelo.auxiliares.CloudStatus;
+import com.bufigol.modelo.auxiliares.StableVersion;
+import com.bufigol.modelo.auxiliares.Temperature;
+import com.bufigol.modelo.auxiliares.WifiStatus;
+import com.bufigol.modelo.principales.DeviceSnapshot;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.modelo.principales.EnergyMeter;
+import com.bufigol.modelo.principales.EnergyMeterData;
+import com.bufigol.modelo.principales.SystemInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeltaDetector Tests")
+class DeltaDetectorTest {
+    private static final String DEVICE = "abc123";
+
+    private DeltaDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new DeltaDetector();
+    }
+
+    private static DeviceStatus sample(long unixtime, double aVoltage, double aActPower, String ip) {
+        EnergyMeter em = new EnergyMeter(0,
+                aActPower, 320.0, 1.5, 50.0, 0.94, aVoltage,
+                100.0, 110.0, 0.5, 50.0, 0.91, 229.8,
+                450.0, 460.0, 2.0, 50.0, 0.98, 231.0,
+                850.5, 890.0, 4.0, new ArrayList<>(List.of("a")));
+        EnergyMeterData emdata = new EnergyMeterData(0, 1000.5, 0, 500.25, 0, 750, 1.5, 2250.75, 1.5);
+        SystemInfo sys = new SystemInfo(new AvailableUpdates(new StableVersion("1.4.4")), "A8032ABE54DC", false,
+                "10:15", unixtime, 3600 + (int) (unixtime % 1000), 247000, 120000, 524288, 200000, 12, 1, 0, 0, 3);
+        return new DeviceStatus("SPEM-003CEBEU", em, "2024-11-20 10:15:00", new CloudStatus(true),
+                new WifiStatus(ip, "got ip", "casa", -58), new Temperature(0, 35.2, 95.4),
+                emdata, sys, DEVICE);
+    }
+
+    @Test
+    @DisplayName("La primera muestra de un dispositivo contiene todos los campos")
+    void detect_FirstSample_IsFull() {
+        ChangeSet changes = detector.detect(DEVICE, sample(1000, 230.0, 300.0, "192.168.1.50"));
+
+        assertTrue(changes.isInitial());
+        assertEquals(SnapshotField.values().length, changes.size());
+        assertEquals(230.0, changes.getNumber(SnapshotField.A_VOLTAGE, Double.NaN));
+        assertEquals("192.168.1.50", changes.getText(SnapshotField.STA_IP));
+        assertEquals(1000, changes.getUnixtime());
+    }
+
+    @Test
+    @DisplayName("Una muestra igual salvo la hora no produce cambios")
+    void detect_OnlyTimeMoved_IsEmpty() {
+        detector.detect(DEVICE, sample(1000, 230.0, 300.0, "192.168.1.50"));
+
+        ChangeSet changes = detector.detect(DEVICE, sample(1010, 230.0, 300.0, "192.168.1.50"));
+
+        assertFalse(changes.isInitial());
+        assertTrue(changes.isEmpty());
+        assertEquals(1010, changes.getUnixtime());
+    }
+
+    @Test
+    @DisplayName("Solo se notifican los campos que cambian")
+    void detect_ReportsOnlyMovedFields() {
+        detector.detect(DEVICE, sample(1000, 230.0, 300.0, "192.168.1.50"));
+
+        ChangeSet changes = detector.detect(DEVICE, sample(1010, 230.0, 310.5, "192.168.1.51"));
+
+        assertEquals(EnumSet.of(SnapshotField.A_ACT_POWER, SnapshotField.STA_IP), changes.fields());
+        assertEquals(310.5, changes.getNumber(SnapshotField.A_ACT_POWER, Double.NaN));
+        assertEquals("192.168.1.51", changes.getText(SnapshotField.STA_IP));
+        assertEquals(-1.0, changes.getNumber(SnapshotField.A_VOLTAGE, -1.0));
+        assertNull(changes.getText(SnapshotField.SSID));
+    }
+
+    @Test
+    @DisplayName("Las variaciones dentro de la tolerancia se ignoran")
+    void detect_WithinTolerance_Ignored() {
+        detector.setTolerance(SnapshotField.A_VOLTAGE, 0.5);
+        detector.detect(DEVICE, sample(1000, 230.0, 300.0, "192.168.1.50"));
+
+        assertTrue(detector.detect(DEVICE, sample(1010, 230.4, 300.0, "192.168.1.50")).isEmpty());
+        assertTrue(detector.detect(DEVICE, sample(1020, 229.6, 300.0, "192.168.1.50")).isEmpty());
+
+        ChangeSet changes = detector.detect(DEVICE, sample(1030, 230.8, 300.0, "192.168.1.50"));
+        assertEquals(EnumSet.of(SnapshotField.A_VOLTAGE), changes.fields());
+        assertEquals(230.8, changes.getNumber(SnapshotField.A_VOLTAGE, Double.NaN));
+    }
+
+    @Test
+    @DisplayName("La deriva lenta se notifica al superar la tolerancia respecto al último valor notificado")
+    void detect_SlowDrift_EventuallyReported() {
+        detector.setTolerance(SnapshotField.A_VOLTAGE, 0.5);
+        detector.detect(DEVICE, sample(1000, 230.0, 300.0, "192.168.1.50"));
+
+        assertTrue(detector.detect(DEVICE, sample(1010, 230.3, 300.0, "192.168.1.50")).isEmpty());
+        ChangeSet changes = detector.detect(DEVICE, sample(1020, 230.6, 300.0, "192.168.1.50"));
+
+        assertTrue(changes.contains(SnapshotField.A_VOLTAGE));
+    }
+
+    @Test
+    @DisplayName("Cada dispositivo tiene su propia referencia")
+    void detect_PerDevice() {
+        detector.detect("d1", sample(1000, 230.0, 300.0, "192.168.1.50"));
+
+        assertTrue(detector.detect("d2", sample(1000, 231.0, 300.0, "192.168.1.50")).isInitial());
+        assertTrue(detector.detect("d1", sample(1010, 230.0, 300.0, "192.168.1.50")).isEmpty());
+        assertEquals(2, detector.size());
+
+        detector.reset("d1");
+        assertTrue(detector.detect("d1", sample(1020, 230.0, 300.0, "192.168.1.50")).isInitial());
+    }
+
+    @Test
+    @DisplayName("Las tolerancias no válidas se rechazan")
+    void setTolerance_Invalid_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> detector.setTolerance(SnapshotField.STA_IP, 1));
+        assertThrows(IllegalArgumentException.class, () -> detector.setTolerance(SnapshotField.A_VOLTAGE, -1));
+        assertThrows(IllegalArgumentException.class, () -> detector.setTolerance(SnapshotField.A_VOLTAGE, Double.NaN));
+    }
+
+    @Test
+    @DisplayName("Leer un campo con el tipo equivocado es un error de uso")
+    void snapshotField_WrongKind_Throws() {
+        DeviceSnapshot snapshot = DeviceSnapshot.from(sample(1000, 230.0, 300.0, "192.168.1.50"));
+
+        assertThrows(IllegalStateException.class, () -> SnapshotField.STA_IP.number(snapshot));
+        assertThrows(IllegalStateException.class, () -> SnapshotField.A_VOLTAGE.text(snapshot));
+    }
+
+    @Test
+    @DisplayName("Todos los campos caben en la máscara de un long")
+    void fields_FitInMask() {
+        assertTrue(SnapshotField.values().length <= Long.SIZE);
+    }
+}
@@ -0,0 +1,179 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.Fase;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.modelo.principales.ShellyResponse;
+import jakarta.json.stream.JsonParsingException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeviceStatusBinder Tests")
+class DeviceStatusBinderTest {
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Produce el mismo DeviceStatus que DeviceStatusMapper")
+    void readResponse_MatchesMapper() {
+        ShellyResponse response = DeviceStatusBinder.readResponse(stream(DeviceStatusMapperTest.STATUS_RESPONSE));
+        DeviceStatus expected = DeviceStatusMapper.fromResponse(
+                JSONUtils.getInstance().parseResponse(DeviceStatusMapperTest.STATUS_RESPONSE));
+
+        assertTrue(response.isIsok());
+        assertTrue(response.getData().isOnline());
+        DeviceStatus status = response.getData().getDeviceStatus();
+        assertEquals(expected, status);
+        assertEquals(300.5, status.getEm0().getFaseA().getActPower(), 0.001);
+        assertEquals(231.0, status.getEm0().getFaseC().getVoltage(), 0.001);
+        assertEquals(2250.75, status.getEmdata0().getTotalAct(), 0.001);
+        assertEquals("1.4.4", status.getSys().getAvailableUpdates().getStable().getVersion());
+        assertEquals(95.4, status.getTemperature0().gettF(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Lee el objeto de Shelly.GetStatus saltando los campos desconocidos")
+    void readStatus_SkipsUnknownFields() {
+        String json = """
+                {"ble":{"nested":{"deep":[1,[2,{"x":3}]]}},"unknown":[{"a":1}],"flag":null,
+                 "wifi":{"sta_ip":"10.0.0.7","extra":{"k":"v"},"rssi":-70},
+                 "em:0":{"id":0,"a_act_power":12.5,"a_unknown":{"x":1},"n_current":null,"total_act_power":40}}""";
+
+        DeviceStatus status = DeviceStatusBinder.readStatus(stream(json));
+
+        assertEquals("10.0.0.7", status.getWifi().getStaIp());
+        assertEquals(-70, status.getWifi().getRssi());
+        assertEquals(12.5, status.getEm0().getFaseA().getActPower(), 0.001);
+        assertEquals(40.0, status.getEm0().getTotalActPower(), 0.001);
+        assertEquals("", status.getId());
+    }
+
+    @Test
+    @DisplayName("Una respuesta sin device_status conserva el estado por defecto")
+    void readResponse_WithoutStatus() {
+        ShellyResponse response = DeviceStatusBinder.readResponse(
+                stream("{\"isok\":false,\"errors\":{\"device_not_found\":\"x\"},\"data\":{\"online\":false}}"));
+
+        assertFalse(response.isIsok());
+        assertFalse(response.getData().isOnline());
+        assertNotNull(response.getData().getDeviceStatus());
+    }
+
+    @Test
+    @DisplayName("Un JSON inválido lanza JsonParsingException")
+    void readResponse_InvalidJSON_Throws() {
+        assertThrows(JsonParsingException.class, () -> DeviceStatusBinder.readResponse(stream("{invalid json}")));
+        assertThrows(JsonParsingException.class, () -> DeviceStatusBinder.readResponse(stream("[1,2]")));
+    }
+
+    @Test
+    @DisplayName("Al reutilizar el grafo se obtiene lo mismo que con uno nuevo")
+    void readResponse_Recycled_MatchesFresh() {
+        ShellyResponse target = DeviceStatusBinder.readResponse(stream(DeviceStatusMapperTest.STATUS_RESPONSE));
+        DeviceStatus status = target.getData().getDeviceStatus();
+        Fase faseA = status.getEm0().getFaseA();
+        String partial = "{\"isok\":true,\"data\":{\"online\":true,\"device_status\":"
+                + "{\"em:0\":{\"a_act_power\":7.5},\"sys\":{\"uptime\":5,\"time\":\"08:00\",\"unixtime\":1}}}}";
+
+        ShellyResponse recycled = DeviceStatusBinder.readResponse(stream(partial), target);
+
+        assertSame(target, recycled);
+        assertSame(status, recycled.getData().getDeviceStatus());
+        assertSame(faseA, status.getEm0().getFaseA());
+        ShellyResponse fresh = DeviceStatusBinder.readResponse(stream(partial));
+        assertEquals(fresh.getData().getDeviceStatus(), status);
+        assertEquals(7.5, faseA.getActPower());
+        assertEquals(0.0, status.getEm0().getFaseC().getVoltage());
+        assertEquals(0.0, status.getTemperature0().gettC());
+        assertNull(status.getWifi().getStaIp());
+        assertNull(status.getSys().getAvailableUpdates().getStable().getVersion());
+    }
+
+    @Test
+    @DisplayName("Las ranuras reciclan la respuesta de cada dispositivo")
+    void deviceStatusSlots_ReuseResponse() {
+        DeviceStatusSlots slots = new DeviceStatusSlots();
+
+        ShellyResponse first = slots.readResponse("a", stream(DeviceStatusMapperTest.STATUS_RESPONSE));
+        DeviceStatus expected = DeviceStatusMapper.fromResponse(
+                JSONUtils.getInstance().parseResponse(DeviceStatusMapperTest.STATUS_RESPONSE));
+        ShellyResponse second = slots.readResponse("a", stream(DeviceStatusMapperTest.STATUS_RESPONSE));
+        ShellyResponse other = slots.readResponse("b", stream(DeviceStatusMapperTest.STATUS_RESPONSE));
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals(expected, second.getData().getDeviceStatus());
+        assertEquals(2, slots.size());
+    }
+
+    @Test
+    @DisplayName("Una lectura fallida descarta la ranura")
+    void deviceStatusSlots_FailureDropsSlot() {
+        DeviceStatusSlots slots = new DeviceStatusSlots();
+        ShellyResponse first = slots.readResponse("a", stream(DeviceStatusMapperTest.STATUS_RESPONSE));
+
+        assertThrows(JsonParsingException.class, () -> slots.readResponse("a", stream("{\"isok\":")));
+
+        assertEquals(0, slots.size());
+        assertNotSame(first, slots.readResponse("a", stream(DeviceStatusMapperTest.STATUS_RESPONSE)));
+    }
+
+    @Test
+    @DisplayName("Las lecturas concurrentes del mismo dispositivo esperan en lugar de fallar")
+    void deviceStatusSlots_ConcurrentReadsSerialize() throws Exception {
+        DeviceStatusSlots slots = new DeviceStatusSlots();
+        byte[] body = DeviceStatusMapperTest.STATUS_RESPONSE.getBytes(StandardCharsets.UTF_8);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slow = new ByteArrayInputStream(body) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                reading.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.read(buffer, offset, length);
+            }
+        };
+
+        CompletableFuture<ShellyResponse> first = CompletableFuture.supplyAsync(() -> slots.readResponse("a", slow));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ShellyResponse> second = CompletableFuture.supplyAsync(
+                () -> slots.readResponse("a", stream(DeviceStatusMapperTest.STATUS_RESPONSE)));
+        Thread.sleep(50);
+        assertFalse(second.isDone());
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("El objeto asociado a una ranura se crea una sola vez")
+    void deviceStatusSlots_AttachmentIsCached() {
+        DeviceStatusSlots slots = new DeviceStatusSlots();
+        AtomicInteger created = new AtomicInteger();
+
+        Function<InputStream, ShellyResponse> reader = slots.attachment("a", r -> {
+            created.incrementAndGet();
+            return r;
+        });
+
+        assertSame(reader, slots.attachment("a", r -> r));
+        assertEquals(1, created.get());
+        assertNotNull(reader.apply(stream(DeviceStatusMapperTest.STATUS_RESPONSE)).getData());
+    }
+}
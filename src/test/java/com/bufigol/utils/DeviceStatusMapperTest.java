@@ -0,0 +1,73 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.modelo.principales.DeviceStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeviceStatusMapper Tests")
+class DeviceStatusMapperTest {
+
+    static final String STATUS_RESPONSE = """
+            {"isok":true,"data":{"online":true,"device_status":{
+              "code":"SPEM-003CEBEU","updated":"2024-11-20 10:15:00","id":"abc123",
+              "em:0":{"id":0,"a_current":1.5,"a_voltage":230.1,"a_act_power":300.5,"a_aprt_power":320.0,
+                      "a_pf":0.94,"a_freq":50.0,"b_current":0.5,"b_voltage":229.8,"b_act_power":100.0,
+                      "b_aprt_power":110.0,"b_pf":0.91,"b_freq":50.0,"c_current":2.0,"c_voltage":231.0,
+                      "c_act_power":450.0,"c_aprt_power":460.0,"c_pf":0.98,"c_freq":50.0,"n_current":null,
+                      "total_current":4.0,"total_act_power":850.5,"total_aprt_power":890.0,
+                      "user_calibrated_phase":[]},
+              "emdata:0":{"id":0,"a_total_act_energy":1000.5,"a_total_act_ret_energy":0,
+                          "b_total_act_energy":500.25,"b_total_act_ret_energy":0,"c_total_act_energy":750,
+                          "c_total_act_ret_energy":1.5,"total_act":2250.75,"total_act_ret":1.5},
+              "sys":{"mac":"A8032ABE54DC","restart_required":false,"time":"10:15","unixtime":1732097700,
+                     "uptime":3600,"ram_size":247000,"ram_free":120000,"fs_size":524288,"fs_free":200000,
+                     "cfg_rev":12,"kvs_rev":1,"schedule_rev":0,"webhook_rev":0,
+                     "available_updates":{"stable":{"version":"1.4.4"}},"reset_reason":3},
+              "wifi":{"sta_ip":"192.168.1.50","status":"got ip","ssid":"casa","rssi":-58},
+              "cloud":{"connected":true},
+              "temperature:0":{"id":0,"tC":35.2,"tF":95.4},
+              "ble":{},"modbus":{}
+            }}}""";
+
+    @Test
+    @DisplayName("Convierte la sección device_status en el modelo tipado")
+    void fromResponse_FullStatus() {
+        JSONResponse response = JSONUtils.getInstance().parseResponse(STATUS_RESPONSE);
+
+        DeviceStatus status = DeviceStatusMapper.fromResponse(response);
+
+        assertNotNull(status);
+        assertEquals("abc123", status.getId());
+        assertEquals("SPEM-003CEBEU", status.getCode());
+        assertEquals(300.5, status.getEm0().getFaseA().getActPower());
+        assertEquals(229.8, status.getEm0().getFaseB().getVoltage());
+        assertEquals(0.98, status.getEm0().getFaseC().getPf());
+        assertEquals(850.5, status.getEm0().getTotalActPower());
+        assertEquals(List.of(), status.getEm0().getUserCalibratedPhase());
+        assertEquals(2250.75, status.getEmdata0().getTotalAct());
+        assertEquals(750.0, status.getEmdata0().getcTotalActEnergy());
+        assertEquals("A8032ABE54DC", status.getSys().getMac());
+        assertEquals(LocalTime.of(10, 15), status.getSys().getTime());
+        assertEquals(Duration.ofHours(1), status.getSys().getUptime());
+        assertEquals("1.4.4", status.getSys().getAvailableUpdates().getStable().getVersion());
+        assertEquals("192.168.1.50", status.getWifi().getStaIp());
+        assertEquals(-58, status.getWifi().getRssi());
+        assertTrue(status.getCloud().isConnected());
+        assertEquals(35.2, status.getTemperature0().gettC());
+    }
+
+    @Test
+    @DisplayName("Devuelve null si la respuesta no tiene device_status")
+    void fromResponse_WithoutStatus_ReturnsNull() {
+        JSONResponse response = JSONUtils.getInstance().parseResponse("{\"isok\":false,\"data\":{}}");
+
+        assertNull(DeviceStatusMapper.fromResponse(response));
+    }
+}
@@ -0,0 +1,89 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.modelo.principales.ShellyResponse;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeviceStatusWriter Tests")
+class DeviceStatusWriterTest {
+
+    private static ShellyResponse sample() {
+        return DeviceStatusBinder.readResponse(new ByteArrayInputStream(
+                DeviceStatusMapperTest.STATUS_RESPONSE.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Lo escrito se vuelve a leer como el mismo DeviceStatus")
+    void write_RoundTrip() {
+        DeviceStatus status = sample().getData().getDeviceStatus();
+
+        byte[] json = DeviceStatusWriter.toBytes(status);
+
+        assertEquals(status, DeviceStatusBinder.readStatus(new ByteArrayInputStream(json)));
+    }
+
+    @Test
+    @DisplayName("Escribe la respuesta completa con la forma de Shelly Cloud")
+    void write_ShellyResponse() throws IOException {
+        ShellyResponse response = sample();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        DeviceStatusWriter.write(response, out);
+
+        JsonObject json = Json.createReader(new StringReader(out.toString(StandardCharsets.UTF_8))).readObject();
+        assertTrue(json.getBoolean("isok"));
+        JsonObject em = json.getJsonObject("data").getJsonObject("device_status").getJsonObject("em:0");
+        assertEquals(300.5, em.getJsonNumber("a_act_power").doubleValue());
+        assertEquals("10:15", json.getJsonObject("data").getJsonObject("device_status")
+                .getJsonObject("sys").getString("time"));
+        assertEquals(response.getData().getDeviceStatus(), DeviceStatusBinder.readResponse(
+                new ByteArrayInputStream(out.toByteArray())).getData().getDeviceStatus());
+    }
+
+    @Test
+    @DisplayName("Escribe en un ByteBuffer a partir de su posición")
+    void write_ByteBuffer() {
+        DeviceStatus status = sample().getData().getDeviceStatus();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        buffer.put((byte) ' ');
+
+        DeviceStatusWriter.write(status, buffer);
+
+        assertArrayEquals(DeviceStatusWriter.toBytes(status),
+                java.util.Arrays.copyOfRange(buffer.array(), 1, buffer.position()));
+    }
+
+    @Test
+    @DisplayName("Formatea los double con la representación más corta")
+    void jsonByteWriter_Doubles() {
+        JsonByteWriter writer = new JsonByteWriter(4);
+        writer.beginArray().value(0.1).value(-230.25).value(50.0).value(1e-12).value(Double.NaN)
+                .value(1e300).value(0.94).value(Long.MIN_VALUE).endArray();
+
+        assertEquals("[0.1,-230.25,50,1.0E-12,null,1.0E300,0.94,-9223372036854775808]",
+                new String(writer.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("Escapa las cadenas y las codifica en UTF-8")
+    void jsonByteWriter_Strings() {
+        JsonByteWriter writer = new JsonByteWriter(4);
+        writer.beginObject().name("k\"").value("ñ\n\u0001😀").name("n").nullValue().endObject();
+
+        String json = new String(writer.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals("{\"k\\\"\":\"ñ\\n\\u0001😀\",\"n\":null}", json);
+        assertEquals("ñ\n\u0001😀", Json.createReader(new StringReader(json)).readObject().getString("k\""));
+    }
+}
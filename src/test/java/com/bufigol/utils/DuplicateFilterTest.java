@@ -0,0 +1,43 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.principales.DeviceSnapshot;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.modelo.principales.EnergyMeter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DuplicateFilter Tests")
+class DuplicateFilterTest {
+
+    private static DeviceSnapshot snapshot(double totalActPower) {
+        EnergyMeter em = new EnergyMeter();
+        em.setTotalActPower(totalActPower);
+        return DeviceSnapshot.from(new DeviceStatus("SPEM-003CEBEU", em, "2024-11-20 10:15:00",
+                null, null, null, null, null, "abc123"));
+    }
+
+    @Test
+    @DisplayName("Una muestra igual a la anterior del mismo dispositivo se descarta")
+    void accept_DropsRepeatedSample() {
+        DuplicateFilter filter = new DuplicateFilter();
+
+        assertTrue(filter.accept("abc123", snapshot(850.5)));
+        assertFalse(filter.accept("abc123", snapshot(850.5)));
+        assertTrue(filter.accept("abc123", snapshot(851.0)));
+        assertTrue(filter.accept("otro", snapshot(851.0)));
+        assertEquals(1, filter.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("Tras reset la siguiente muestra se acepta")
+    void reset_AcceptsAgain() {
+        DuplicateFilter filter = new DuplicateFilter();
+        filter.accept("abc123", snapshot(850.5));
+
+        filter.reset("abc123");
+
+        assertTrue(filter.accept("abc123", snapshot(850.5)));
+    }
+}
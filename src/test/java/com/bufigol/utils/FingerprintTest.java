@@ -0,0 +1,36 @@
+package com.bufigol.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fingerprint Tests")
+class FingerprintTest {
+
+    @Test
+    @DisplayName("Coincide con XXH64 sobre la secuencia de palabras little-endian")
+    void value_MatchesXxh64() {
+        assertEquals(0xEF46DB3751D8E999L, new Fingerprint().value());
+        assertEquals(0x4B180FEC3EF3D4ACL, new Fingerprint().add(1L).add(2L).value());
+        assertEquals(0xBC50EBD6BC8FA148L,
+                new Fingerprint().add(1L).add(2L).add(3L).add(4L).add(5L).value());
+    }
+
+    @Test
+    @DisplayName("reset permite reutilizar el objeto")
+    void reset_Reuses() {
+        Fingerprint fingerprint = new Fingerprint().add("casa").add(230.5);
+        long first = fingerprint.value();
+
+        assertEquals(first, fingerprint.reset().add("casa").add(230.5).value());
+    }
+
+    @Test
+    @DisplayName("Los valores se distinguen por su forma canónica")
+    void add_CanonicalForms() {
+        assertNotEquals(new Fingerprint().add((String) null).value(), new Fingerprint().add("").value());
+        assertNotEquals(new Fingerprint().add("ab").add("c").value(), new Fingerprint().add("a").add("bc").value());
+        assertEquals(new Fingerprint().add(Double.NaN).value(), new Fingerprint().add(0.0 / 0.0).value());
+    }
+}
@@ -1,14 +1,23 @@
 package com.bufigol.utils;
 
+import com.bufigol.expeciones.ConfigurationException;
 import com.bufigol.modelo.auxiliares.JSONResponse;
 import jakarta.json.Json;
 import jakarta.json.JsonValue;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class JSONUtilsTest {
     @Test
@@ -40,6 +49,32 @@ public class JSONUtilsTest {
         assertTrue(((String)response.getData().get("error")).startsWith("Error parsing JSON response"));
     }
 
+    @Test
+    void parseResponse_InputStream_Success() {
+        // Arrange
+        byte[] json = "{\"isok\":true,\"data\":{\"name\":\"ñandú\",\"value\":123}}"
+                .getBytes(java.nio.charset.StandardCharsets.UTF_8);
+
+        // Act
+        JSONResponse response = JSONUtils.getInstance().parseResponse(new java.io.ByteArrayInputStream(json));
+
+        // Assert
+        assertTrue(response.isIsok());
+        assertEquals("ñandú", response.getData().get("name"));
+        assertEquals(123.0, response.getData().get("value"));
+    }
+
+    @Test
+    void parseResponse_InputStreamInvalidJSON_ReturnsErrorResponse() {
+        // Act
+        JSONResponse response = JSONUtils.getInstance().parseResponse(
+                new java.io.ByteArrayInputStream("{invalid json}".getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+
+        // Assert
+        assertFalse(response.isIsok());
+        assertTrue(response.getData().containsKey("error"));
+    }
+
     @Test
     void parseResponse_EmptyData_ReturnsEmptyMap() {
         // Arrange
@@ -155,4 +190,144 @@ public class JSONUtilsTest {
         assertInstanceOf(Map.class, array.get(2));
         assertEquals("value", ((Map<?, ?>) array.get(2)).get("key"));
     }
+
+    @Test
+    void readConfigValue_UnchangedFile_ReadsDiskOnce(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path configFile = tempDir.resolve("config.json");
+        Files.writeString(configFile, "{\"name\":\"test\",\"level\":\"INFO\"}");
+        JSONUtils jsonUtils = JSONUtils.getInstance(configFile.toString());
+
+        try {
+            // Act
+            String name = jsonUtils.readConfigValue("name");
+            String level = jsonUtils.readConfigValue("level");
+            boolean hasName = jsonUtils.hasProperty("name");
+
+            // Assert
+            assertEquals("test", name);
+            assertEquals("INFO", level);
+            assertTrue(hasName);
+            assertEquals(1, jsonUtils.getConfigDiskReadCount());
+        } finally {
+            JSONUtils.getInstance("config/config.json");
+        }
+    }
+
+    @Test
+    void readConfigValue_ChangedFile_Reloads(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path configFile = tempDir.resolve("config.json");
+        Files.writeString(configFile, "{\"name\":\"test\"}");
+        JSONUtils jsonUtils = JSONUtils.getInstance(configFile.toString());
+
+        try {
+            assertEquals("test", jsonUtils.readConfigValue("name"));
+
+            // Act
+            Files.writeString(configFile, "{\"name\":\"changed\"}");
+            Files.setLastModifiedTime(configFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+            String changed = jsonUtils.readConfigValue("name");
+            jsonUtils.saveConfigValue("name", "saved");
+            String saved = jsonUtils.readConfigValue("name");
+
+            // Assert
+            assertEquals("changed", changed);
+            assertEquals("saved", saved);
+            assertEquals(4, jsonUtils.getConfigDiskReadCount());
+        } finally {
+            JSONUtils.getInstance("config/config.json");
+        }
+    }
+
+    @Test
+    void edit_AppliesAllChangesInOneWrite(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path configFile = tempDir.resolve("config.json");
+        Files.writeString(configFile, "{\"keep\":\"yes\",\"old\":\"value\"}");
+        JSONUtils jsonUtils = JSONUtils.getInstance(configFile.toString());
+
+        try {
+            // Act
+            boolean written = jsonUtils.edit(tx -> {
+                tx.set("name", "test");
+                tx.set("level", "DEBUG");
+                tx.remove("old");
+            });
+            boolean unchanged = jsonUtils.edit(tx -> tx.set("name", "test"));
+
+            // Assert
+            assertTrue(written);
+            assertFalse(unchanged);
+            Map<String, Object> config = jsonUtils.readConfigFile(configFile.toString());
+            assertEquals(Map.of("keep", "yes", "name", "test", "level", "DEBUG"), config);
+            try (var files = Files.list(tempDir)) {
+                assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+            }
+        } finally {
+            JSONUtils.getInstance("config/config.json");
+        }
+    }
+
+    @Test
+    void edit_KeepsFilePermissions(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path configFile = tempDir.resolve("config.json");
+        Files.writeString(configFile, "{\"name\":\"test\"}");
+        assumeTrue(configFile.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        Files.setPosixFilePermissions(configFile, permissions);
+        JSONUtils jsonUtils = JSONUtils.getInstance(configFile.toString());
+
+        try {
+            // Act
+            jsonUtils.saveConfigValue("name", "saved");
+
+            // Assert
+            assertEquals(permissions, Files.getPosixFilePermissions(configFile));
+        } finally {
+            JSONUtils.getInstance("config/config.json");
+        }
+    }
+
+    @Test
+    void edit_ConcurrentWriters_LoseNoUpdates(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path configFile = tempDir.resolve("config.json");
+        JSONUtils jsonUtils = JSONUtils.getInstance(configFile.toString());
+        int writers = 20;
+
+        try {
+            // Act
+            List<Thread> threads = new java.util.ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                String key = "key" + i;
+                threads.add(Thread.ofVirtual().start(() -> jsonUtils.saveConfigValue(key, "value")));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // Assert
+            assertEquals(writers, jsonUtils.readConfigFile(configFile.toString()).size());
+        } finally {
+            JSONUtils.getInstance("config/config.json");
+        }
+    }
+
+    @Test
+    void edit_InvalidFile_ThrowsAndKeepsContent(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path configFile = tempDir.resolve("config.json");
+        Files.writeString(configFile, "{invalid json}");
+        JSONUtils jsonUtils = JSONUtils.getInstance(configFile.toString());
+
+        try {
+            // Act & Assert
+            assertThrows(ConfigurationException.class, () -> jsonUtils.edit(tx -> tx.set("name", "test")));
+            assertEquals("{invalid json}", Files.readString(configFile));
+        } finally {
+            JSONUtils.getInstance("config/config.json");
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JsonPath Tests")
+class JsonPathTest {
+
+    private static final JSONResponse RESPONSE =
+            JSONUtils.getInstance().parseResponse(DeviceStatusMapperTest.STATUS_RESPONSE);
+
+    @Test
+    @DisplayName("Resuelve rutas con claves que contienen ':'")
+    void getDouble_NestedPath() {
+        JsonPath path = JsonPath.compile("device_status/em:0/a_act_power");
+
+        assertEquals(300.5, path.getDouble(RESPONSE, Double.NaN), 0.001);
+        assertEquals(1732097700L, JsonPath.compile("device_status/sys/unixtime").getLong(RESPONSE, -1));
+        assertTrue(JsonPath.compile("online").getBoolean(RESPONSE, false));
+        assertEquals("1.4.4", JsonPath.compile("device_status/sys/available_updates/stable/version")
+                .getString(RESPONSE, null));
+    }
+
+    @Test
+    @DisplayName("Las rutas inexistentes o de otro tipo devuelven el valor por defecto")
+    void getDouble_Missing_ReturnsDefault() {
+        assertEquals(-1.0, JsonPath.compile("device_status/em:1/a_act_power").getDouble(RESPONSE, -1.0));
+        assertEquals(-1.0, JsonPath.compile("device_status/sys/mac/x").getDouble(RESPONSE, -1.0));
+        assertEquals(-1.0, JsonPath.compile("device_status/sys/mac").getDouble(RESPONSE, -1.0));
+        assertFalse(JsonPath.compile("device_status/em:0/n_current").isPresent(RESPONSE));
+        assertEquals(-1.0, JsonPath.compile("online").getDouble(null, -1.0));
+    }
+
+    @Test
+    @DisplayName("Los segmentos numéricos indexan listas")
+    void resolve_ListIndex() {
+        JSONResponse response = JSONUtils.getInstance().parseResponse(
+                "{\"isok\":true,\"data\":{\"values\":[10,{\"x\":20}]}}");
+
+        assertEquals(10L, JsonPath.compile("values/0").getLong(response, -1));
+        assertEquals(20L, JsonPath.compile("values/1/x").getLong(response, -1));
+        assertEquals(-1L, JsonPath.compile("values/2").getLong(response, -1));
+    }
+
+    @Test
+    @DisplayName("Rechaza rutas vacías")
+    void compile_Invalid_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile(""));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("device_status//id"));
+    }
+
+    @Test
+    @DisplayName("JsonPathSet evalúa todas las rutas en una pasada y en orden")
+    void pathSet_ReadsAllInOrder() {
+        JsonPathSet set = JsonPathSet.compile(
+                "device_status/em:0/a_act_power",
+                "device_status/em:0/b_act_power",
+                "device_status/emdata:0/total_act",
+                "device_status/em:0/missing",
+                "device_status/em:0/a_act_power");
+        double[] values = new double[set.size()];
+
+        set.readDoubles(RESPONSE, values, Double.NaN);
+
+        assertArrayEquals(new double[]{300.5, 100.0, 2250.75, Double.NaN, 300.5}, values, 0.001);
+        long[] longs = new long[set.size()];
+        set.readLongs(RESPONSE, longs, -1);
+        assertEquals(2250L, longs[2]);
+        assertEquals(-1L, longs[3]);
+        assertThrows(IllegalArgumentException.class, () -> set.readDoubles(RESPONSE, new double[2], 0));
+    }
+
+    @Test
+    @DisplayName("JsonPathSet lee igual las respuestas compactas")
+    void pathSet_CompactResponse_SameValues() {
+        JSONResponse compact = JSONUtils.getInstance().parseCompactResponse(DeviceStatusMapperTest.STATUS_RESPONSE);
+        JsonPathSet set = JsonPathSet.compile(
+                "device_status/em:0/a_act_power",
+                "device_status/em:0",
+                "device_status/emdata:0/total_act",
+                "device_status/em:0/missing",
+                "device_status/sys/mac");
+        double[] expected = new double[set.size()];
+        double[] values = new double[set.size()];
+        long[] expectedLongs = new long[set.size()];
+        long[] longs = new long[set.size()];
+
+        set.readDoubles(RESPONSE, expected, Double.NaN);
+        set.readDoubles(compact, values, Double.NaN);
+        set.readLongs(RESPONSE, expectedLongs, -1);
+        set.readLongs(compact, longs, -1);
+
+        assertArrayEquals(expected, values);
+        assertArrayEquals(expectedLongs, longs);
+        assertEquals(300.5, values[0], 0.001);
+    }
+}
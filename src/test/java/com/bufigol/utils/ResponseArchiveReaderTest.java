@@ -0,0 +1,83 @@
+package com.bufigol.utils;
+
+import com.bufigol.modelo.auxiliares.JSONResponse;
+import com.bufigol.modelo.principales.DeviceStatus;
+import com.bufigol.modelo.principales.ShellyResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ResponseArchiveReader Tests")
+class ResponseArchiveReaderTest {
+
+    private static final String STATUS_LINE = DeviceStatusMapperTest.STATUS_RESPONSE.replace('\n', ' ');
+
+    @TempDir
+    Path tempDir;
+
+    private Path archive(String content) throws IOException {
+        Path file = tempDir.resolve("archive.ndjson");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    @DisplayName("Separa los registros e ignora las líneas vacías y los \\r")
+    void responses_SplitsRecords() throws IOException {
+        Path file = archive("{\"isok\":true,\"data\":{\"n\":1}}\r\n\n{\"isok\":true,\"data\":{\"n\":\"ñ\"}}\n"
+                + "{\"isok\":false,\"data\":{}}");
+
+        try (ResponseArchiveReader reader = ResponseArchiveReader.open(file)) {
+            List<JSONResponse> responses = reader.responses().toList();
+
+            assertEquals(3, reader.size());
+            assertEquals(1.0, responses.get(0).getData().get("n"));
+            assertEquals("ñ", responses.get(1).getData().get("n"));
+            assertFalse(responses.get(2).isIsok());
+        }
+    }
+
+    @Test
+    @DisplayName("Parsea al modelo tipado en paralelo conservando el orden")
+    void shellyResponses_Parallel() throws IOException {
+        Path file = archive((STATUS_LINE + "\n").repeat(50));
+        DeviceStatus expected = DeviceStatusMapper.fromResponse(
+                JSONUtils.getInstance().parseResponse(DeviceStatusMapperTest.STATUS_RESPONSE));
+
+        try (ResponseArchiveReader reader = ResponseArchiveReader.open(file)) {
+            List<ShellyResponse> responses = reader.shellyResponses().parallel().toList();
+
+            assertEquals(50, responses.size());
+            responses.forEach(response -> assertEquals(expected, response.getData().getDeviceStatus()));
+        }
+    }
+
+    @Test
+    @DisplayName("Los registros no se parten entre regiones proyectadas")
+    void open_SmallRegions_KeepsRecordsWhole() throws IOException {
+        Path file = archive("{\"isok\":true,\"data\":{\"n\":1}}\n{\"isok\":true,\"data\":{\"n\":2}}\n"
+                + "{\"isok\":true,\"data\":{\"n\":3}}\n");
+
+        try (ResponseArchiveReader reader = ResponseArchiveReader.open(file, 40)) {
+            List<Object> values = reader.responses().map(response -> response.getData().get("n")).toList();
+
+            assertEquals(List.of(1.0, 2.0, 3.0), values);
+        }
+    }
+
+    @Test
+    @DisplayName("Un registro mayor que una región produce un error")
+    void open_RecordLargerThanRegion_Throws() throws IOException {
+        Path file = archive(STATUS_LINE + "\n" + STATUS_LINE + "\n");
+
+        assertThrows(IOException.class, () -> ResponseArchiveReader.open(file, 16));
+    }
+}